@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Measures the time from JVM launch to the first successful GET /health.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Compares the plain jar with the fast-startup build (AOT + CDS archive), when
+# target/application exists (mvn -Pfast-startup package). The service needs its
+# dependencies, e.g. `docker-compose up -d`; extra JVM options such as datasource
+# or MinIO settings can be passed through JAVA_OPTS.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-5004}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+JAR="$(ls target/image-service-*.jar | grep -v original | head -n 1)"
+HEALTH_URL="http://localhost:${PORT}/health"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the given command, polls /health and prints the elapsed milliseconds
+measure() {
+    local start elapsed pid
+    start="$(now_ms)"
+    "$@" --server.port="${PORT}" > /dev/null 2>&1 &
+    pid=$!
+
+    until curl -fs -o /dev/null "${HEALTH_URL}"; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "application exited before becoming healthy" >&2
+            return 1
+        fi
+        if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+            kill "${pid}"
+            echo "no healthy response after ${TIMEOUT_SECONDS}s" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+    echo "${elapsed}"
+}
+
+# Runs a variant several times and reports min / median / max
+benchmark() {
+    local name="$1"
+    shift
+    local times=()
+    for ((i = 1; i <= RUNS; i++)); do
+        times+=("$(measure "$@")")
+    done
+    IFS=$'\n' sorted=($(sort -n <<< "${times[*]}"))
+    unset IFS
+    printf "%-14s min %6d ms   median %6d ms   max %6d ms\n" \
+        "${name}" "${sorted[0]}" "${sorted[$(( RUNS / 2 ))]}" "${sorted[$(( RUNS - 1 ))]}"
+}
+
+# shellcheck disable=SC2086
+benchmark "jar" java ${JAVA_OPTS:-} -jar "${JAR}"
+
+if [[ -f target/application/application.jsa ]]; then
+    APP_JAR="target/application/$(basename "${JAR}")"
+    # shellcheck disable=SC2086
+    benchmark "aot+cds" java ${JAVA_OPTS:-} -XX:SharedArchiveFile=target/application/application.jsa \
+        -Dspring.aot.enabled=true -jar "${APP_JAR}"
+fi
@@ -0,0 +1,91 @@
+package org.igdevx.imageservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shape of the synthetic dataset written by the "dataset-generator" profile.
+ * Defaults approximate the production ratios between users, sellers and
+ * product images.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "seed.dataset")
+@Data
+public class DatasetGeneratorConfig {
+
+    private int users = 100_000;
+    private String userIdPrefix = "dataset-user-";
+    // Same seed, same users, products and object paths
+    private long randomSeed = 42;
+    // Removes the rows of a previous run with the same prefix first
+    private boolean replaceExisting = true;
+
+    private double profileShare = 0.85;
+    private double bannerShare = 0.35;
+    // Share of users that sell products
+    private double sellerShare = 0.2;
+    private Zipf productsPerSeller = new Zipf(500, 1.2);
+    private Zipf imagesPerProduct = new Zipf(8, 1.5);
+    private double deletedShare = 0.03;
+    // uploaded_at is spread uniformly over this period before historyEnd
+    private Duration history = Duration.ofDays(365);
+    // Now when unset; fixing it makes dates and IDs the same on every run
+    private LocalDateTime historyEnd;
+    private List<SizeBucket> sizeHistogram = defaultSizeHistogram();
+
+    private ObjectMode objects = ObjectMode.TEMPLATE;
+    private int objectWriters = 16;
+    // Rows per COPY statement and transaction
+    private int batchSize = 5_000;
+
+    public enum ObjectMode {
+        // Rows only; object reads will 404
+        NONE,
+        // One of the bundled seed images per row, with its real size and dimensions
+        TEMPLATE,
+        // A bundled seed image padded to the size drawn from the histogram
+        SIZED
+    }
+
+    /**
+     * Truncated Zipf distribution over 1..max: rank k is drawn with a
+     * probability proportional to 1 / k^exponent.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Zipf {
+        private int max;
+        private double exponent;
+    }
+
+    /**
+     * Object sizes are drawn uniformly between the previous bucket's bound
+     * and maxSize, with buckets picked by weight.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SizeBucket {
+        private DataSize maxSize;
+        private double weight;
+    }
+
+    private static List<SizeBucket> defaultSizeHistogram() {
+        List<SizeBucket> buckets = new ArrayList<>();
+        buckets.add(new SizeBucket(DataSize.ofKilobytes(64), 30));
+        buckets.add(new SizeBucket(DataSize.ofKilobytes(256), 40));
+        buckets.add(new SizeBucket(DataSize.ofMegabytes(1), 22));
+        buckets.add(new SizeBucket(DataSize.ofMegabytes(5), 8));
+        return buckets;
+    }
+}
@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "upload.direct")
+@Data
+public class DirectUploadConfig {
+
+    private boolean enabled = true;
+    // Lifetime of the presigned PUT URL handed to the client
+    private Duration urlExpiry = Duration.ofMinutes(15);
+    // Pending rows older than this (and never shorter than urlExpiry) are garbage-collected
+    private Duration pendingTtl = Duration.ofHours(1);
+    private long maxSizeBytes = 10L * 1024 * 1024;
+    // Leading bytes fetched on complete to sniff the container header
+    private int headerBytes = 256 * 1024;
+    private int gcBatchSize = 100;
+}
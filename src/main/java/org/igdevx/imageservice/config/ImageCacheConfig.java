@@ -0,0 +1,49 @@
+package org.igdevx.imageservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Per-node cache of image metadata lookups. Entries are evicted on every node
+ * through Postgres notifications (see ImageMetadataCache); the expiry only
+ * bounds staleness should a notification ever be lost.
+ */
+@Configuration
+// Outside the transaction advice, so a hit does not open a transaction
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@ConfigurationProperties(prefix = "image.cache")
+@Data
+public class ImageCacheConfig {
+
+    public static final String IMAGES = "images";
+    public static final String USER_IMAGE = "userImage";
+    public static final String USER_IMAGES = "userImages";
+    public static final String PRODUCT_IMAGE = "productImage";
+
+    private boolean enabled = true;
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    @Bean
+    public CacheManager cacheManager() {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(IMAGES, USER_IMAGE, USER_IMAGES, PRODUCT_IMAGE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        return cacheManager;
+    }
+}
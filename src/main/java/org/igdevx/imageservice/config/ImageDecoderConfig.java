@@ -0,0 +1,19 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.decoder")
+@Data
+public class ImageDecoderConfig {
+
+    // Uploads whose header declares more pixels than this are rejected
+    private long maxPixels = 40_000_000L;
+    // Raster memory shared by all concurrent decodes
+    private long memoryBudgetBytes = 256L * 1024 * 1024;
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
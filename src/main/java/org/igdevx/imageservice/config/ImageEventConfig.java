@@ -0,0 +1,20 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.events")
+@Data
+public class ImageEventConfig {
+
+    // Consumers further behind than this must resynchronize (410 Gone)
+    private Duration retention = Duration.ofDays(7);
+    // Most events read per query, and per long-poll response
+    private int batchSize = 500;
+    private Duration streamTimeout = Duration.ofMinutes(30);
+    private Duration maxPollTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Node-local, memory-mapped index answering image lookups by product and by
+ * user profile or banner without a database round trip. Off by default.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "image.index")
+@Data
+public class ImageIndexConfig {
+
+    private boolean enabled = false;
+    // Holds the index files; rebuilt from the database on every start
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "image-service-index");
+    // Changed keys re-read from the database per query
+    private int refreshBatchSize = 500;
+}
@@ -0,0 +1,54 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.igdevx.imageservice.model.Image;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.jobs")
+@Data
+public class ImageJobConfig {
+
+    private int workers = 4;
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(10);
+    private Duration maxBackoff = Duration.ofMinutes(10);
+    // Uploads are refused with 503 once this many jobs are pending
+    private long maxQueueDepth = 10_000;
+    private Duration retryAfter = Duration.ofSeconds(30);
+    // RUNNING jobs locked for longer than this are assumed lost (node crash) and re-queued
+    private Duration staleLockTimeout = Duration.ofMinutes(10);
+    private Map<Image.EntityType, Integer> priorities = defaultPriorities();
+
+    @Bean
+    public ThreadPoolTaskExecutor imageJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        // The poller only claims as many jobs as there are idle workers
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("image-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    public int priorityOf(Image.EntityType entityType) {
+        return priorities.getOrDefault(entityType, 0);
+    }
+
+    private static Map<Image.EntityType, Integer> defaultPriorities() {
+        Map<Image.EntityType, Integer> defaults = new EnumMap<>(Image.EntityType.class);
+        defaults.put(Image.EntityType.USER_PROFILE, 20);
+        defaults.put(Image.EntityType.PRODUCT, 10);
+        defaults.put(Image.EntityType.USER_BANNER, 0);
+        return defaults;
+    }
+}
@@ -0,0 +1,19 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.igdevx.imageservice.model.Image;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.optimization")
+@Data
+public class ImageOptimizationConfig {
+
+    // Entity types whose originals are re-encoded before storage, none by default
+    private Set<Image.EntityType> enabledFor = EnumSet.noneOf(Image.EntityType.class);
+    private float jpegQuality = 0.82f;
+}
@@ -0,0 +1,18 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.partitions")
+@Data
+public class ImagePartitionConfig {
+
+    // Monthly partitions of the images table kept ready beyond the current month
+    private int monthsAhead = 3;
+    // How long a tablespace move waits for its lock before giving up
+    private Duration moveLockTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,17 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.placeholder")
+@Data
+public class ImagePlaceholderConfig {
+
+    private boolean enabled = true;
+    private int componentsX = 4;
+    private int componentsY = 3;
+    // Longest side (in pixels) the source is subsampled to before encoding
+    private int sampleSize = 32;
+}
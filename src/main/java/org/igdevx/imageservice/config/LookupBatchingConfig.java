@@ -0,0 +1,28 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Coalescing of concurrent single-image lookups (by ID and by product) into
+ * one query per batch. Off by default: it only pays off when many lookups
+ * miss the cache at the same time.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "image.lookup-batching")
+@Data
+public class LookupBatchingConfig {
+
+    private boolean enabled = false;
+    // Longest a lookup waits for others to join its batch
+    private Duration maxWait = Duration.ofMillis(2);
+    // A batch is sent as soon as it holds this many keys
+    private int maxBatchSize = 64;
+    // Batches queried concurrently
+    private int workers = 4;
+    // A lookup whose batch is not answered in time is run on its own
+    private Duration timeout = Duration.ofSeconds(1);
+}
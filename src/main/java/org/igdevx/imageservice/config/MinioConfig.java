@@ -1,10 +1,25 @@
 package org.igdevx.imageservice.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.Data;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.igdevx.imageservice.service.MultipartMinioClient;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @ConfigurationProperties(prefix = "minio")
@@ -17,14 +32,193 @@ public class MinioConfig {
     private String secretKey;
     private String bucketName;
     private String region;
+    // Share of new users routed to the target above, which is always the "primary" shard
+    private int weight = 1;
+    // Additional storage targets; users are spread over all of them by consistent hashing
+    private List<Shard> shards = new ArrayList<>();
+    // Points per weight unit on the hash ring, more points give a smoother spread
+    private int virtualNodes = 160;
+    private Upload upload = new Upload();
+    private Transport transport = new Transport();
+    private Rebalance rebalance = new Rebalance();
+    private Startup startup = new Startup();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String endpoint;
+        private String publicUrl;
+        private String accessKey;
+        private String secretKey;
+        private String bucketName;
+        private String region;
+        // 0 keeps the shard readable but stops routing new users to it
+        private int weight = 1;
+    }
+
+    @Data
+    public static class Startup {
+        // Bucket initialization is retried in the background with exponential backoff between these bounds
+        private Duration retryInitialDelay = Duration.ofSeconds(1);
+        private Duration retryMaxDelay = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Rebalance {
+        // Images examined per batch
+        private int batchSize = 200;
+        // Pause between batches so a rebalance never saturates the storage targets
+        private Duration pause = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Upload {
+        // Objects at least this large use the parallel multipart path; kept under the
+        // 10 MB upload limit so the largest images are sent as two parts
+        private long multipartThreshold = 6L * 1024 * 1024;
+        // S3 requires every part but the last to be at least 5 MiB
+        private long partSize = 5L * 1024 * 1024;
+        // Parts of a single object uploaded concurrently
+        private int parallelism = 4;
+        // Part uploads in flight across the whole node
+        private int maxConcurrentParts = 16;
+    }
+
+    /**
+     * HTTP settings for one kind of MinIO traffic. The SDK default dispatcher
+     * allows only 5 concurrent calls per host, which queues requests and
+     * churns connections under load.
+     */
+    @Data
+    public static class Pool {
+        private int maxIdleConnections = 32;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 64;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private Duration writeTimeout = Duration.ofSeconds(30);
+        // Whole-call deadline, 0 disables it
+        private Duration callTimeout = Duration.ZERO;
+        // Connections opened at startup so the first requests skip the TCP/TLS handshake
+        private int warmupConnections = 4;
+    }
+
+    @Data
+    public static class Transport {
+        // Downloads, stats and listings
+        private Pool read = new Pool();
+        // Uploads, multipart parts and deletions
+        private Pool write = defaultWritePool();
+
+        private static Pool defaultWritePool() {
+            Pool pool = new Pool();
+            pool.setMaxIdleConnections(16);
+            pool.setMaxRequests(32);
+            pool.setMaxRequestsPerHost(32);
+            pool.setReadTimeout(Duration.ofSeconds(60));
+            pool.setWriteTimeout(Duration.ofMinutes(2));
+            pool.setWarmupConnections(2);
+            return pool;
+        }
+    }
+
+    @Bean
+    public OkHttpClient minioReadHttpClient() {
+        return buildHttpClient(transport.getRead());
+    }
 
     @Bean
-    public MinioClient minioClient() {
-        return MinioClient.builder()
+    public OkHttpClient minioWriteHttpClient() {
+        return buildHttpClient(transport.getWrite());
+    }
+
+    /**
+     * The top-level minio.* target is the "primary" shard, which also holds
+     * every image written before sharding; minio.shards adds the others.
+     */
+    @Bean
+    public StorageShardRegistry storageShardRegistry() {
+        List<StorageShard> targets = new ArrayList<>();
+        targets.add(buildShard(StorageShard.PRIMARY, endpoint, publicUrl, accessKey, secretKey, bucketName, region, weight));
+        for (Shard shard : shards) {
+            targets.add(buildShard(shard.getName(), shard.getEndpoint(), shard.getPublicUrl(), shard.getAccessKey(),
+                    shard.getSecretKey(), shard.getBucketName(), shard.getRegion(), shard.getWeight()));
+        }
+        return new StorageShardRegistry(targets, virtualNodes);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor storageRebalanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("storage-rebalance-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor minioUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upload.getMaxConcurrentParts());
+        executor.setMaxPoolSize(upload.getMaxConcurrentParts());
+        // Uploads already cap their own in-flight parts, so the queue only absorbs bursts across uploads
+        executor.setQueueCapacity(upload.getMaxConcurrentParts() * 4);
+        // A full queue makes the uploading request thread send the part itself instead of failing the upload
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("minio-upload-");
+        return executor;
+    }
+
+    private StorageShard buildShard(String name, String endpoint, String publicUrl, String accessKey,
+                                    String secretKey, String bucket, String region, int weight) {
+        MinioClient readClient = MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
                 .region(region)
+                .httpClient(minioReadHttpClient())
                 .build();
+        MinioClient writeClient = MinioClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .region(region)
+                .httpClient(minioWriteHttpClient())
+                .build();
+        MultipartMinioClient multipartClient = new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .region(region)
+                .httpClient(minioWriteHttpClient())
+                .build());
+        // Signs against the public endpoint, since the host is part of the signature and
+        // clients reach MinIO through it; a fixed region keeps presigning offline
+        MinioClient presignClient = MinioClient.builder()
+                .endpoint(publicUrl)
+                .credentials(accessKey, secretKey)
+                .region(region != null ? region : "us-east-1")
+                .build();
+
+        return new StorageShard(name, endpoint, publicUrl, bucket, region, weight,
+                readClient, writeClient, multipartClient, presignClient);
     }
-}
 
+    private static OkHttpClient buildHttpClient(Pool pool) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(pool.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(pool.getMaxRequestsPerHost());
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(
+                        pool.getMaxIdleConnections(), pool.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(pool.getConnectTimeout())
+                .readTimeout(pool.getReadTimeout())
+                .writeTimeout(pool.getWriteTimeout())
+                .callTimeout(pool.getCallTimeout())
+                // Same as the SDK default client: MinIO is spoken to over HTTP/1.1
+                .protocols(List.of(Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+}
@@ -1,29 +1,116 @@
 package org.igdevx.imageservice.config;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prepares the storage buckets in the background once the context is up,
+ * retrying with exponential backoff while MinIO is unreachable. Startup never
+ * waits for storage; the "storage" health indicator keeps the instance out of
+ * the readiness group until every shard is initialized.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class MinioInitializer {
 
     private final MinioService minioService;
+    private final StorageShardRegistry shards;
     private final MinioConfig minioConfig;
+    private final TaskScheduler taskScheduler;
+
+    private final Set<String> readyShards = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void initializeBuckets() {
+        taskScheduler.schedule(() -> attempt(1), Instant.now());
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * Shards still being initialized, with the last error seen for each.
+     */
+    public Map<String, String> pendingShards() {
+        return Map.copyOf(failures);
+    }
 
-    @PostConstruct
-    public void initializeBucket() {
-        log.info("Initializing MinIO bucket: {}", minioConfig.getBucketName());
+    /**
+     * Blocks until every bucket is initialized, for startup work that needs
+     * storage.
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
         try {
-            minioService.ensureBucketExists();
-            log.info("MinIO bucket '{}' initialized successfully", minioConfig.getBucketName());
-        } catch (Exception e) {
-            log.error("Failed to initialize MinIO bucket: {}", minioConfig.getBucketName(), e);
-            throw new RuntimeException("MinIO bucket initialization failed", e);
+            ready.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+            throw new IllegalStateException(e.getCause());
         }
     }
-}
 
+    /**
+     * Completes once every bucket is initialized, for startup work that can
+     * run in the background.
+     */
+    public CompletionStage<Void> whenReady() {
+        return ready.minimalCompletionStage();
+    }
+
+    private void attempt(int attempt) {
+        for (StorageShard shard : shards.all()) {
+            if (readyShards.contains(shard.name())) {
+                continue;
+            }
+            try {
+                minioService.ensureBucketExists(shard.name());
+                readyShards.add(shard.name());
+                failures.remove(shard.name());
+                log.info("MinIO bucket '{}' on shard {} initialized successfully", shard.bucket(), shard.name());
+            } catch (Exception e) {
+                failures.put(shard.name(), String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            }
+        }
+
+        if (readyShards.size() == shards.all().size()) {
+            ready.complete(null);
+            return;
+        }
+
+        Duration delay = backoff(attempt);
+        log.warn("MinIO storage not ready (attempt {}, shards {}), retrying in {}s",
+                attempt, new TreeSet<>(failures.keySet()), delay.toSeconds());
+        taskScheduler.schedule(() -> attempt(attempt + 1), Instant.now().plus(delay));
+    }
+
+    private Duration backoff(int attempt) {
+        MinioConfig.Startup startup = minioConfig.getStartup();
+        Duration delay = startup.getRetryInitialDelay().multipliedBy(1L << Math.min(attempt - 1, 16));
+        return delay.compareTo(startup.getRetryMaxDelay()) > 0 ? startup.getRetryMaxDelay() : delay;
+    }
+}
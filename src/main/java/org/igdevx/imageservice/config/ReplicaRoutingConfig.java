@@ -0,0 +1,98 @@
+package org.igdevx.imageservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to Postgres streaming replicas. Without
+ * datasource.routing.enabled the primary pool is the datasource and every
+ * query goes to the primary. The beans are the same either way and the flag
+ * is read when they are created, so an AOT-processed build, whose bean set is
+ * fixed at build time, still follows the flag it is started with.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource.routing")
+@Data
+public class ReplicaRoutingConfig {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // Replicas further behind than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+    // Replicas that do not answer the lag check this fast are skipped until the next check
+    private Duration lagCheckTimeout = Duration.ofSeconds(1);
+    // After a write, reads of the same user, product or image stay on the primary this long;
+    // keep it above maxLag
+    private Duration readYourWritesWindow = Duration.ofSeconds(30);
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        // Default to the primary credentials
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The replica pools are not beans, as their number comes from the
+     * configuration; they are closed by the routing datasource and report the
+     * same hikaricp metrics as the primary, tagged with pool replica-name.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                            DataSourceProperties properties,
+                                                            MeterRegistry meterRegistry) {
+        Map<String, DataSource> targets = new LinkedHashMap<>();
+        // Unused when routing is off; no replica pool is opened then
+        for (Replica replica : enabled ? replicas : List.<Replica>of()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replica.getName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaxPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            targets.put(replica.getName(), dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, targets, maxLag, lagCheckTimeout);
+    }
+
+    /**
+     * The routing decision needs the transaction's read-only flag, which is
+     * only known once the transaction has started; the lazy proxy defers
+     * fetching the physical connection until the first statement. Without
+     * routing, the primary pool is used directly.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        if (!enabled) {
+            return primaryDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,164 @@
+package org.igdevx.imageservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions round-robin over the replicas whose
+ * replication lag is within bounds, and everything else to the primary.
+ * Reads fall back to the primary when no replica is usable or when the
+ * current transaction was pinned by {@link ReplicaRoutingContext}. The
+ * replica pools belong to this datasource and are closed with it; the primary
+ * is a bean of its own.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    // A replica that has replayed everything it received is current even if the primary is idle
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), -1)
+            END
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final Duration lagCheckTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> usableReplicas = List.of();
+    // Probes run off the scheduler thread; one stuck on an unreachable replica is not started again
+    private final ExecutorService lagProbes = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Future<Double>> runningProbes = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration lagCheckTimeout) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.lagCheckTimeout = lagCheckTimeout;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaRoutingContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        List<String> usable = usableReplicas;
+        if (usable.isEmpty()) {
+            return PRIMARY;
+        }
+        return usable.get(Math.floorMod(next.getAndIncrement(), usable.size()));
+    }
+
+    /**
+     * Measures each replica's replay lag. Replicas start out unused, so reads
+     * only move off the primary once a replica has been checked. The probes
+     * run in parallel and a replica that does not answer within the lag check
+     * timeout is skipped, so an unreachable replica holds the shared scheduler
+     * thread for that long rather than for the pool's connection timeout.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        Map<String, Future<Double>> probes = new LinkedHashMap<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            probes.put(replica.getKey(), runningProbes.compute(replica.getKey(), (name, running) ->
+                    running != null && !running.isDone()
+                            ? running
+                            : lagProbes.submit(() -> measureLag(name, replica.getValue()))));
+        }
+
+        long deadline = System.nanoTime() + lagCheckTimeout.toNanos();
+        List<String> usable = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, Future<Double>> probe : probes.entrySet()) {
+            double lagSeconds = awaitLag(probe.getKey(), probe.getValue(), deadline);
+            if (lagSeconds >= 0 && lagSeconds * 1000 <= maxLag.toMillis()) {
+                usable.add(probe.getKey());
+            }
+        }
+
+        if (!usable.equals(usableReplicas)) {
+            log.info("Read replicas in use: {} of {}", usable, replicas.keySet());
+        }
+        usableReplicas = List.copyOf(usable);
+    }
+
+    @Override
+    public void destroy() {
+        usableReplicas = List.of();
+        lagProbes.shutdownNow();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (replica.getValue() instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception e) {
+                    log.warn("Unable to close read replica {}: {}", replica.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private double awaitLag(String name, Future<Double> probe, long deadline) {
+        try {
+            return probe.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Read replica {} did not answer the lag check within {}", name, lagCheckTimeout);
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (ExecutionException e) {
+            log.warn("Unable to check replication lag of read replica {}: {}", name, e.getCause().getMessage());
+            return -1;
+        }
+    }
+
+    private double measureLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lagSeconds = resultSet.getDouble(1);
+            if (lagSeconds > maxLag.toSeconds()) {
+                log.warn("Read replica {} is {}s behind the primary", name, lagSeconds);
+            }
+            return lagSeconds;
+        } catch (SQLException e) {
+            log.warn("Unable to check replication lag of read replica {}: {}", name, e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "upload.resumable")
+@Data
+public class ResumableUploadConfig {
+
+    private boolean enabled = true;
+    // Every chunk but the last is a multipart part, so S3's 5 MiB floor applies
+    private int chunkSize = 5 * 1024 * 1024;
+    // Sessions (and their multipart upload) are aborted after this long
+    private Duration sessionTtl = Duration.ofHours(24);
+    private int gcBatchSize = 50;
+}
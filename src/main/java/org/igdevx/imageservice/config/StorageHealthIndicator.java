@@ -0,0 +1,28 @@
+package org.igdevx.imageservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether the storage buckets are initialized. Part of the readiness
+ * group only: an instance waiting for MinIO must stop receiving traffic, not
+ * be restarted.
+ */
+@Component
+@RequiredArgsConstructor
+public class StorageHealthIndicator implements HealthIndicator {
+
+    private final MinioInitializer minioInitializer;
+
+    @Override
+    public Health health() {
+        if (minioInitializer.isReady()) {
+            return Health.up().build();
+        }
+        return Health.outOfService()
+                .withDetail("pendingShards", minioInitializer.pendingShards())
+                .build();
+    }
+}
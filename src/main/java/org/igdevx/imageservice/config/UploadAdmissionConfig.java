@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "upload.admission")
+@Data
+public class UploadAdmissionConfig {
+
+    private boolean enabled = true;
+    // Upload bytes accepted concurrently by this node, across all users
+    private long maxInFlightBytes = 200L * 1024 * 1024;
+    // Charged when the client does not send a Content-Length
+    private long unknownLengthBytes = 10L * 1024 * 1024;
+    private int maxConcurrentPerUser = 4;
+    // How long a request may wait in line before it is rejected
+    private Duration queueTimeout = Duration.ofSeconds(2);
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
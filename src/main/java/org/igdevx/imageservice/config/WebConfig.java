@@ -0,0 +1,19 @@
+package org.igdevx.imageservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.controller.UploadAdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final UploadAdmissionInterceptor uploadAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(uploadAdmissionInterceptor).addPathPatterns("/upload/**");
+    }
+}
@@ -1,5 +1,7 @@
 package org.igdevx.imageservice.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.igdevx.imageservice.dto.ErrorResponse;
 import org.igdevx.imageservice.dto.ImageResponse;
+import org.igdevx.imageservice.dto.UploadIntentRequest;
+import org.igdevx.imageservice.dto.UploadIntentResponse;
 import org.igdevx.imageservice.dto.UploadResponse;
 import org.igdevx.imageservice.model.Image;
 import org.igdevx.imageservice.service.ImageService;
@@ -18,11 +22,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,6 +40,7 @@ import java.util.UUID;
 public class ImageController {
 
     private final ImageService imageService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(value = "/upload/profile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
@@ -120,6 +127,51 @@ public class ImageController {
         }
     }
 
+    @PostMapping(value = "/upload/intent", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Start a direct upload",
+            description = "Reserve a pending image and return a presigned URL to PUT the file straight to MinIO"
+    )
+    @ApiResponse(responseCode = "200", description = "Upload intent created")
+    @ApiResponse(responseCode = "400", description = "Invalid file declaration", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<UploadIntentResponse> createUploadIntent(
+            @RequestBody UploadIntentRequest request
+    ) {
+        try {
+            UploadIntentResponse response = imageService.createUploadIntent(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Upload intent validation failed for user {}: {}", request.getUserId(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to create upload intent for user {}", request.getUserId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/upload/{id}/complete")
+    @Operation(
+            summary = "Complete a direct upload",
+            description = "Verify the file stored in MinIO against the upload intent and activate the image"
+    )
+    @ApiResponse(responseCode = "200", description = "Image uploaded successfully")
+    @ApiResponse(responseCode = "400", description = "File missing or not matching the intent", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Pending upload not found")
+    public ResponseEntity<UploadResponse> completeUpload(
+            @Parameter(description = "Image ID returned by the upload intent") @PathVariable UUID id
+    ) {
+        try {
+            UploadResponse response = imageService.completeUpload(id);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Direct upload verification failed for image {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to complete direct upload for image {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get image metadata",
@@ -132,13 +184,30 @@ public class ImageController {
     ) {
         try {
             ImageResponse response = imageService.getImageById(id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(eTag(response)).body(response);
         } catch (RuntimeException e) {
             log.error("Failed to retrieve image metadata: {}", id);
             return ResponseEntity.notFound().build();
         }
     }
 
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Check that an image exists",
+            description = "Same status and ETag as the GET, without the body"
+    )
+    @ApiResponse(responseCode = "200", description = "Image exists")
+    @ApiResponse(responseCode = "404", description = "Image not found")
+    public ResponseEntity<Void> headImage(
+            @Parameter(description = "Image ID") @PathVariable UUID id
+    ) {
+        try {
+            return head(imageService.getImageById(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping
     @Operation(
             summary = "List all images",
@@ -164,7 +233,20 @@ public class ImageController {
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(image);
+        return ResponseEntity.ok().eTag(eTag(image)).body(image);
+    }
+
+    @RequestMapping(value = "/user/{userId}/profile", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Check that a user has a profile image",
+            description = "Same status and ETag as the GET, without the body"
+    )
+    @ApiResponse(responseCode = "200", description = "User has a profile image")
+    @ApiResponse(responseCode = "404", description = "Image not found")
+    public ResponseEntity<Void> headUserProfileImage(
+            @Parameter(description = "User ID") @PathVariable String userId
+    ) {
+        return head(imageService.getImageByUserAndType(userId, Image.EntityType.USER_PROFILE));
     }
 
     @GetMapping("/user/{userId}/banner")
@@ -181,13 +263,26 @@ public class ImageController {
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(image);
+        return ResponseEntity.ok().eTag(eTag(image)).body(image);
+    }
+
+    @RequestMapping(value = "/user/{userId}/banner", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Check that a user has a banner image",
+            description = "Same status and ETag as the GET, without the body"
+    )
+    @ApiResponse(responseCode = "200", description = "User has a banner image")
+    @ApiResponse(responseCode = "404", description = "Image not found")
+    public ResponseEntity<Void> headUserBannerImage(
+            @Parameter(description = "User ID") @PathVariable String userId
+    ) {
+        return head(imageService.getImageByUserAndType(userId, Image.EntityType.USER_BANNER));
     }
 
     @GetMapping("/product/{productId}")
     @Operation(
             summary = "Get product image",
-            description = "Returns the image of a product"
+            description = "Returns the primary image of a product gallery"
     )
     @ApiResponse(responseCode = "200", description = "Product image")
     @ApiResponse(responseCode = "404", description = "Image not found")
@@ -198,7 +293,20 @@ public class ImageController {
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(image);
+        return ResponseEntity.ok().eTag(eTag(image)).body(image);
+    }
+
+    @RequestMapping(value = "/product/{productId}", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Check that a product has an image",
+            description = "Same status and ETag as the GET, without the body"
+    )
+    @ApiResponse(responseCode = "200", description = "Product has an image")
+    @ApiResponse(responseCode = "404", description = "Image not found")
+    public ResponseEntity<Void> headProductImage(
+            @Parameter(description = "Product ID") @PathVariable String productId
+    ) {
+        return head(imageService.getImageByProductId(productId));
     }
 
     @GetMapping("/user/{userId}")
@@ -242,6 +350,31 @@ public class ImageController {
         }
     }
 
+    @RequestMapping(value = "/{id}/download", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Check an image file",
+            description = "Headers of the download, from the image metadata, without opening the file in MinIO"
+    )
+    @ApiResponse(responseCode = "200", description = "Image file exists")
+    @ApiResponse(responseCode = "404", description = "Image not found")
+    public ResponseEntity<Void> headDownload(
+            @Parameter(description = "Image ID") @PathVariable UUID id
+    ) {
+        try {
+            ImageResponse imageInfo = imageService.getImageById(id);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(imageInfo.getContentType()))
+                    .eTag(eTag(imageInfo))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + imageInfo.getFileName() + "\"");
+            if (imageInfo.getSizeBytes() != null) {
+                response.contentLength(imageInfo.getSizeBytes());
+            }
+            return response.build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete an image",
@@ -267,9 +400,9 @@ public class ImageController {
     @DeleteMapping("/product/{productId}")
     @Operation(
             summary = "Delete product image",
-            description = "Delete the image associated with a product"
+            description = "Delete every image of a product gallery"
     )
-    @ApiResponse(responseCode = "204", description = "Product image deleted successfully")
+    @ApiResponse(responseCode = "204", description = "Product images deleted successfully")
     @ApiResponse(responseCode = "404", description = "Product image not found")
     public ResponseEntity<Void> deleteProductImage(
             @Parameter(description = "Product ID") @PathVariable String productId
@@ -311,5 +444,41 @@ public class ImageController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Image Service is running");
     }
+
+    /**
+     * Hash of every returned field. Rows are updated in place (dimensions
+     * and placeholder by jobs, size after optimization, shard and URL by a
+     * rebalance), so the image ID alone would go stale. Weak, as it stands
+     * for the metadata rather than the exact bytes of the JSON. An
+     * If-None-Match that matches turns the response into a 304.
+     */
+    private static String eTag(ImageResponse image) {
+        String fields = String.join("\n",
+                String.valueOf(image.getId()), image.getEntityType(), image.getUserId(), image.getProductId(),
+                image.getCloudPath(), image.getFileName(), image.getContentType(),
+                String.valueOf(image.getSizeBytes()), String.valueOf(image.getWidth()),
+                String.valueOf(image.getHeight()), image.getPlaceholder(),
+                String.valueOf(image.getUploadedAt()), image.getUrl());
+        return "W/\"" + DigestUtils.md5DigestAsHex(fields.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Answers a HEAD like the GET would, with the length of the JSON body it
+     * leaves out.
+     */
+    private ResponseEntity<Void> head(ImageResponse image) {
+        if (image == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok()
+                    .eTag(eTag(image))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(objectMapper.writeValueAsBytes(image).length)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize image " + image.getId(), e);
+        }
+    }
 }
 
@@ -0,0 +1,74 @@
+package org.igdevx.imageservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.dto.ImageEventResponse;
+import org.igdevx.imageservice.exception.EventCursorExpiredException;
+import org.igdevx.imageservice.service.ImageEventLog;
+import org.igdevx.imageservice.service.ImageEventStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Image Events", description = "Change feed of created, replaced and deleted images")
+public class ImageEventController {
+
+    private final ImageEventStream imageEventStream;
+    private final ImageEventLog imageEventLog;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream image events",
+            description = "Server-sent events named CREATED, REPLACED or DELETED, with the sequence number as event ID. "
+                    + "Reconnecting with Last-Event-ID resumes after that event; without a position, only new events are sent."
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream")
+    @ApiResponse(responseCode = "410", description = "Events after the position are no longer retained; resynchronize")
+    public ResponseEntity<SseEmitter> stream(
+            @Parameter(description = "Last sequence number received") @RequestParam(required = false) Long after,
+            @RequestHeader(value = ImageEventStream.LAST_EVENT_ID, required = false) Long lastEventId
+    ) {
+        try {
+            return ResponseEntity.ok(imageEventStream.subscribe(lastEventId != null ? lastEventId : after));
+        } catch (EventCursorExpiredException e) {
+            // No body: the client asked for an event stream
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .header(ImageEventStream.LAST_EVENT_ID, String.valueOf(e.getLatestSeq()))
+                    .build();
+        }
+    }
+
+    @GetMapping("/poll")
+    @Operation(
+            summary = "Long-poll image events",
+            description = "Returns the events after the given sequence number as soon as there are any, "
+                    + "or an empty list after the timeout"
+    )
+    @ApiResponse(responseCode = "200", description = "Events, oldest first (possibly empty); Last-Event-ID is the next position")
+    @ApiResponse(responseCode = "410", description = "Events after the position are no longer retained; resynchronize")
+    public DeferredResult<ResponseEntity<List<ImageEventResponse>>> poll(
+            @Parameter(description = "Last sequence number received; omit to start from the latest")
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Maximum wait in seconds") @RequestParam(defaultValue = "30") int timeout
+    ) {
+        long cursor = after != null ? after : imageEventLog.latestSeq();
+        return imageEventStream.poll(cursor, limit, Duration.ofSeconds(Math.max(1, timeout)));
+    }
+}
@@ -0,0 +1,68 @@
+package org.igdevx.imageservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.dto.ImagePartitionResponse;
+import org.igdevx.imageservice.service.ImagePartitionMaintainer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/partitions")
+@RequiredArgsConstructor
+@Tag(name = "Partition Administration", description = "Monthly partitions of the images table")
+public class PartitionAdminController {
+
+    private final ImagePartitionMaintainer partitionMaintainer;
+
+    @GetMapping
+    @Operation(summary = "List image partitions", description = "Attached monthly partitions with their tablespace and size")
+    @ApiResponse(responseCode = "200", description = "Partitions, oldest first")
+    public ResponseEntity<List<ImagePartitionResponse>> list() {
+        return ResponseEntity.ok(partitionMaintainer.listPartitions());
+    }
+
+    @PostMapping("/{month}/move")
+    @Operation(
+            summary = "Move a month to another tablespace",
+            description = "Rewrites the partition and its indexes into the tablespace; its images stay available. "
+                    + "Reads and writes of the month wait while it is copied."
+    )
+    @ApiResponse(responseCode = "200", description = "Partition moved")
+    @ApiResponse(responseCode = "400", description = "Unknown tablespace")
+    @ApiResponse(responseCode = "404", description = "No partition for this month")
+    @ApiResponse(responseCode = "409", description = "The partition stayed in use for the whole lock timeout")
+    public ResponseEntity<ImagePartitionResponse> move(
+            @Parameter(description = "Month, yyyy-MM") @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam String tablespace
+    ) {
+        return ResponseEntity.ok(partitionMaintainer.moveToTablespace(month, tablespace));
+    }
+
+    @PostMapping("/{month}/detach")
+    @Operation(
+            summary = "Detach a month",
+            description = "Detaches a partition whose images are all deleted and keeps it as images_archive_yyyy_MM"
+    )
+    @ApiResponse(responseCode = "200", description = "Partition detached")
+    @ApiResponse(responseCode = "404", description = "No partition for this month")
+    @ApiResponse(responseCode = "409", description = "The month still holds live images")
+    public ResponseEntity<Map<String, String>> detach(
+            @Parameter(description = "Month, yyyy-MM") @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month
+    ) {
+        return ResponseEntity.ok(Map.of("archivedTable", partitionMaintainer.detach(month)));
+    }
+}
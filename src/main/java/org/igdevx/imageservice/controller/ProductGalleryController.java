@@ -0,0 +1,84 @@
+package org.igdevx.imageservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.dto.ErrorResponse;
+import org.igdevx.imageservice.dto.GalleryImageResponse;
+import org.igdevx.imageservice.dto.MoveGalleryImageRequest;
+import org.igdevx.imageservice.service.ProductGalleryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Product Galleries", description = "Ordered images of products")
+public class ProductGalleryController {
+
+    private final ProductGalleryService galleryService;
+
+    @GetMapping("/product/{productId}/gallery")
+    @Operation(summary = "Get a product gallery", description = "Images of a product in gallery order")
+    @ApiResponse(responseCode = "200", description = "Gallery, empty if the product has no image")
+    public ResponseEntity<List<GalleryImageResponse>> getGallery(
+            @Parameter(description = "Product ID") @PathVariable String productId
+    ) {
+        return ResponseEntity.ok(galleryService.getGallery(productId));
+    }
+
+    @GetMapping("/galleries")
+    @Operation(
+            summary = "Get the galleries of several products",
+            description = "Galleries of up to 100 products, read in a single query, keyed by product ID"
+    )
+    @ApiResponse(responseCode = "200", description = "Galleries in the order requested")
+    @ApiResponse(responseCode = "400", description = "Too many products", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<Map<String, List<GalleryImageResponse>>> getGalleries(
+            @Parameter(description = "Product IDs") @RequestParam List<String> productIds
+    ) {
+        return ResponseEntity.ok(galleryService.getGalleries(productIds));
+    }
+
+    @PutMapping("/product/{productId}/gallery/{imageId}/position")
+    @Operation(
+            summary = "Move an image in a gallery",
+            description = "Places the image right after afterImageId, or first when it is null"
+    )
+    @ApiResponse(responseCode = "200", description = "Gallery in its new order")
+    @ApiResponse(responseCode = "400", description = "afterImageId is not in the gallery", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Image not found in the gallery")
+    public ResponseEntity<List<GalleryImageResponse>> move(
+            @Parameter(description = "Product ID") @PathVariable String productId,
+            @Parameter(description = "Image ID") @PathVariable UUID imageId,
+            @RequestBody MoveGalleryImageRequest request
+    ) {
+        return ResponseEntity.ok(galleryService.move(productId, imageId, request.getAfterImageId()));
+    }
+
+    @PutMapping("/product/{productId}/gallery/{imageId}/primary")
+    @Operation(
+            summary = "Make an image primary",
+            description = "The primary image is the one returned by GET /product/{productId}"
+    )
+    @ApiResponse(responseCode = "200", description = "Gallery")
+    @ApiResponse(responseCode = "404", description = "Image not found in the gallery")
+    public ResponseEntity<List<GalleryImageResponse>> setPrimary(
+            @Parameter(description = "Product ID") @PathVariable String productId,
+            @Parameter(description = "Image ID") @PathVariable UUID imageId
+    ) {
+        return ResponseEntity.ok(galleryService.setPrimary(productId, imageId));
+    }
+}
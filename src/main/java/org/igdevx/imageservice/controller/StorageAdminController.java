@@ -0,0 +1,42 @@
+package org.igdevx.imageservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.dto.RebalanceStatusResponse;
+import org.igdevx.imageservice.service.StorageRebalancer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/storage")
+@RequiredArgsConstructor
+@Tag(name = "Storage Administration", description = "Maintenance of the MinIO storage shards")
+public class StorageAdminController {
+
+    private final StorageRebalancer storageRebalancer;
+
+    @PostMapping("/rebalance")
+    @Operation(
+            summary = "Rebalance storage shards",
+            description = "Move every image to the shard its user is currently routed to, in the background"
+    )
+    @ApiResponse(responseCode = "202", description = "Rebalance started")
+    @ApiResponse(responseCode = "409", description = "A rebalance is already running")
+    public ResponseEntity<RebalanceStatusResponse> rebalance() {
+        HttpStatus status = storageRebalancer.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(storageRebalancer.status());
+    }
+
+    @GetMapping("/rebalance")
+    @Operation(summary = "Get rebalance progress", description = "Progress of the current or last rebalance on this node")
+    @ApiResponse(responseCode = "200", description = "Rebalance status")
+    public ResponseEntity<RebalanceStatusResponse> rebalanceStatus() {
+        return ResponseEntity.ok(storageRebalancer.status());
+    }
+}
@@ -0,0 +1,107 @@
+package org.igdevx.imageservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.dto.ErrorResponse;
+import org.igdevx.imageservice.exception.UploadRejectedException;
+import org.igdevx.imageservice.service.UploadAdmissionController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies the per-user concurrency limit, when the userId is in the query
+ * string, and charges the request body against the in-flight bytes budget
+ * before the multipart body is read, so rejected uploads never occupy
+ * memory, disk or a database connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    // Set once the user is admitted here, so UploadAdmissionInterceptor does not count the request twice
+    static final String USER_ADMITTED_ATTRIBUTE = UploadAdmissionFilter.class.getName() + ".userAdmitted";
+
+    private final UploadAdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!admissionController.isEnabled()) {
+            return true;
+        }
+        String method = request.getMethod();
+        boolean writesBody = HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method);
+        return !writesBody || !request.getRequestURI().startsWith(request.getContextPath() + "/upload/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // First, so a user over the limit does not hold part of the bytes budget while waiting
+        String userId = queryParameter(request, "userId");
+        UploadAdmissionController.Permit userPermit;
+        try {
+            userPermit = userId != null ? admissionController.admitUser(userId) : null;
+        } catch (UploadRejectedException e) {
+            reject(response, e);
+            return;
+        }
+        if (userPermit != null) {
+            request.setAttribute(USER_ADMITTED_ATTRIBUTE, Boolean.TRUE);
+        }
+
+        try (userPermit) {
+            UploadAdmissionController.Permit permit;
+            try {
+                permit = admissionController.admitBytes(request.getContentLengthLong());
+            } catch (UploadRejectedException e) {
+                reject(response, e);
+                return;
+            }
+
+            try (permit) {
+                filterChain.doFilter(request, response);
+            }
+        }
+    }
+
+    /**
+     * A parameter of the query string only: getParameter would read the
+     * multipart body to look for it there too.
+     */
+    private static String queryParameter(HttpServletRequest request, String name) {
+        String query = request.getQueryString();
+        if (query == null) {
+            return null;
+        }
+        String value = UriComponentsBuilder.newInstance().query(query).build().getQueryParams().getFirst(name);
+        return value == null || value.isBlank() ? null : UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private void reject(HttpServletResponse response, UploadRejectedException e) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                "TOO_MANY_REQUESTS",
+                "Trop d'envois en cours, veuillez réessayer plus tard",
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,47 @@
+package org.igdevx.imageservice.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.service.UploadAdmissionController;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-user concurrency limit to uploads whose userId is a form
+ * field rather than a query parameter, so UploadAdmissionFilter could not
+ * see it. The multipart body has been read by then, but the controller has
+ * not touched storage or the database yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = UploadAdmissionInterceptor.class.getName() + ".permit";
+
+    private final UploadAdmissionController admissionController;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(UploadAdmissionFilter.USER_ADMITTED_ATTRIBUTE) != null) {
+            return true;
+        }
+        String userId = request.getParameter("userId");
+        if (!admissionController.isEnabled() || userId == null || userId.isBlank()) {
+            return true;
+        }
+
+        // Throws UploadRejectedException, turned into a 429 by GlobalExceptionHandler
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionController.admitUser(userId));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof UploadAdmissionController.Permit userPermit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            userPermit.close();
+        }
+    }
+}
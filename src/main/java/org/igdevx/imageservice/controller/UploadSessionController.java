@@ -0,0 +1,124 @@
+package org.igdevx.imageservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.dto.ErrorResponse;
+import org.igdevx.imageservice.dto.UploadIntentRequest;
+import org.igdevx.imageservice.dto.UploadResponse;
+import org.igdevx.imageservice.dto.UploadSessionResponse;
+import org.igdevx.imageservice.service.ResumableUploadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/upload/sessions")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Resumable Upload", description = "Chunked uploads that survive dropped connections")
+public class UploadSessionController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final ResumableUploadService resumableUploadService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Open a resumable upload session",
+            description = "Reserve a pending image and return the chunk size to use for the upload"
+    )
+    @ApiResponse(responseCode = "200", description = "Upload session created")
+    @ApiResponse(responseCode = "400", description = "Invalid file declaration", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<UploadSessionResponse> createSession(
+            @RequestBody UploadIntentRequest request
+    ) {
+        try {
+            UploadSessionResponse response = resumableUploadService.createSession(request);
+            return withOffset(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Upload session validation failed for user {}: {}", request.getUserId(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to open upload session for user {}", request.getUserId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Get the current upload offset",
+            description = "Returns the next byte expected by the server; also available as a HEAD request"
+    )
+    @ApiResponse(responseCode = "200", description = "Upload session state")
+    @ApiResponse(responseCode = "404", description = "Session not found or expired")
+    public ResponseEntity<UploadSessionResponse> getSession(
+            @Parameter(description = "Upload session ID") @PathVariable UUID id
+    ) {
+        return withOffset(resumableUploadService.getSession(id));
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload a chunk",
+            description = "Store the chunk starting at the given offset, which must be the current session offset"
+    )
+    @ApiResponse(responseCode = "200", description = "Chunk stored")
+    @ApiResponse(responseCode = "400", description = "Chunk size invalid", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "409", description = "Offset does not match, resume from the Upload-Offset header", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @Parameter(description = "Upload session ID") @PathVariable UUID id,
+            @Parameter(description = "Byte offset of the chunk") @RequestParam("offset") long offset,
+            HttpServletRequest request
+    ) {
+        try {
+            UploadSessionResponse response = resumableUploadService.uploadChunk(
+                    id, offset, request.getContentLengthLong(), request.getInputStream());
+            return withOffset(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Chunk rejected for session {} at offset {}: {}", id, offset, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to store chunk for session {} at offset {}", id, offset, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    @Operation(
+            summary = "Finalize a resumable upload",
+            description = "Assemble the received chunks, verify the file and activate the image"
+    )
+    @ApiResponse(responseCode = "200", description = "Image uploaded successfully")
+    @ApiResponse(responseCode = "400", description = "Upload incomplete or file invalid", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Session not found or expired")
+    public ResponseEntity<UploadResponse> finalizeSession(
+            @Parameter(description = "Upload session ID") @PathVariable UUID id
+    ) {
+        try {
+            return ResponseEntity.ok(resumableUploadService.finalizeSession(id));
+        } catch (IllegalArgumentException e) {
+            log.error("Upload session {} could not be finalized: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Failed to finalize upload session {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<UploadSessionResponse> withOffset(UploadSessionResponse response) {
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(response.getOffset()))
+                .body(response);
+    }
+}
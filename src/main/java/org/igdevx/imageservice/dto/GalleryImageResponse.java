@@ -0,0 +1,28 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GalleryImageResponse {
+
+    private UUID id;
+    private String productId;
+    // Sort key only: gaps and negative values are expected
+    private Long position;
+    private boolean primary;
+    private String cloudPath;
+    private String contentType;
+    private Long sizeBytes;
+    private Integer width;
+    private Integer height;
+    private String placeholder;
+    private String url;
+}
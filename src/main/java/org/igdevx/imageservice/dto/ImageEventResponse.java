@@ -0,0 +1,24 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageEventResponse {
+    private long seq;
+    private String type;
+    private UUID imageId;
+    private String entityType;
+    private String userId;
+    private String productId;
+    private String url;
+    private LocalDateTime occurredAt;
+}
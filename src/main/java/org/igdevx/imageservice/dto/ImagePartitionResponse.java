@@ -0,0 +1,21 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImagePartitionResponse {
+
+    private String name;
+    // yyyy-MM, null for the default partition
+    private String month;
+    private String tablespace;
+    private long sizeBytes;
+    // From the planner statistics, -1 until the partition was first analyzed
+    private long estimatedRows;
+}
@@ -21,6 +21,9 @@ public class ImageResponse {
     private String fileName;
     private String contentType;
     private Long sizeBytes;
+    private Integer width;
+    private Integer height;
+    private String placeholder;
     private LocalDateTime uploadedAt;
     private String url;
 }
@@ -0,0 +1,18 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveGalleryImageRequest {
+
+    // Image to place it after; null moves it to the front
+    private UUID afterImageId;
+}
@@ -0,0 +1,22 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceStatusResponse {
+
+    private boolean running;
+    private long scanned;
+    private long moved;
+    private long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
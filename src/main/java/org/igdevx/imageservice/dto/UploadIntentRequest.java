@@ -0,0 +1,21 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.igdevx.imageservice.model.Image;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadIntentRequest {
+
+    private Image.EntityType entityType;
+    private String userId;
+    private String productId;
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+}
@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadIntentResponse {
+
+    private String imageId;
+    private String cloudPath;
+    private String uploadUrl;
+    private String method;
+    // The PUT must carry exactly this Content-Type, it is checked on complete
+    private String contentType;
+    private LocalDateTime expiresAt;
+}
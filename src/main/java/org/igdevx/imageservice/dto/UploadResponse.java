@@ -16,6 +16,10 @@ public class UploadResponse {
     private String cloudPath;
     private String url;
     private Long sizeBytes;
+    private Integer width;
+    private Integer height;
+    // Null until the placeholder job has run; GET /{id} returns it from then on
+    private String placeholder;
     private String message;
 }
 
@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private String sessionId;
+    private String imageId;
+    private Long totalSize;
+    private Integer chunkSize;
+    // Next byte the server expects; chunks before it must not be sent again
+    private Long offset;
+    private LocalDateTime expiresAt;
+}
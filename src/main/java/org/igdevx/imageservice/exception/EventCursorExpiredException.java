@@ -0,0 +1,19 @@
+package org.igdevx.imageservice.exception;
+
+import lombok.Getter;
+
+/**
+ * The requested resume position is outside the retained change log, so the
+ * consumer has missed events. It must reload its state, then resume from
+ * latestSeq.
+ */
+@Getter
+public class EventCursorExpiredException extends RuntimeException {
+
+    private final long latestSeq;
+
+    public EventCursorExpiredException(String message, long latestSeq) {
+        super(message);
+        this.latestSeq = latestSeq;
+    }
+}
@@ -2,6 +2,7 @@ package org.igdevx.imageservice.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.igdevx.imageservice.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,6 +26,81 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(QueueSaturatedException.class)
+    public ResponseEntity<ErrorResponse> handleQueueSaturated(QueueSaturatedException e) {
+        log.warn("Upload refused, processing backlog is full: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "SERVICE_UNAVAILABLE",
+                "Le service est temporairement surchargé, veuillez réessayer plus tard",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleUploadRejected(UploadRejectedException e) {
+        log.warn("Upload rejected by admission control: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "TOO_MANY_REQUESTS",
+                "Trop d'envois en cours, veuillez réessayer plus tard",
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(UploadOffsetMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleUploadOffsetMismatch(UploadOffsetMismatchException e) {
+        log.warn("Chunk rejected: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "OFFSET_MISMATCH",
+                "Le morceau ne correspond pas à la position attendue, reprenez à partir de " + e.getCurrentOffset(),
+                HttpStatus.CONFLICT.value()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Upload-Offset", String.valueOf(e.getCurrentOffset()))
+                .body(error);
+    }
+
+    @ExceptionHandler(EventCursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleEventCursorExpired(EventCursorExpiredException e) {
+        log.warn("Event stream resume refused: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "CURSOR_EXPIRED",
+                "Les événements demandés ne sont plus disponibles, resynchronisez puis reprenez à partir de "
+                        + e.getLatestSeq(),
+                HttpStatus.GONE.value()
+        );
+        return ResponseEntity.status(HttpStatus.GONE)
+                .header("Last-Event-ID", String.valueOf(e.getLatestSeq()))
+                .body(error);
+    }
+
+    @ExceptionHandler(PartitionInUseException.class)
+    public ResponseEntity<ErrorResponse> handlePartitionInUse(PartitionInUseException e) {
+        log.warn("Partition detach refused: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "PARTITION_IN_USE",
+                "Cette partition contient encore des images actives",
+                HttpStatus.CONFLICT.value()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(PartitionBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePartitionBusy(PartitionBusyException e) {
+        log.warn("Partition maintenance gave up: {}", e.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                "PARTITION_BUSY",
+                "Cette partition est en cours d'utilisation, veuillez réessayer plus tard",
+                HttpStatus.CONFLICT.value()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException e) {
         log.error("Runtime error", e);
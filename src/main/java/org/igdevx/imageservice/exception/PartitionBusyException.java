@@ -0,0 +1,12 @@
+package org.igdevx.imageservice.exception;
+
+/**
+ * A partition of the images table could not be locked for maintenance within
+ * the configured lock timeout, because queries were still using it.
+ */
+public class PartitionBusyException extends RuntimeException {
+
+    public PartitionBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package org.igdevx.imageservice.exception;
+
+/**
+ * A partition of the images table cannot be detached while it still holds
+ * images that are not deleted.
+ */
+public class PartitionInUseException extends RuntimeException {
+
+    public PartitionInUseException(String message) {
+        super(message);
+    }
+}
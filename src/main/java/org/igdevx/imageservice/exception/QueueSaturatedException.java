@@ -0,0 +1,14 @@
+package org.igdevx.imageservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class QueueSaturatedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public QueueSaturatedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package org.igdevx.imageservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class UploadOffsetMismatchException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadOffsetMismatchException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+}
@@ -0,0 +1,14 @@
+package org.igdevx.imageservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class UploadRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UploadRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
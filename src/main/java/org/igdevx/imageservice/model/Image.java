@@ -6,12 +6,15 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "images")
+// Pending direct uploads are invisible to every JPA query; only native queries see them
+@SQLRestriction("status <> 'PENDING'")
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +22,7 @@ import java.util.UUID;
 public class Image {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Enumerated(EnumType.STRING)
@@ -38,12 +41,39 @@ public class Image {
     @Column(name = "file_name", nullable = false)
     private String fileName;
 
+    // Storage shard holding the object, resolved by name on every read
+    @Column(name = "shard", nullable = false, length = 64)
+    @Builder.Default
+    private String shard = "primary";
+
     @Column(name = "content_type", length = 100)
     private String contentType;
 
     @Column(name = "size_bytes")
     private Long sizeBytes;
 
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "placeholder", length = 200)
+    private String placeholder;
+
+    // Order within the product's gallery, spaced so a move rewrites one row
+    @Column(name = "gallery_position")
+    private Long galleryPosition;
+
+    // The image returned for the product; one per gallery
+    @Column(name = "is_primary", nullable = false)
+    private boolean primary;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.ACTIVE;
+
     @CreationTimestamp
     @Column(name = "uploaded_at", nullable = false, updatable = false)
     private LocalDateTime uploadedAt;
@@ -56,5 +86,10 @@ public class Image {
         USER_BANNER,
         PRODUCT
     }
+
+    public enum Status {
+        PENDING,
+        ACTIVE
+    }
 }
 
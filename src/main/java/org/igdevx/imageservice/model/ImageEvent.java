@@ -0,0 +1,66 @@
+package org.igdevx.imageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entry of the image change log. Rows are written by a trigger on images
+ * (see V9__create_image_events_table.sql), never by the application, and
+ * get their sequence number once published (see {@code ImageEventLog#publish}).
+ */
+@Entity
+@Table(name = "image_events")
+@Immutable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageEvent {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    // Null until published
+    @Column(name = "seq")
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private Type type;
+
+    @Column(name = "image_id", nullable = false)
+    private UUID imageId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private Image.EntityType entityType;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(name = "shard", nullable = false, length = 64)
+    private String shard;
+
+    @Column(name = "cloud_path", nullable = false, length = 500)
+    private String cloudPath;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        CREATED,
+        REPLACED,
+        DELETED
+    }
+}
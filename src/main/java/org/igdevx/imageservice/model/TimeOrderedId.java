@@ -0,0 +1,19 @@
+package org.igdevx.imageservice.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the UUID primary key as a time-ordered version 7 UUID. Rows
+ * created before carry random version 4 IDs, which stay valid: both are
+ * plain UUID values to Postgres.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,59 @@
+package org.igdevx.imageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(name = "image_id", nullable = false, unique = true)
+    private UUID imageId;
+
+    // MinIO multipart upload the chunks are written to
+    @Column(name = "upload_id", nullable = false, length = 1024)
+    private String uploadId;
+
+    @Column(name = "shard", nullable = false, length = 64)
+    @Builder.Default
+    private String shard = "primary";
+
+    @Column(name = "cloud_path", nullable = false, length = 500)
+    private String cloudPath;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    // Contiguous bytes stored from the start of the file, i.e. the resume offset
+    @Column(name = "received_bytes", nullable = false)
+    private long receivedBytes;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isComplete() {
+        return receivedBytes >= totalSize;
+    }
+}
@@ -0,0 +1,42 @@
+package org.igdevx.imageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Entity
+@Table(name = "upload_session_parts")
+@IdClass(UploadSessionPart.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionPart {
+
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @Id
+    @Column(name = "part_number")
+    private int partNumber;
+
+    @Column(name = "size_bytes", nullable = false)
+    private int sizeBytes;
+
+    @Column(name = "etag", nullable = false)
+    private String etag;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID sessionId;
+        private int partNumber;
+    }
+}
@@ -0,0 +1,76 @@
+package org.igdevx.imageservice.repository;
+
+import org.igdevx.imageservice.model.ImageEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageEventRepository extends JpaRepository<ImageEvent, Long> {
+
+    List<ImageEvent> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limit);
+
+    // Last sequence number published, even when its event was pruned
+    @Query(value = "SELECT value FROM image_event_sequence", nativeQuery = true)
+    long findLatestSeq();
+
+    // One publisher at a time; released at commit
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('image_events_publish'))", nativeQuery = true)
+    boolean tryLockPublisher();
+
+    /**
+     * Numbers the events of transactions older than the oldest one still
+     * running, in transaction order, after the last published number.
+     *
+     * @return the number of events published
+     */
+    @Modifying
+    @Query(value = """
+            WITH ready AS (
+                SELECT id, row_number() OVER (ORDER BY xid, id) AS n
+                FROM image_events
+                WHERE seq IS NULL AND xid < pg_snapshot_xmin(pg_current_snapshot())
+                ORDER BY xid, id
+                LIMIT :limit
+            ), counter AS (
+                UPDATE image_event_sequence
+                SET value = value + (SELECT count(*) FROM ready)
+                WHERE EXISTS (SELECT 1 FROM ready)
+                RETURNING value - (SELECT count(*) FROM ready) AS base
+            )
+            UPDATE image_events e
+            SET seq = counter.base + ready.n
+            FROM ready, counter
+            WHERE e.id = ready.id
+            """, nativeQuery = true)
+    int publish(@Param("limit") int limit);
+
+    // Every transaction that committed so far has a lower transaction ID
+    @Query(value = "SELECT pg_snapshot_xmax(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long findTransactionHorizon();
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM image_events
+                WHERE seq IS NULL AND xid < CAST(CAST(:horizon AS text) AS xid8)
+            )
+            """, nativeQuery = true)
+    boolean existsUnpublishedBefore(@Param("horizon") long horizon);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM image_events
+            WHERE id IN (
+                SELECT id FROM image_events
+                WHERE occurred_at < :cutoff AND seq IS NOT NULL
+                ORDER BY seq LIMIT :limit
+            )
+            """, nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
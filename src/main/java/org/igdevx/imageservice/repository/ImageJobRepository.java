@@ -0,0 +1,41 @@
+package org.igdevx.imageservice.repository;
+
+import org.igdevx.imageservice.model.ImageJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageJobRepository extends JpaRepository<ImageJob, Long> {
+
+    @Query(value = """
+            SELECT * FROM image_jobs
+            WHERE status = 'PENDING' AND next_run_at <= :now
+            ORDER BY priority DESC, next_run_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ImageJob> lockDueJobs(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(ImageJob.Status status);
+
+    @Query("select min(j.createdAt) from ImageJob j where j.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") ImageJob.Status status);
+
+    // A job that keeps killing its worker counts as failing, so it stops being retried at the limit
+    @Modifying
+    @Query(value = """
+            UPDATE image_jobs
+            SET status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                attempts = attempts + 1,
+                locked_at = NULL,
+                last_error = 'Worker did not finish within the stale lock timeout'
+            WHERE status = 'RUNNING' AND locked_at < :cutoff
+            """, nativeQuery = true)
+    int releaseStaleJobs(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts);
+}
@@ -2,8 +2,14 @@ package org.igdevx.imageservice.repository;
 
 import org.igdevx.imageservice.model.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,14 +17,230 @@ import java.util.UUID;
 @Repository
 public interface ImageRepository extends JpaRepository<Image, UUID> {
 
-    Optional<Image> findByIdAndDeletedAtIsNull(UUID id);
+    // Bounded by the time in the id, so only the partitions of its month are probed
+    @Query(value = """
+            SELECT * FROM images
+            WHERE id = :id AND uploaded_at >= image_uploaded_from(:id) AND uploaded_at < image_uploaded_until(:id)
+              AND deleted_at IS NULL AND status <> 'PENDING'
+            """, nativeQuery = true)
+    Optional<Image> findByIdAndDeletedAtIsNull(@Param("id") UUID id);
 
     List<Image> findByDeletedAtIsNull();
 
-    List<Image> findByUserIdAndEntityTypeAndDeletedAtIsNull(String userId, Image.EntityType entityType);
+    // The latest upload, the one the lookup index answers with
+    Optional<Image> findFirstByUserIdAndEntityTypeAndDeletedAtIsNullOrderByUploadedAtDesc(
+            String userId, Image.EntityType entityType);
 
-    Optional<Image> findByProductIdAndDeletedAtIsNull(String productId);
+    List<Image> findByProductIdAndDeletedAtIsNull(String productId);
 
     List<Image> findByUserIdAndDeletedAtIsNull(String userId);
-}
 
+    // One array parameter, so every batch size shares the same statement and plan;
+    // each id is looked up on its own, in the partitions of its month
+    @Query(value = """
+            SELECT found.* FROM unnest(:ids) AS requested(id)
+            CROSS JOIN LATERAL (
+                SELECT * FROM images
+                WHERE images.id = requested.id
+                  AND uploaded_at >= image_uploaded_from(requested.id) AND uploaded_at < image_uploaded_until(requested.id)
+                  AND deleted_at IS NULL AND status = 'ACTIVE'
+            ) AS found
+            """, nativeQuery = true)
+    List<Image> findActiveByIds(@Param("ids") UUID[] ids);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE product_id = ANY(:productIds) AND deleted_at IS NULL AND status = 'ACTIVE'
+            ORDER BY is_primary DESC, gallery_position
+            """, nativeQuery = true)
+    List<Image> findActiveByProductIds(@Param("productIds") String[] productIds);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE product_id = :productId AND deleted_at IS NULL AND status = 'ACTIVE'
+            ORDER BY is_primary DESC, gallery_position
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<Image> findPrimaryByProductId(@Param("productId") String productId);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE user_id = ANY(:userIds) AND entity_type IN ('USER_PROFILE', 'USER_BANNER')
+              AND deleted_at IS NULL AND status = 'ACTIVE'
+            ORDER BY uploaded_at DESC
+            """, nativeQuery = true)
+    List<Image> findActiveUserImagesByUserIds(@Param("userIds") String[] userIds);
+
+    // Galleries of every requested product in one statement, read from the covering gallery index
+    @Query(value = """
+            SELECT id, product_id AS "productId", gallery_position AS "position", is_primary AS "primary",
+                   shard, cloud_path AS "cloudPath", content_type AS "contentType", size_bytes AS "sizeBytes",
+                   width, height, placeholder
+            FROM images
+            WHERE product_id = ANY(:productIds) AND deleted_at IS NULL AND status = 'ACTIVE'
+            ORDER BY product_id, gallery_position
+            """, nativeQuery = true)
+    List<GalleryEntry> findGalleries(@Param("productIds") String[] productIds);
+
+    /**
+     * Serializes changes to one product's gallery until the transaction
+     * ends, including the first upload, when there is no row to lock yet.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('product_gallery'), hashtext(:productId))",
+            nativeQuery = true)
+    int lockGallery(@Param("productId") String productId);
+
+    @Query(value = """
+            SELECT max(gallery_position) FROM images
+            WHERE product_id = :productId AND deleted_at IS NULL AND status = 'ACTIVE'
+            """, nativeQuery = true)
+    Long findLastGalleryPosition(@Param("productId") String productId);
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM images
+                WHERE product_id = :productId AND is_primary AND deleted_at IS NULL AND status = 'ACTIVE'
+            )
+            """, nativeQuery = true)
+    boolean existsPrimaryByProductId(@Param("productId") String productId);
+
+    @Modifying
+    @Query("update Image i set i.galleryPosition = :position where i.id = :id")
+    int updateGalleryPosition(@Param("id") UUID id, @Param("position") long position);
+
+    // Only used once the gap between two neighbours is used up
+    @Modifying
+    @Query(value = """
+            UPDATE images SET gallery_position = renumbered.position
+            FROM unnest(:ids, :positions) AS renumbered(id, position)
+            WHERE images.id = renumbered.id
+            """, nativeQuery = true)
+    int renumberGallery(@Param("ids") UUID[] ids, @Param("positions") Long[] positions);
+
+    // Touches the previous primary image and the new one only
+    @Modifying
+    @Query(value = """
+            UPDATE images SET is_primary = (id = :imageId)
+            WHERE product_id = :productId AND deleted_at IS NULL AND status = 'ACTIVE'
+              AND (is_primary OR id = :imageId)
+            """, nativeQuery = true)
+    int updatePrimary(@Param("productId") String productId, @Param("imageId") UUID imageId);
+
+    // Promotes the first remaining image once the primary one is gone
+    @Modifying
+    @Query(value = """
+            UPDATE images SET is_primary = TRUE
+            WHERE id = (
+                SELECT id FROM images
+                WHERE product_id = :productId AND id <> :removedId AND deleted_at IS NULL AND status = 'ACTIVE'
+                ORDER BY gallery_position
+                LIMIT 1
+            )
+            AND NOT EXISTS (
+                SELECT 1 FROM images
+                WHERE product_id = :productId AND id <> :removedId AND is_primary
+                  AND deleted_at IS NULL AND status = 'ACTIVE'
+            )
+            """, nativeQuery = true)
+    int promoteFirstGalleryImage(@Param("productId") String productId, @Param("removedId") UUID removedId);
+
+    /**
+     * Soft-deletes up to {@code limit} live images of a user in one statement
+     * and returns what is needed to remove their objects. Called repeatedly
+     * until it returns fewer rows than the limit.
+     */
+    @Query(value = """
+            UPDATE images SET deleted_at = :deletedAt
+            WHERE id IN (
+                SELECT id FROM images
+                WHERE user_id = :userId AND deleted_at IS NULL
+                LIMIT :limit
+                FOR UPDATE
+            )
+            RETURNING id, product_id AS "productId", shard, cloud_path AS "cloudPath"
+            """, nativeQuery = true)
+    List<StoredObject> softDeleteUserBatch(@Param("userId") String userId,
+                                           @Param("deletedAt") LocalDateTime deletedAt,
+                                           @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.placeholder = :placeholder where i.id = :id")
+    int updatePlaceholder(@Param("id") UUID id, @Param("placeholder") String placeholder);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.contentType = :contentType, i.sizeBytes = :sizeBytes where i.id = :id")
+    int updateStoredObject(@Param("id") UUID id, @Param("contentType") String contentType, @Param("sizeBytes") Long sizeBytes);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE id = :id AND uploaded_at >= image_uploaded_from(:id) AND uploaded_at < image_uploaded_until(:id)
+              AND status = 'PENDING' AND deleted_at IS NULL
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<Image> findPendingForUpdate(@Param("id") UUID id);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE status = 'PENDING' AND uploaded_at < :cutoff
+              AND NOT EXISTS (SELECT 1 FROM upload_sessions s WHERE s.image_id = images.id)
+            ORDER BY uploaded_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Image> lockExpiredPending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM images WHERE id IN (:ids) AND status = 'PENDING'", nativeQuery = true)
+    int deletePending(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = """
+            SELECT * FROM images
+            WHERE status = 'ACTIVE' AND deleted_at IS NULL AND id > :after
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Image> findActivePageAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    boolean existsByShardAndCloudPathAndDeletedAtIsNull(String shard, String cloudPath);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.shard = :target where i.id = :id and i.shard = :source")
+    int updateShard(@Param("id") UUID id, @Param("source") String source, @Param("target") String target);
+
+    interface StoredObject {
+        UUID getId();
+
+        String getProductId();
+
+        String getShard();
+
+        String getCloudPath();
+    }
+
+    interface GalleryEntry {
+        UUID getId();
+
+        String getProductId();
+
+        Long getPosition();
+
+        Boolean getPrimary();
+
+        String getShard();
+
+        String getCloudPath();
+
+        String getContentType();
+
+        Long getSizeBytes();
+
+        Integer getWidth();
+
+        Integer getHeight();
+
+        String getPlaceholder();
+    }
+}
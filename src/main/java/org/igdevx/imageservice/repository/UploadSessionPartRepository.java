@@ -0,0 +1,14 @@
+package org.igdevx.imageservice.repository;
+
+import org.igdevx.imageservice.model.UploadSessionPart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UploadSessionPartRepository extends JpaRepository<UploadSessionPart, UploadSessionPart.Key> {
+
+    List<UploadSessionPart> findBySessionIdOrderByPartNumber(UUID sessionId);
+}
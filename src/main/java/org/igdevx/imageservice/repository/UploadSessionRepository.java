@@ -0,0 +1,41 @@
+package org.igdevx.imageservice.repository;
+
+import org.igdevx.imageservice.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+
+    Optional<UploadSession> findByIdAndExpiresAtAfter(UUID id, LocalDateTime now);
+
+    /**
+     * Moves the resume offset forward only if no other request advanced it in
+     * the meantime; 0 means the chunk lost the race.
+     */
+    @Transactional
+    @Modifying
+    @Query("update UploadSession s set s.receivedBytes = :newOffset "
+            + "where s.id = :id and s.receivedBytes = :expectedOffset")
+    int advanceOffset(@Param("id") UUID id,
+                      @Param("expectedOffset") long expectedOffset,
+                      @Param("newOffset") long newOffset);
+
+    @Query(value = """
+            SELECT * FROM upload_sessions
+            WHERE expires_at < :now
+            ORDER BY expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UploadSession> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,326 @@
+package org.igdevx.imageservice.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.DatasetGeneratorConfig;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.UuidV7;
+import org.igdevx.imageservice.service.ImagePartitionMaintainer;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.ProductGalleryService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fills the images table with a production-sized synthetic dataset for
+ * benchmarking indexes, caches and listings. Rows are written directly with
+ * COPY, bypassing the upload pipeline, and the matching objects are written
+ * to their shard by a pool of writers. Everything, IDs included, is derived
+ * from seed.dataset.random-seed and seed.dataset.history-end, so a run can be
+ * reproduced exactly. The images triggers are off while rows are written:
+ * they would log an image event and send a cache notification for every row.
+ * Running nodes therefore do not see the dataset until they restart.
+ */
+@Component
+@Profile("dataset-generator")
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator implements CommandLineRunner {
+
+    private static final Duration STORAGE_TIMEOUT = Duration.ofMinutes(2);
+    private static final int PROGRESS_EVERY_USERS = 10_000;
+
+    private static final String COPY_SQL = """
+            COPY images (id, entity_type, user_id, product_id, cloud_path, file_name, content_type,
+                         size_bytes, uploaded_at, deleted_at, width, height, status, shard,
+                         gallery_position, is_primary)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // Skips the event log and cache notification triggers for this transaction only
+    private static final String TRIGGERS_OFF_SQL = "SET LOCAL session_replication_role = replica";
+
+    private final DatasetGeneratorConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MinioService minioService;
+    private final MinioInitializer minioInitializer;
+    private final ImagePartitionMaintainer partitionMaintainer;
+
+    private final AtomicLong objectsWritten = new AtomicLong();
+    private final AtomicLong objectsFailed = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        Map<Image.EntityType, List<Template>> templates = loadTemplates();
+        boolean writeObjects = config.getObjects() != DatasetGeneratorConfig.ObjectMode.NONE;
+
+        try {
+            withoutTriggers(() -> null);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("The dataset generator must run as a database role allowed to set "
+                    + "session_replication_role, so it does not fire the images triggers", e);
+        }
+
+        if (writeObjects && !minioInitializer.awaitReady(STORAGE_TIMEOUT)) {
+            log.warn("MinIO storage not ready after {}s, skipping dataset generation", STORAGE_TIMEOUT.toSeconds());
+            return;
+        }
+
+        if (config.isReplaceExisting()) {
+            int removed = withoutTriggers(() ->
+                    jdbcTemplate.update("DELETE FROM images WHERE user_id LIKE ?", config.getUserIdPrefix() + "%"));
+            log.info("Removed {} row(s) of a previous dataset", removed);
+        }
+
+        // Upload dates reach back over the whole history; each month needs its partition
+        LocalDate end = config.getHistoryEnd() != null ? config.getHistoryEnd().toLocalDate() : LocalDate.now();
+        partitionMaintainer.ensurePartitions(end.minusDays(config.getHistory().toDays() + 1), end);
+
+        log.info("Generating dataset: {} users, objects {}", config.getUsers(), config.getObjects());
+        ThreadPoolExecutor writers = writeObjects ? objectWriters() : null;
+        long rows = 0;
+        long start = System.nanoTime();
+
+        try {
+            Generation generation = new Generation(templates, writers);
+            for (int user = 1; user <= config.getUsers(); user++) {
+                generation.user(user);
+                if (user % PROGRESS_EVERY_USERS == 0) {
+                    log.info("{} users, {} rows, {} objects written", user, generation.rows, objectsWritten.get());
+                }
+            }
+            generation.flush();
+            rows = generation.rows;
+        } finally {
+            if (writers != null) {
+                writers.shutdown();
+                writers.awaitTermination(1, TimeUnit.HOURS);
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Dataset generated: {} rows in {}s ({} rows/s), {} objects written, {} failed",
+                rows, Math.round(seconds), Math.round(rows / seconds), objectsWritten.get(), objectsFailed.get());
+    }
+
+    /**
+     * Walks the users in order, buffering their rows as CSV and flushing one
+     * COPY per batch-size rows, one transaction each.
+     */
+    private final class Generation {
+
+        private final SplittableRandom random = new SplittableRandom(config.getRandomSeed());
+        private final WeightedSampler productsPerSeller = WeightedSampler.zipf(config.getProductsPerSeller());
+        private final WeightedSampler imagesPerProduct = WeightedSampler.zipf(config.getImagesPerProduct());
+        private final WeightedSampler sizeBuckets = WeightedSampler.of(config.getSizeHistogram());
+        private final Map<Image.EntityType, List<Template>> templates;
+        private final ThreadPoolExecutor writers;
+        private final LocalDateTime now = config.getHistoryEnd() != null ? config.getHistoryEnd() : LocalDateTime.now();
+        private final StringBuilder batch = new StringBuilder();
+        private int batchRows;
+        private long rows;
+
+        Generation(Map<Image.EntityType, List<Template>> templates, ThreadPoolExecutor writers) {
+            this.templates = templates;
+            this.writers = writers;
+        }
+
+        void user(int index) {
+            String userId = config.getUserIdPrefix() + String.format("%07d", index);
+            String shard = minioService.shardFor(userId);
+
+            if (random.nextDouble() < config.getProfileShare()) {
+                image(Image.EntityType.USER_PROFILE, userId, null, shard, null, false);
+            }
+            if (random.nextDouble() < config.getBannerShare()) {
+                image(Image.EntityType.USER_BANNER, userId, null, shard, null, false);
+            }
+            if (random.nextDouble() < config.getSellerShare()) {
+                int products = productsPerSeller.sample(random);
+                for (int p = 0; p < products; p++) {
+                    String productId = new UUID(random.nextLong(), random.nextLong()).toString();
+                    int images = imagesPerProduct.sample(random);
+                    boolean hasPrimary = false;
+                    for (int i = 0; i < images; i++) {
+                        hasPrimary |= image(Image.EntityType.PRODUCT, userId, productId, shard,
+                                (i + 1) * ProductGalleryService.POSITION_GAP, !hasPrimary);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return whether the image was stored as its gallery's primary one,
+         *         which only a live image can be
+         */
+        private boolean image(Image.EntityType entityType, String userId, String productId, String shard,
+                              Long galleryPosition, boolean primary) {
+            List<Template> candidates = templates.get(entityType);
+            Template template = candidates.get(random.nextInt(candidates.size()));
+            String fileName = new UUID(random.nextLong(), random.nextLong()) + template.extension();
+            String cloudPath = switch (entityType) {
+                case USER_PROFILE -> String.format("users/%s/profile%s", userId, template.extension());
+                case USER_BANNER -> String.format("users/%s/banner%s", userId, template.extension());
+                case PRODUCT -> String.format("products/%s/%s", userId, fileName);
+            };
+
+            long size = switch (config.getObjects()) {
+                case TEMPLATE -> template.data().length;
+                case SIZED -> Math.max(sampleSize(), template.data().length);
+                case NONE -> sampleSize();
+            };
+            LocalDateTime uploadedAt = now.minusSeconds(random.nextLong(Math.max(1, config.getHistory().toSeconds())));
+            boolean deleted = random.nextDouble() < config.getDeletedShare();
+            LocalDateTime deletedAt = deleted
+                    ? uploadedAt.plusSeconds(random.nextLong(Math.max(1, Duration.between(uploadedAt, now).toSeconds())))
+                    : null;
+
+            // The ID carries the upload time, as it would have had it been uploaded then
+            UUID id = UuidV7.of(uploadedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), random);
+            row(id, entityType.name(), userId, productId, cloudPath, fileName, template.contentType(),
+                    size, uploadedAt, deletedAt, template.width(), template.height(), "ACTIVE", shard,
+                    galleryPosition, primary && !deleted);
+
+            // Deleted images no longer have an object
+            if (writers != null && !deleted) {
+                writers.execute(() -> writeObject(shard, cloudPath, template, size));
+            }
+            if (batchRows >= config.getBatchSize()) {
+                flush();
+            }
+            return primary && !deleted;
+        }
+
+        // One CSV line: values quoted, nulls left empty
+        private void row(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    batch.append(',');
+                }
+                if (values[i] != null) {
+                    batch.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            batch.append('\n');
+            batchRows++;
+        }
+
+        private long sampleSize() {
+            int bucket = sizeBuckets.index(random);
+            long upper = config.getSizeHistogram().get(bucket).getMaxSize().toBytes();
+            long lower = bucket == 0 ? 1 : config.getSizeHistogram().get(bucket - 1).getMaxSize().toBytes();
+            return upper > lower ? random.nextLong(lower, upper + 1) : upper;
+        }
+
+        void flush() {
+            if (batchRows == 0) {
+                return;
+            }
+            String data = batch.toString();
+            withoutTriggers(() -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(data));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            rows += batchRows;
+            batch.setLength(0);
+            batchRows = 0;
+        }
+    }
+
+    private <T> T withoutTriggers(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(TRIGGERS_OFF_SQL);
+            return work.get();
+        });
+    }
+
+    private void writeObject(String shard, String cloudPath, Template template, long size) {
+        byte[] data = size > template.data().length ? Arrays.copyOf(template.data(), (int) size) : template.data();
+        try {
+            minioService.uploadBytes(shard, data, cloudPath, template.contentType());
+            objectsWritten.incrementAndGet();
+        } catch (IOException e) {
+            if (objectsFailed.incrementAndGet() <= 10) {
+                log.warn("Error writing {} to shard {}: {}", cloudPath, shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bounded queue with caller-runs, so generation slows down to the pace of
+     * the object writers instead of buffering millions of tasks.
+     */
+    private ThreadPoolExecutor objectWriters() {
+        int writers = Math.max(1, config.getObjectWriters());
+        return new ThreadPoolExecutor(writers, writers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writers * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private Map<Image.EntityType, List<Template>> loadTemplates() throws IOException {
+        Map<Image.EntityType, List<Template>> templates = new EnumMap<>(Image.EntityType.class);
+        templates.put(Image.EntityType.USER_PROFILE, loadTemplates("seed-images/profiles"));
+        templates.put(Image.EntityType.USER_BANNER, loadTemplates("seed-images/banners"));
+        templates.put(Image.EntityType.PRODUCT, loadTemplates("seed-images/products"));
+        return templates;
+    }
+
+    private List<Template> loadTemplates(String folderPath) throws IOException {
+        List<Template> templates = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:" + folderPath + "/*.png")) {
+            byte[] data;
+            try (InputStream inputStream = resource.getInputStream()) {
+                data = inputStream.readAllBytes();
+            }
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+            if (image == null) {
+                log.warn("Skipping unreadable template {}", resource.getFilename());
+                continue;
+            }
+            templates.add(new Template(data, "image/png", ".png", image.getWidth(), image.getHeight()));
+        }
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("No PNG templates found in " + folderPath);
+        }
+        return templates;
+    }
+
+    private record Template(byte[] data, String contentType, String extension, int width, int height) {
+    }
+}
@@ -1,125 +1,245 @@
 package org.igdevx.imageservice.seed;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.igdevx.imageservice.dto.UploadResponse;
 import org.igdevx.imageservice.model.Image;
 import org.igdevx.imageservice.repository.ImageRepository;
 import org.igdevx.imageservice.service.ImageService;
 import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.StorageShard;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Uploads the bundled seed images on dev-local boots. A manifest of the
+ * content hashes and resulting image IDs is kept in the primary bucket, so
+ * only new or changed files are uploaded (in parallel) and images whose file
+ * was removed are deleted; an environment that is already seeded starts
+ * without touching storage beyond one read.
+ */
 @Component
 @Profile("dev-local")
 @RequiredArgsConstructor
 @Slf4j
 public class ImageSeeder implements CommandLineRunner {
 
+    private static final Duration STORAGE_TIMEOUT = Duration.ofMinutes(2);
+    private static final String MANIFEST_PATH = ".image-service/seed-manifest.json";
+    private static final int UPLOAD_THREADS = 4;
+    private static final Set<String> EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".webp");
+
     private final ImageRepository imageRepository;
     private final MinioService minioService;
     private final ImageService imageService;
+    private final MinioInitializer minioInitializer;
+    private final ObjectMapper objectMapper;
 
     @Override
     public void run(String... args) throws Exception {
         log.info("🌱 Starting image seeding for dev-local profile...");
 
-        cleanExistingData();
-        createSeedImages();
+        if (!minioInitializer.awaitReady(STORAGE_TIMEOUT)) {
+            log.warn("MinIO storage not ready after {}s, skipping image seeding", STORAGE_TIMEOUT.toSeconds());
+            return;
+        }
 
-        log.info("Image seeding completed successfully!");
-    }
+        List<SeedFile> seedFiles = new ArrayList<>();
+        seedFiles.addAll(loadImagesFromFolder("profiles", Image.EntityType.USER_PROFILE));
+        seedFiles.addAll(loadImagesFromFolder("banners", Image.EntityType.USER_BANNER));
+        seedFiles.addAll(loadImagesFromFolder("products", Image.EntityType.PRODUCT));
+        if (seedFiles.isEmpty()) {
+            log.warn("No seed images found. Add images to src/main/resources/seed-images/");
+        }
+
+        Map<String, SeedManifest.Entry> stored = readManifest().files();
+        Set<UUID> activeIds = activeImageIds(stored);
+
+        Map<String, SeedManifest.Entry> current = new LinkedHashMap<>();
+        List<SeedFile> changed = new ArrayList<>();
+        for (SeedFile seedFile : seedFiles) {
+            SeedManifest.Entry previous = stored.get(seedFile.key());
+            if (seedFile.entry(null).sameSource(previous) && activeIds.contains(previous.imageId())) {
+                current.put(seedFile.key(), previous);
+            } else {
+                changed.add(seedFile);
+            }
+        }
+
+        Set<String> removed = new HashSet<>(stored.keySet());
+        seedFiles.forEach(seedFile -> removed.remove(seedFile.key()));
 
-    private void cleanExistingData() {
-        log.info("Cleaning existing data...");
+        if (changed.isEmpty() && removed.isEmpty()) {
+            log.info("Seed images up to date ({} image(s))", current.size());
+            return;
+        }
 
-        List<Image> existingImages = imageRepository.findAll();
+        int unchanged = current.size();
+        for (String key : removed) {
+            deletePrevious(stored.get(key), activeIds);
+            log.info("Removed seed image {}", key);
+        }
+        Map<String, SeedManifest.Entry> uploaded = uploadAll(changed, stored, activeIds);
+        current.putAll(uploaded);
+        writeManifest(new SeedManifest(current));
 
-        if (!existingImages.isEmpty()) {
-            log.info("{} image(s) found in database, deleting...", existingImages.size());
+        log.info("Image seeding completed: {} uploaded, {} failed, {} removed, {} unchanged",
+                uploaded.size(), changed.size() - uploaded.size(), removed.size(), unchanged);
+    }
+
+    private Map<String, SeedManifest.Entry> uploadAll(
+            List<SeedFile> changed,
+            Map<String, SeedManifest.Entry> stored,
+            Set<UUID> activeIds
+    ) throws InterruptedException {
+        Map<String, SeedManifest.Entry> uploaded = new LinkedHashMap<>();
+        if (changed.isEmpty()) {
+            return uploaded;
+        }
 
-            for (Image image : existingImages) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(UPLOAD_THREADS, changed.size()));
+        try {
+            List<Future<SeedManifest.Entry>> futures = new ArrayList<>();
+            for (SeedFile seedFile : changed) {
+                futures.add(executor.submit(() -> uploadSeedImage(seedFile, stored.get(seedFile.key()), activeIds)));
+            }
+            for (int i = 0; i < changed.size(); i++) {
+                SeedFile seedFile = changed.get(i);
                 try {
-                    minioService.deleteFile(image.getCloudPath());
-                    log.debug("Deleted from MinIO: {}", image.getCloudPath());
-                } catch (Exception e) {
-                    log.warn("Error deleting {} from MinIO: {}",
-                            image.getCloudPath(), e.getMessage());
+                    uploaded.put(seedFile.key(), futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // Left out of the manifest, so it is retried on the next boot
+                    log.error("Error uploading {}: {}", seedFile.key(), e.getCause().getMessage());
                 }
             }
-
-            imageRepository.deleteAll();
-            log.info("Database cleaned");
-        } else {
-            log.info("No existing data to clean");
+        } finally {
+            executor.shutdown();
         }
+        return uploaded;
     }
 
-    private void createSeedImages() {
-        log.info("Creating seed images...");
+    private SeedManifest.Entry uploadSeedImage(
+            SeedFile seedFile,
+            SeedManifest.Entry previous,
+            Set<UUID> activeIds
+    ) throws IOException {
+        deletePrevious(previous, activeIds);
 
-        try {
-            loadImagesFromFolder("seed-images/profiles", Image.EntityType.USER_PROFILE, "user-");
-            loadImagesFromFolder("seed-images/banners", Image.EntityType.USER_BANNER, "user-");
-            loadImagesFromFolder("seed-images/products", Image.EntityType.PRODUCT, "user-");
+        MultipartFile multipartFile = new SeedMultipartFile(
+                "file",
+                seedFile.fileName(),
+                seedFile.contentType(),
+                seedFile.data()
+        );
+        UploadResponse response = imageService.uploadImage(multipartFile, seedFile.entityType(), seedFile.userId(), seedFile.productId());
+        log.info("{} - {} ({} bytes)", seedFile.entityType(), seedFile.fileName(), seedFile.data().length);
 
-            long count = imageRepository.count();
-            if (count > 0) {
-                log.info("{} seed images created successfully", count);
-            } else {
-                log.warn("No seed images found. Add images to src/main/resources/seed-images/");
+        return seedFile.entry(UUID.fromString(response.getImageId()));
+    }
+
+    private void deletePrevious(SeedManifest.Entry previous, Set<UUID> activeIds) throws IOException {
+        if (previous != null && previous.imageId() != null && activeIds.contains(previous.imageId())) {
+            imageService.deleteImage(previous.imageId());
+        }
+    }
+
+    private Set<UUID> activeImageIds(Map<String, SeedManifest.Entry> stored) {
+        List<UUID> ids = stored.values().stream()
+                .map(SeedManifest.Entry::imageId)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<UUID> active = new HashSet<>();
+        for (Image image : imageRepository.findAllById(ids)) {
+            if (image.getDeletedAt() == null) {
+                active.add(image.getId());
             }
-        } catch (Exception e) {
-            log.error("Error creating seed images", e);
         }
+        return active;
     }
 
-    private void loadImagesFromFolder(String folderPath, Image.EntityType entityType, String userIdPrefix) {
+    private SeedManifest readManifest() {
         try {
-            var resource = getClass().getClassLoader().getResource(folderPath);
-
-            if (resource == null) {
-                log.warn("Folder {} not found", folderPath);
-                return;
+            if (minioService.statFile(StorageShard.PRIMARY, MANIFEST_PATH).isEmpty()) {
+                return new SeedManifest(Map.of());
             }
-
-            var folder = new java.io.File(resource.toURI());
-            var files = folder.listFiles((dir, name) ->
-                name.toLowerCase().endsWith(".jpg") ||
-                name.toLowerCase().endsWith(".jpeg") ||
-                name.toLowerCase().endsWith(".png") ||
-                name.toLowerCase().endsWith(".gif") ||
-                name.toLowerCase().endsWith(".webp")
-            );
-
-            if (files == null || files.length == 0) {
-                log.info("No images found in {}", folderPath);
-                return;
+            try (InputStream inputStream = minioService.downloadFile(StorageShard.PRIMARY, MANIFEST_PATH)) {
+                SeedManifest manifest = objectMapper.readValue(inputStream, SeedManifest.class);
+                return manifest.files() != null ? manifest : new SeedManifest(Map.of());
             }
+        } catch (IOException e) {
+            log.warn("Could not read the seed manifest, seeding everything again: {}", e.getMessage());
+            return new SeedManifest(Map.of());
+        }
+    }
+
+    private void writeManifest(SeedManifest manifest) throws IOException {
+        minioService.uploadBytes(StorageShard.PRIMARY, objectMapper.writeValueAsBytes(manifest), MANIFEST_PATH,
+                "application/json");
+    }
 
-            log.info("Loading {} images from {}...", files.length, folderPath);
+    /**
+     * Files are sorted by name so that each keeps the same seed user
+     * (user-001, user-002, ...) from one boot to the next.
+     */
+    private List<SeedFile> loadImagesFromFolder(String folder, Image.EntityType entityType) throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:seed-images/" + folder + "/*");
+        List<Resource> images = Arrays.stream(resources)
+                .filter(resource -> resource.getFilename() != null && EXTENSIONS.contains(getExtension(resource.getFilename())))
+                .sorted(Comparator.comparing(Resource::getFilename))
+                .toList();
 
-            int index = 1;
-            for (var file : files) {
-                try {
-                    byte[] imageData = java.nio.file.Files.readAllBytes(file.toPath());
-                    String contentType = determineContentType(file.getName());
-                    String userId = userIdPrefix + String.format("%03d", index);
-                    uploadSeedImage(entityType, userId, file.getName(), imageData, contentType);
-                    index++;
-
-                } catch (Exception e) {
-                    log.error("Error loading {}: {}", file.getName(), e.getMessage());
-                }
+        List<SeedFile> seedFiles = new ArrayList<>();
+        int index = 1;
+        for (Resource resource : images) {
+            byte[] imageData;
+            try (InputStream inputStream = resource.getInputStream()) {
+                imageData = inputStream.readAllBytes();
             }
-
-        } catch (Exception e) {
-            log.error("Error loading images from {}: {}", folderPath, e.getMessage());
+            String fileName = resource.getFilename();
+            String key = folder + "/" + fileName;
+            String userId = "user-" + String.format("%03d", index++);
+            // Derived from the file, so a changed image replaces the same product's image
+            String productId = entityType == Image.EntityType.PRODUCT
+                    ? "product-" + sha256(key.getBytes(StandardCharsets.UTF_8)).substring(0, 8)
+                    : null;
+            seedFiles.add(new SeedFile(key, entityType, userId, productId, fileName, determineContentType(fileName),
+                    imageData, sha256(imageData)));
         }
+        return seedFiles;
+    }
+
+    private String getExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot).toLowerCase() : "";
     }
 
     private String determineContentType(String fileName) {
@@ -136,26 +256,27 @@ public class ImageSeeder implements CommandLineRunner {
         return "image/jpeg";
     }
 
-    private void uploadSeedImage(Image.EntityType entityType, String userId, String fileName, byte[] imageData, String contentType) {
+    private static String sha256(byte[] data) {
         try {
-            MultipartFile multipartFile = new SeedMultipartFile(
-                    "file",
-                    fileName,
-                    contentType,
-                    imageData
-            );
-
-            String productId = null;
-            if (entityType == Image.EntityType.PRODUCT) {
-                productId = "product-" + UUID.randomUUID().toString().substring(0, 8);
-            }
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
-            imageService.uploadImage(multipartFile, entityType, userId, productId);
-            log.info("{} - {} ({} bytes)", entityType, fileName, imageData.length);
+    private record SeedFile(
+            String key,
+            Image.EntityType entityType,
+            String userId,
+            String productId,
+            String fileName,
+            String contentType,
+            byte[] data,
+            String sha256
+    ) {
 
-        } catch (Exception e) {
-            log.error("Error uploading {}: {}", fileName, e.getMessage());
+        SeedManifest.Entry entry(UUID imageId) {
+            return new SeedManifest.Entry(sha256, userId, productId, imageId);
         }
     }
 }
-
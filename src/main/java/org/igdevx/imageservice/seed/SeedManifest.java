@@ -0,0 +1,23 @@
+package org.igdevx.imageservice.seed;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * What the dev-local seeder last uploaded, keyed by resource path relative to
+ * seed-images (e.g. "profiles/profile-jane.png"). Stored as JSON next to the
+ * seeded objects.
+ */
+public record SeedManifest(Map<String, Entry> files) {
+
+    public record Entry(String sha256, String userId, String productId, UUID imageId) {
+
+        boolean sameSource(Entry other) {
+            return other != null
+                    && sha256.equals(other.sha256)
+                    && userId.equals(other.userId)
+                    && Objects.equals(productId, other.productId);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.igdevx.imageservice.seed;
+
+import org.igdevx.imageservice.config.DatasetGeneratorConfig;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes 0..n-1 with fixed weights by binary search over the
+ * cumulative distribution.
+ */
+public final class WeightedSampler {
+
+    private final double[] cumulative;
+
+    public WeightedSampler(double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("At least one weight is required");
+        }
+        cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Ranks 1..max with weight 1 / k^exponent; {@link #sample} returns the rank.
+     */
+    public static WeightedSampler zipf(DatasetGeneratorConfig.Zipf zipf) {
+        double[] weights = new double[Math.max(1, zipf.getMax())];
+        for (int k = 1; k <= weights.length; k++) {
+            weights[k - 1] = 1 / Math.pow(k, zipf.getExponent());
+        }
+        return new WeightedSampler(weights);
+    }
+
+    public static WeightedSampler of(List<DatasetGeneratorConfig.SizeBucket> buckets) {
+        return new WeightedSampler(buckets.stream().mapToDouble(DatasetGeneratorConfig.SizeBucket::getWeight).toArray());
+    }
+
+    public int index(SplittableRandom random) {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(i >= 0 ? i + 1 : -i - 1, cumulative.length - 1);
+    }
+
+    /**
+     * One-based rank, for Zipf samplers.
+     */
+    public int sample(SplittableRandom random) {
+        return index(random) + 1;
+    }
+}
@@ -0,0 +1,120 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups arriving close together into one batch call.
+ * The first key opens a batch that is sent after {@code maxWait}, or as soon
+ * as it holds {@code maxBatchSize} keys; concurrent loads of the same key
+ * share one result. Keys the batch call returns nothing for complete with
+ * null, and a failed batch fails all of its loads.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService timer;
+    private final Executor workers;
+    private final DistributionSummary batchSizes;
+    private final Timer batchWait;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Batch<K, V> open;
+
+    public BatchLoader(String name, Function<List<K>, Map<K, V>> batchFunction, int maxBatchSize, Duration maxWait,
+                       ScheduledExecutorService timer, Executor workers, MeterRegistry meterRegistry) {
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.timer = timer;
+        this.workers = workers;
+        this.batchSizes = DistributionSummary.builder("image.lookup.batch.size")
+                .description("Keys per batched lookup")
+                .tag("loader", name)
+                .register(meterRegistry);
+        this.batchWait = Timer.builder("image.lookup.batch.wait")
+                .description("Time a batch stayed open collecting keys")
+                .tag("loader", name)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> result;
+        Batch<K, V> full = null;
+        synchronized (lock) {
+            if (open == null) {
+                Batch<K, V> batch = new Batch<>(System.nanoTime());
+                open = batch;
+                batch.deadline = timer.schedule(() -> flush(batch), maxWaitNanos, TimeUnit.NANOSECONDS);
+            }
+            result = open.loads.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (open.loads.size() >= maxBatchSize) {
+                full = open;
+                open = null;
+            }
+        }
+        if (full != null) {
+            full.deadline.cancel(false);
+            dispatch(full);
+        }
+        return result;
+    }
+
+    private void flush(Batch<K, V> batch) {
+        synchronized (lock) {
+            if (open != batch) {
+                // Already sent because it filled up
+                return;
+            }
+            open = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        batchWait.record(System.nanoTime() - batch.openedAt, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.loads.size());
+        try {
+            workers.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            batch.loads.values().forEach(load -> load.completeExceptionally(e));
+        }
+    }
+
+    private void run(Batch<K, V> batch) {
+        try {
+            Map<K, V> values = batchFunction.apply(List.copyOf(batch.loads.keySet()));
+            batch.loads.forEach((key, load) -> load.complete(values.get(key)));
+        } catch (RuntimeException e) {
+            batch.loads.values().forEach(load -> load.completeExceptionally(e));
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        private final long openedAt;
+        // Only modified under the loader's lock while the batch is open
+        private final Map<K, CompletableFuture<V>> loads = new LinkedHashMap<>();
+        private ScheduledFuture<?> deadline;
+
+        Batch(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.igdevx.imageservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageDecoderConfig;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared entry point for every server-side decode. Dimensions are read from the
+ * header before any pixel is touched, oversized images are rejected, and the
+ * source is subsampled while decoding so the raster is allocated directly at
+ * (or just above) the requested size. Concurrent decodes share a fixed raster
+ * memory budget guarded by a semaphore counted in kilobytes.
+ */
+@Component
+@Slf4j
+public class BoundedImageDecoder {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final ImageDecoderConfig decoderConfig;
+    private final Semaphore memoryBudget;
+    private final int budgetKilobytes;
+
+    public BoundedImageDecoder(ImageDecoderConfig decoderConfig) {
+        this.decoderConfig = decoderConfig;
+        this.budgetKilobytes = (int) Math.max(1, Math.min(Integer.MAX_VALUE, decoderConfig.getMemoryBudgetBytes() / 1024));
+        this.memoryBudget = new Semaphore(budgetKilobytes, true);
+    }
+
+    public void checkDimensions(ImageHeader header) {
+        if (header != null && header.pixelCount() > decoderConfig.getMaxPixels()) {
+            throw new IllegalArgumentException(String.format(
+                    "Image dimensions %dx%d exceed the maximum of %d pixels",
+                    header.width(), header.height(), decoderConfig.getMaxPixels()));
+        }
+    }
+
+    /**
+     * Decodes the whole image, subsampled so it fits within maxWidth x maxHeight.
+     */
+    public BufferedImage decode(InputStream inputStream, int maxWidth, int maxHeight) throws IOException {
+        return decodeRegion(inputStream, null, maxWidth, maxHeight);
+    }
+
+    /**
+     * Decodes only the given source region (clipped to the image bounds), subsampled
+     * so it fits within maxWidth x maxHeight. A null region means the whole image.
+     */
+    public BufferedImage decodeRegion(InputStream inputStream, Rectangle region, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(inputStream)) {
+            if (imageInput == null) {
+                throw new IOException("Unable to open image stream");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                checkDimensions(new ImageHeader(reader.getFormatName(), width, height, 1));
+
+                Rectangle source = new Rectangle(0, 0, width, height);
+                if (region != null) {
+                    source = source.intersection(region);
+                    if (source.isEmpty()) {
+                        throw new IllegalArgumentException("Requested region is outside the image");
+                    }
+                }
+
+                int step = subsamplingStep(source.width, source.height, maxWidth, maxHeight);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(source);
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                long rasterBytes = (long) ceilDiv(source.width, step) * ceilDiv(source.height, step) * BYTES_PER_PIXEL;
+                int permits = (int) Math.min(budgetKilobytes, Math.max(1, rasterBytes / 1024));
+
+                acquire(permits);
+                try {
+                    return reader.read(0, param);
+                } finally {
+                    memoryBudget.release(permits);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void acquire(int permits) throws IOException {
+        try {
+            if (!memoryBudget.tryAcquire(permits, decoderConfig.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Decoder memory budget exhausted, {} KB requested, {} KB available",
+                        permits, memoryBudget.availablePermits());
+                throw new IOException("Image decoder is at capacity, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for decoder capacity", e);
+        }
+    }
+
+    private static int subsamplingStep(int width, int height, int maxWidth, int maxHeight) {
+        int stepX = maxWidth > 0 ? ceilDiv(width, maxWidth) : 1;
+        int stepY = maxHeight > 0 ? ceilDiv(height, maxHeight) : 1;
+        return Math.max(1, Math.max(stepX, stepY));
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
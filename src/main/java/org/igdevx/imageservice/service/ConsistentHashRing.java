@@ -0,0 +1,51 @@
+package org.igdevx.imageservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring with weighted virtual nodes. Adding a node only moves
+ * the keys that land on its points, about 1/n of them, which keeps the
+ * rebalancing work proportional to the capacity added.
+ */
+public final class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Map<String, Integer> weights, int virtualNodesPerWeight) {
+        weights.forEach((node, weight) -> {
+            for (int i = 0; i < weight * virtualNodesPerWeight; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        });
+        if (ring.isEmpty()) {
+            throw new IllegalArgumentException("At least one node needs a positive weight");
+        }
+    }
+
+    public String locate(String key) {
+        SortedMap<Long, String> tail = ring.tailMap(hash(key));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    private static long hash(String value) {
+        byte[] digest = md5().digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
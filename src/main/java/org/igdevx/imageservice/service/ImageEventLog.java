@@ -0,0 +1,111 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageEventConfig;
+import org.igdevx.imageservice.dto.ImageEventResponse;
+import org.igdevx.imageservice.exception.EventCursorExpiredException;
+import org.igdevx.imageservice.model.ImageEvent;
+import org.igdevx.imageservice.repository.ImageEventRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes and reads the image change log. Writes record their events
+ * unnumbered; {@link #publish()} numbers them once no older transaction is
+ * still running, so sequence numbers have no gaps and follow commit order. A
+ * cursor is therefore still valid as long as the event right after it has
+ * not been pruned. Reads are not marked read-only: they must see the
+ * primary, from which the wake-up notifications come, rather than a lagging
+ * replica.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageEventLog {
+
+    private static final int PRUNE_BATCH_SIZE = 10_000;
+    private static final int PUBLISH_BATCH_SIZE = 1_000;
+
+    private final ImageEventRepository imageEventRepository;
+    private final MinioService minioService;
+    private final ImageEventConfig eventConfig;
+
+    @Transactional
+    public long latestSeq() {
+        return imageEventRepository.findLatestSeq();
+    }
+
+    /**
+     * Events after the given sequence number, oldest first.
+     *
+     * @throws EventCursorExpiredException if events after the cursor were
+     *         pruned, or the cursor is ahead of the log (e.g. after a restore)
+     */
+    @Transactional
+    public List<ImageEventResponse> readAfter(long after, int limit) {
+        // Read first: any event up to it is committed, so it must show up below unless pruned
+        long latest = latestSeq();
+        List<ImageEvent> events = imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(after, Limit.of(limit));
+
+        boolean expired = after > latest
+                || (events.isEmpty() && after < latest)
+                || (!events.isEmpty() && events.get(0).getSeq() > after + 1);
+        if (expired) {
+            throw new EventCursorExpiredException("Events after " + after + " are no longer retained", latest);
+        }
+        return events.stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Numbers the events whose transactions are all finished. Runs on every
+     * wake-up of the dispatcher and on a timer, for events held back by an
+     * older transaction that added none; a node that finds another one
+     * publishing skips its turn. Publishing sends a wake-up to every node.
+     */
+    @Scheduled(fixedDelayString = "${image.events.publish-interval-ms:1000}")
+    @Transactional
+    public void publish() {
+        if (!imageEventRepository.tryLockPublisher()) {
+            return;
+        }
+        int published;
+        do {
+            published = imageEventRepository.publish(PUBLISH_BATCH_SIZE);
+        } while (published == PUBLISH_BATCH_SIZE);
+    }
+
+    @Scheduled(fixedDelayString = "${image.events.prune-interval-ms:3600000}")
+    @Transactional
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(eventConfig.getRetention());
+        int pruned = 0;
+        int deleted;
+        do {
+            deleted = imageEventRepository.deleteOlderThan(cutoff, PRUNE_BATCH_SIZE);
+            pruned += deleted;
+        } while (deleted == PRUNE_BATCH_SIZE);
+
+        if (pruned > 0) {
+            log.info("Pruned {} image event(s) older than {}", pruned, cutoff);
+        }
+    }
+
+    private ImageEventResponse toResponse(ImageEvent event) {
+        return ImageEventResponse.builder()
+                .seq(event.getSeq())
+                .type(event.getType().name())
+                .imageId(event.getImageId())
+                .entityType(event.getEntityType().name())
+                .userId(event.getUserId())
+                .productId(event.getProductId())
+                .url(minioService.getPresignedUrl(event.getShard(), event.getCloudPath()))
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
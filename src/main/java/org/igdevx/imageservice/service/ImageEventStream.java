@@ -0,0 +1,267 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageEventConfig;
+import org.igdevx.imageservice.dto.ImageEventResponse;
+import org.igdevx.imageservice.exception.EventCursorExpiredException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes change-log events to server-sent-event subscribers and completes
+ * waiting long-polls. Every commit that adds events, and every publishing of
+ * events, sends one notification on {@link #CHANNEL}; the dispatcher then
+ * publishes what it can, reads the log once, from the oldest cursor of all
+ * consumers on this node, and fans the events out. Bursts of notifications
+ * are coalesced into a single read.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageEventStream implements PostgresNotificationHandler, DisposableBean {
+
+    public static final String CHANNEL = "image_events";
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ImageEventLog eventLog;
+    private final ImageEventConfig eventConfig;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-event-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Streams the events after the given cursor, then every new one.
+     *
+     * @param after last sequence number the consumer has seen, or null for
+     *              only events from now on
+     * @throws EventCursorExpiredException if events after the cursor were pruned
+     */
+    public SseEmitter subscribe(Long after) {
+        long cursor = after != null ? after : eventLog.latestSeq();
+        eventLog.readAfter(cursor, 1);
+
+        SseEmitter emitter = new SseEmitter(eventConfig.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Delivers the backlog
+        signal();
+        return emitter;
+    }
+
+    /**
+     * Completes with the events after the cursor as soon as there are any, or
+     * with an empty list once the timeout elapses. The Last-Event-ID header
+     * carries the position to poll from next.
+     *
+     * @throws EventCursorExpiredException if events after the cursor were pruned
+     */
+    public DeferredResult<ResponseEntity<List<ImageEventResponse>>> poll(long after, int limit, Duration timeout) {
+        int size = Math.max(1, Math.min(limit, eventConfig.getBatchSize()));
+        Duration wait = timeout.compareTo(eventConfig.getMaxPollTimeout()) > 0 ? eventConfig.getMaxPollTimeout() : timeout;
+
+        DeferredResult<ResponseEntity<List<ImageEventResponse>>> result =
+                new DeferredResult<>(wait.toMillis(), pollResponse(after, List.of()));
+        List<ImageEventResponse> events = eventLog.readAfter(after, size);
+        if (!events.isEmpty()) {
+            result.setResult(pollResponse(after, events));
+            return result;
+        }
+
+        Waiter waiter = new Waiter(result, after, size);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // An event committed between the read above and the registration sent no wake-up for this waiter
+        signal();
+        return result;
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        signal();
+    }
+
+    @Override
+    public void onListening() {
+        // Events committed while the connection was down sent no wake-up
+        signal();
+    }
+
+    /**
+     * Comment lines keep idle streams open through proxies and detect
+     * consumers that went away.
+     */
+    @Scheduled(fixedDelayString = "${image.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void signal() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        try {
+            // The lookup index catches up from the log too, so this runs even without consumers
+            eventLog.publish();
+        } catch (RuntimeException e) {
+            log.error("Error publishing image events", e);
+        }
+        if (subscribers.isEmpty() && waiters.isEmpty()) {
+            return;
+        }
+
+        long from = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            from = Math.min(from, subscriber.cursor);
+        }
+        for (Waiter waiter : waiters) {
+            from = Math.min(from, waiter.after());
+        }
+
+        List<ImageEventResponse> events;
+        try {
+            events = eventLog.readAfter(from, eventConfig.getBatchSize());
+        } catch (EventCursorExpiredException e) {
+            // The slowest consumer fell behind the retention; it has to resynchronize
+            expire(from, e);
+            signal();
+            return;
+        } catch (RuntimeException e) {
+            log.error("Error reading image events after {}", from, e);
+            return;
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, events);
+        }
+        for (Waiter waiter : waiters) {
+            List<ImageEventResponse> pending = events.stream()
+                    .filter(event -> event.getSeq() > waiter.after())
+                    .limit(waiter.limit())
+                    .toList();
+            if (!pending.isEmpty()) {
+                waiters.remove(waiter);
+                waiter.result().setResult(pollResponse(waiter.after(), pending));
+            }
+        }
+
+        // A full batch may not be everything; consumers further behind get the rest next round
+        if (events.size() == eventConfig.getBatchSize()) {
+            signal();
+        }
+    }
+
+    private static ResponseEntity<List<ImageEventResponse>> pollResponse(long after, List<ImageEventResponse> events) {
+        long last = events.isEmpty() ? after : events.get(events.size() - 1).getSeq();
+        return ResponseEntity.ok()
+                .header(LAST_EVENT_ID, String.valueOf(last))
+                .body(events);
+    }
+
+    private void send(Subscriber subscriber, List<ImageEventResponse> events) {
+        try {
+            for (ImageEventResponse event : events) {
+                if (event.getSeq() <= subscriber.cursor) {
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSeq()))
+                        .name(event.getType())
+                        .data(event));
+                subscriber.cursor = event.getSeq();
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        }
+    }
+
+    private void expire(long cursor, EventCursorExpiredException e) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor == cursor) {
+                subscribers.remove(subscriber);
+                try {
+                    // The client's reconnect then gets 410 Gone
+                    subscriber.emitter.send(SseEmitter.event().name("expired").data(e.getLatestSeq()));
+                } catch (IOException | IllegalStateException ignored) {
+                    // Already gone
+                }
+                subscriber.emitter.complete();
+            }
+        }
+        for (Waiter waiter : waiters) {
+            if (waiter.after() == cursor) {
+                // Not left for the completion callback, or the next round would expire it again
+                waiters.remove(waiter);
+                waiter.result().setErrorResult(e);
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        subscribers.remove(subscriber);
+        log.debug("Event stream consumer disconnected: {}", e.getMessage());
+        subscriber.emitter.complete();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Only advanced by the dispatcher thread
+        private volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    private record Waiter(DeferredResult<ResponseEntity<List<ImageEventResponse>>> result, long after, int limit) {
+    }
+}
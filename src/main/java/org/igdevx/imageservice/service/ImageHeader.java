@@ -0,0 +1,32 @@
+package org.igdevx.imageservice.service;
+
+/**
+ * Container-level facts about an image, read without decoding any pixel data.
+ *
+ * @param format      short format name ("png", "jpeg", "gif", "webp")
+ * @param width       stored width in pixels
+ * @param height      stored height in pixels
+ * @param orientation EXIF orientation (1-8), 1 when absent
+ */
+public record ImageHeader(String format, int width, int height, int orientation) {
+
+    public long pixelCount() {
+        return (long) width * height;
+    }
+
+    /**
+     * Orientations 5 to 8 rotate the image by 90 degrees, so browsers swap the
+     * stored dimensions when they render it.
+     */
+    public boolean isTransposed() {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    public int displayWidth() {
+        return isTransposed() ? height : width;
+    }
+
+    public int displayHeight() {
+        return isTransposed() ? width : height;
+    }
+}
@@ -0,0 +1,258 @@
+package org.igdevx.imageservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Reads image dimensions straight from container headers (PNG IHDR, JPEG SOFn,
+ * GIF logical screen descriptor, WebP VP8/VP8L/VP8X) without decoding pixels.
+ * Only the leading bytes of the stream are consumed; JPEG segments preceding
+ * the frame header are skipped rather than read.
+ */
+@Component
+public class ImageHeaderReader {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    public Optional<ImageHeader> read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, 512));
+        byte[] magic = new byte[12];
+        int read = in.readNBytes(magic, 0, magic.length);
+        if (read < magic.length) {
+            return Optional.empty();
+        }
+
+        try {
+            if (startsWith(magic, PNG_SIGNATURE)) {
+                return readPng(in);
+            }
+            if ((magic[0] & 0xFF) == 0xFF && (magic[1] & 0xFF) == 0xD8) {
+                return readJpeg(in, magic);
+            }
+            if (magic[0] == 'G' && magic[1] == 'I' && magic[2] == 'F') {
+                return readGif(magic);
+            }
+            if (magic[0] == 'R' && magic[1] == 'I' && magic[2] == 'F' && magic[3] == 'F'
+                    && magic[8] == 'W' && magic[9] == 'E' && magic[10] == 'B' && magic[11] == 'P') {
+                return readWebp(in);
+            }
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ImageHeader> readPng(DataInputStream in) throws IOException {
+        // Signature (8) + IHDR length (4) are in magic, chunk type follows
+        byte[] chunkType = new byte[4];
+        in.readFully(chunkType);
+        if (chunkType[0] != 'I' || chunkType[1] != 'H' || chunkType[2] != 'D' || chunkType[3] != 'R') {
+            return Optional.empty();
+        }
+        int width = in.readInt();
+        int height = in.readInt();
+        return dimensions("png", width, height, 1);
+    }
+
+    private Optional<ImageHeader> readGif(byte[] magic) {
+        int width = littleEndian16(magic, 6);
+        int height = littleEndian16(magic, 8);
+        return dimensions("gif", width, height, 1);
+    }
+
+    private Optional<ImageHeader> readJpeg(DataInputStream in, byte[] magic) throws IOException {
+        // SOI (2 bytes) has been consumed, the remaining 10 bytes of magic start the first segment
+        DataInputStream segments = new DataInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(magic, 2, magic.length - 2), in));
+        int orientation = 1;
+
+        while (true) {
+            int marker = segments.readUnsignedByte();
+            if (marker != 0xFF) {
+                return Optional.empty();
+            }
+            while (marker == 0xFF) {
+                marker = segments.readUnsignedByte();
+            }
+
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // End of image or start of scan before any frame header
+                return Optional.empty();
+            }
+
+            int length = segments.readUnsignedShort() - 2;
+            if (length < 0) {
+                return Optional.empty();
+            }
+
+            if (isStartOfFrame(marker)) {
+                segments.readUnsignedByte(); // sample precision
+                int height = segments.readUnsignedShort();
+                int width = segments.readUnsignedShort();
+                return dimensions("jpeg", width, height, orientation);
+            }
+
+            if (marker == 0xE1 && orientation == 1) {
+                byte[] app1 = new byte[length];
+                segments.readFully(app1);
+                orientation = readExifOrientation(app1);
+            } else {
+                skipFully(segments, length);
+            }
+        }
+    }
+
+    private Optional<ImageHeader> readWebp(DataInputStream in) throws IOException {
+        byte[] fourCc = new byte[4];
+        in.readFully(fourCc);
+        in.readInt(); // chunk size
+        String chunk = new String(fourCc, StandardCharsets.US_ASCII);
+
+        switch (chunk) {
+            case "VP8 " -> {
+                byte[] frame = new byte[10];
+                in.readFully(frame);
+                // 3 bytes frame tag, then start code 9D 01 2A
+                if ((frame[3] & 0xFF) != 0x9D || (frame[4] & 0xFF) != 0x01 || (frame[5] & 0xFF) != 0x2A) {
+                    return Optional.empty();
+                }
+                int width = littleEndian16(frame, 6) & 0x3FFF;
+                int height = littleEndian16(frame, 8) & 0x3FFF;
+                return dimensions("webp", width, height, 1);
+            }
+            case "VP8L" -> {
+                byte[] header = new byte[5];
+                in.readFully(header);
+                if ((header[0] & 0xFF) != 0x2F) {
+                    return Optional.empty();
+                }
+                int bits = (header[1] & 0xFF)
+                        | (header[2] & 0xFF) << 8
+                        | (header[3] & 0xFF) << 16
+                        | (header[4] & 0xFF) << 24;
+                int width = (bits & 0x3FFF) + 1;
+                int height = ((bits >>> 14) & 0x3FFF) + 1;
+                return dimensions("webp", width, height, 1);
+            }
+            case "VP8X" -> {
+                byte[] header = new byte[10];
+                in.readFully(header);
+                // 1 byte flags, 3 reserved, then 24-bit canvas width/height minus one
+                int width = littleEndian24(header, 4) + 1;
+                int height = littleEndian24(header, 7) + 1;
+                return dimensions("webp", width, height, 1);
+            }
+            default -> {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Extracts the orientation tag from IFD0 of an APP1 Exif payload.
+     * Returns 1 (no transform) when the payload is not Exif or is malformed.
+     */
+    private int readExifOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 1;
+        }
+        int tiff = 6;
+        boolean littleEndian = app1[tiff] == 'I' && app1[tiff + 1] == 'I';
+        if (!littleEndian && !(app1[tiff] == 'M' && app1[tiff + 1] == 'M')) {
+            return 1;
+        }
+
+        long ifdOffset = readUnsigned32(app1, tiff + 4, littleEndian);
+        int ifd = tiff + (int) Math.min(ifdOffset, Integer.MAX_VALUE - tiff);
+        if (ifd < tiff || ifd + 2 > app1.length) {
+            return 1;
+        }
+
+        int entries = readUnsigned16(app1, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > app1.length) {
+                return 1;
+            }
+            if (readUnsigned16(app1, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+                int value = readUnsigned16(app1, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private boolean isStartOfFrame(int marker) {
+        // SOF0..SOF15, excluding DHT (C4), JPG (C8) and DAC (CC)
+        return marker >= 0xC0 && marker <= 0xCF
+                && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private Optional<ImageHeader> dimensions(String format, int width, int height, int orientation) {
+        if (width <= 0 || height <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new ImageHeader(format, width, height, orientation));
+    }
+
+    private void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int littleEndian16(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int littleEndian24(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF) << 16;
+    }
+
+    private static int readUnsigned16(byte[] data, int offset, boolean littleEndian) {
+        if (littleEndian) {
+            return littleEndian16(data, offset);
+        }
+        return (data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF);
+    }
+
+    private static long readUnsigned32(byte[] data, int offset, boolean littleEndian) {
+        if (offset + 4 > data.length) {
+            return Long.MAX_VALUE;
+        }
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = data[littleEndian ? offset + 3 - i : offset + i] & 0xFF;
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,424 @@
+package org.igdevx.imageservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.model.Image;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Off-heap hash table from a lookup key to an image, kept in two
+ * memory-mapped files. The slot file is an open-addressing table of
+ * {@code (hash, record offset)} pairs with linear probing; the record file
+ * is an append-only log of packed image records, so replacing an entry
+ * leaves its old record behind until the next rebuild.
+ * <p>
+ * One writer at a time; readers take no lock in the common case and retry
+ * under a read lock if a write overlapped. Files are deleted on close, while
+ * their mappings stay valid for readers still holding the instance.
+ */
+@Slf4j
+public class ImageIndexFile implements Closeable {
+
+    private static final int SLOT_BYTES = 16;
+    private static final int SLOT_CHUNK_BITS = 30;
+    private static final int RECORD_CHUNK_BITS = 26;
+    private static final long RECORD_CHUNK_SIZE = 1L << RECORD_CHUNK_BITS;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    // Fixed part of a record: length, entity type, id, size, width, height, upload time
+    private static final int RECORD_HEADER_BYTES = 4 + 1 + 16 + 8 + 4 + 4 + 8 + 4;
+    private static final Image.EntityType[] ENTITY_TYPES = Image.EntityType.values();
+
+    private final Path slotsPath;
+    private final Path recordsPath;
+    private final FileChannel slotsChannel;
+    private final FileChannel recordsChannel;
+    private final MappedByteBuffer[] slotChunks;
+    private final int capacity;
+    private final StampedLock lock = new StampedLock();
+
+    private volatile MappedByteBuffer[] recordChunks = new MappedByteBuffer[0];
+    // Guarded by the write lock
+    private long recordsEnd;
+    private long liveBytes;
+    private int size;
+    private int usedSlots;
+
+    private ImageIndexFile(Path slotsPath, Path recordsPath, int capacity) throws IOException {
+        this.slotsPath = slotsPath;
+        this.recordsPath = recordsPath;
+        this.capacity = capacity;
+        this.slotsChannel = FileChannel.open(slotsPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recordsChannel = FileChannel.open(recordsPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long slotBytes = (long) capacity * SLOT_BYTES;
+        int chunks = (int) ((slotBytes + (1L << SLOT_CHUNK_BITS) - 1) >>> SLOT_CHUNK_BITS);
+        this.slotChunks = new MappedByteBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long position = (long) i << SLOT_CHUNK_BITS;
+            // Mapping past the end grows the file; untouched pages stay sparse and read as zero
+            slotChunks[i] = slotsChannel.map(FileChannel.MapMode.READ_WRITE, position,
+                    Math.min(1L << SLOT_CHUNK_BITS, slotBytes - position));
+        }
+    }
+
+    /**
+     * Creates an empty index sized for about {@code expectedEntries} keys at
+     * half load.
+     */
+    public static ImageIndexFile create(Path directory, String name, long expectedEntries) throws IOException {
+        Files.createDirectories(directory);
+        long wanted = Math.max(1024, expectedEntries * 2);
+        int capacity = wanted >= 1 << 30 ? 1 << 30 : Integer.highestOneBit((int) wanted - 1) << 1;
+        return new ImageIndexFile(directory.resolve(name + ".slots"), directory.resolve(name + ".records"), capacity);
+    }
+
+    /**
+     * Returns the image stored under the key, or null.
+     */
+    public Image get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Image image = find(keyBytes, hash);
+                if (lock.validate(stamp)) {
+                    return image;
+                }
+            } catch (RuntimeException e) {
+                // Read a record while it was being written; retried under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(keyBytes, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(String key, Image image) {
+        write(key, image, false);
+    }
+
+    /**
+     * Stores the image unless the key already holds one uploaded later, so a
+     * snapshot read in any order keeps the latest image of each key.
+     */
+    public void putIfNewer(String key, Image image) {
+        write(key, image, true);
+    }
+
+    public void remove(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long stamp = lock.writeLock();
+        try {
+            int slot = probe(keyBytes, hash(keyBytes));
+            long offset = slotOffset(slot);
+            if (offset != EMPTY && offset != TOMBSTONE) {
+                liveBytes -= recordLength(offset);
+                // The hash stays so probes for keys further along the run keep going
+                setSlotOffset(slot, TOMBSTONE);
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the table is too full, or the record file too much garbage, to
+     * keep updating in place.
+     */
+    public boolean needsRebuild() {
+        long stamp = lock.readLock();
+        try {
+            return usedSlots > capacity / 4 * 3
+                    || (recordsEnd > RECORD_CHUNK_SIZE && recordsEnd > liveBytes * 3);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            slotsChannel.close();
+            recordsChannel.close();
+            Files.deleteIfExists(slotsPath);
+            Files.deleteIfExists(recordsPath);
+        } catch (IOException e) {
+            log.warn("Could not delete index files {}: {}", slotsPath, e.getMessage());
+        }
+    }
+
+    private void write(String key, Image image, boolean onlyIfNewer) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        byte[] record = encode(keyBytes, image);
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = probe(keyBytes, hash);
+            long previous = slotOffset(slot);
+            boolean live = previous != EMPTY && previous != TOMBSTONE;
+            if (live && onlyIfNewer && uploadedAt(previous) > epochMillis(image.getUploadedAt())) {
+                return;
+            }
+            if (previous == EMPTY && usedSlots >= capacity - 1) {
+                throw new IllegalStateException("Image index is full (" + capacity + " slots)");
+            }
+
+            long offset = append(record);
+            if (live) {
+                liveBytes -= recordLength(previous);
+            } else {
+                if (previous == EMPTY) {
+                    usedSlots++;
+                }
+                size++;
+                setSlotHash(slot, hash);
+            }
+            setSlotOffset(slot, offset);
+            liveBytes += record.length;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Image find(byte[] keyBytes, long hash) {
+        int slot = probe(keyBytes, hash);
+        long offset = slotOffset(slot);
+        return offset == EMPTY || offset == TOMBSTONE ? null : decode(offset);
+    }
+
+    /**
+     * Finds the slot holding the key, or else the first reusable slot of its
+     * probe run (a tombstone, or the empty slot that ends the run).
+     */
+    private int probe(byte[] keyBytes, long hash) {
+        int mask = capacity - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        int reusable = -1;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            long slotHash = slotHash(slot);
+            long offset = slotOffset(slot);
+            if (slotHash == EMPTY) {
+                return reusable >= 0 ? reusable : slot;
+            }
+            if (offset == TOMBSTONE) {
+                if (reusable < 0) {
+                    reusable = slot;
+                }
+            } else if (slotHash == hash && keyEquals(offset, keyBytes)) {
+                return slot;
+            }
+        }
+        if (reusable < 0) {
+            throw new IllegalStateException("Image index is full (" + capacity + " slots)");
+        }
+        return reusable;
+    }
+
+    private long append(byte[] record) {
+        long offset = recordsEnd;
+        // Records never straddle two mappings
+        if ((offset & (RECORD_CHUNK_SIZE - 1)) + record.length > RECORD_CHUNK_SIZE) {
+            offset = ((offset >>> RECORD_CHUNK_BITS) + 1) << RECORD_CHUNK_BITS;
+        }
+        // Offset 0 means an empty slot
+        if (offset == 0) {
+            offset = 8;
+        }
+        int chunk = (int) (offset >>> RECORD_CHUNK_BITS);
+        MappedByteBuffer[] chunks = recordChunks;
+        if (chunk >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            try {
+                chunks[chunk] = recordsChannel.map(FileChannel.MapMode.READ_WRITE,
+                        (long) chunk << RECORD_CHUNK_BITS, RECORD_CHUNK_SIZE);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow image index records", e);
+            }
+            recordChunks = chunks;
+        }
+        chunks[chunk].put((int) (offset & (RECORD_CHUNK_SIZE - 1)), record);
+        recordsEnd = offset + record.length;
+        return offset;
+    }
+
+    private static byte[] encode(byte[] keyBytes, Image image) {
+        byte[][] strings = {
+                keyBytes,
+                utf8(image.getUserId()),
+                utf8(image.getProductId()),
+                utf8(image.getShard()),
+                utf8(image.getCloudPath()),
+                utf8(image.getFileName()),
+                utf8(image.getContentType()),
+                utf8(image.getPlaceholder())
+        };
+        int length = RECORD_HEADER_BYTES;
+        for (byte[] string : strings) {
+            if (string != null && string.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Value too long for the image index: " + string.length + " bytes");
+            }
+            length += 2 + (string == null ? 0 : string.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length);
+        buffer.put((byte) image.getEntityType().ordinal());
+        buffer.putLong(image.getId().getMostSignificantBits());
+        buffer.putLong(image.getId().getLeastSignificantBits());
+        buffer.putLong(image.getSizeBytes() != null ? image.getSizeBytes() : -1);
+        buffer.putInt(image.getWidth() != null ? image.getWidth() : -1);
+        buffer.putInt(image.getHeight() != null ? image.getHeight() : -1);
+        buffer.putLong(epochMillis(image.getUploadedAt()));
+        buffer.putInt(image.getUploadedAt() != null ? image.getUploadedAt().getNano() % 1_000_000 : 0);
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) string.length);
+                buffer.put(string);
+            }
+        }
+        return buffer.array();
+    }
+
+    private Image decode(long offset) {
+        MappedByteBuffer chunk = recordChunk(offset);
+        int position = (int) (offset & (RECORD_CHUNK_SIZE - 1));
+
+        Image.EntityType entityType = ENTITY_TYPES[chunk.get(position + 4)];
+        UUID id = new UUID(chunk.getLong(position + 5), chunk.getLong(position + 13));
+        long sizeBytes = chunk.getLong(position + 21);
+        int width = chunk.getInt(position + 29);
+        int height = chunk.getInt(position + 33);
+        long uploadedAt = chunk.getLong(position + 37);
+        int nanos = chunk.getInt(position + 45);
+
+        int cursor = position + RECORD_HEADER_BYTES;
+        String[] strings = new String[8];
+        for (int i = 0; i < strings.length; i++) {
+            short length = chunk.getShort(cursor);
+            cursor += 2;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                chunk.get(cursor, bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                cursor += length;
+            }
+        }
+
+        return Image.builder()
+                .id(id)
+                .entityType(entityType)
+                .userId(strings[1])
+                .productId(strings[2])
+                .shard(strings[3])
+                .cloudPath(strings[4])
+                .fileName(strings[5])
+                .contentType(strings[6])
+                .placeholder(strings[7])
+                .sizeBytes(sizeBytes >= 0 ? sizeBytes : null)
+                .width(width >= 0 ? width : null)
+                .height(height >= 0 ? height : null)
+                .uploadedAt(uploadedAt == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(
+                        Math.floorDiv(uploadedAt, 1000), (int) Math.floorMod(uploadedAt, 1000) * 1_000_000 + nanos,
+                        ZoneOffset.UTC))
+                .status(Image.Status.ACTIVE)
+                .build();
+    }
+
+    private boolean keyEquals(long offset, byte[] keyBytes) {
+        MappedByteBuffer chunk = recordChunk(offset);
+        int position = (int) (offset & (RECORD_CHUNK_SIZE - 1)) + RECORD_HEADER_BYTES;
+        if (chunk.getShort(position) != keyBytes.length) {
+            return false;
+        }
+        byte[] stored = new byte[keyBytes.length];
+        chunk.get(position + 2, stored);
+        return Arrays.equals(stored, keyBytes);
+    }
+
+    private int recordLength(long offset) {
+        return recordChunk(offset).getInt((int) (offset & (RECORD_CHUNK_SIZE - 1)));
+    }
+
+    private long uploadedAt(long offset) {
+        return recordChunk(offset).getLong((int) (offset & (RECORD_CHUNK_SIZE - 1)) + 37);
+    }
+
+    private MappedByteBuffer recordChunk(long offset) {
+        return recordChunks[(int) (offset >>> RECORD_CHUNK_BITS)];
+    }
+
+    private long slotHash(int slot) {
+        long position = (long) slot * SLOT_BYTES;
+        return slotChunks[(int) (position >>> SLOT_CHUNK_BITS)].getLong((int) (position & ((1L << SLOT_CHUNK_BITS) - 1)));
+    }
+
+    private long slotOffset(int slot) {
+        long position = (long) slot * SLOT_BYTES + 8;
+        return slotChunks[(int) (position >>> SLOT_CHUNK_BITS)].getLong((int) (position & ((1L << SLOT_CHUNK_BITS) - 1)));
+    }
+
+    private void setSlotHash(int slot, long hash) {
+        long position = (long) slot * SLOT_BYTES;
+        slotChunks[(int) (position >>> SLOT_CHUNK_BITS)].putLong((int) (position & ((1L << SLOT_CHUNK_BITS) - 1)), hash);
+    }
+
+    private void setSlotOffset(int slot, long offset) {
+        long position = (long) slot * SLOT_BYTES + 8;
+        slotChunks[(int) (position >>> SLOT_CHUNK_BITS)].putLong((int) (position & ((1L << SLOT_CHUNK_BITS) - 1)), offset);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // FNV-1a, finished with the MurmurHash3 mixer; never 0, which marks an empty slot
+    private static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+}
@@ -0,0 +1,121 @@
+package org.igdevx.imageservice.service;
+
+import io.minio.StatObjectResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageJob;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Executes a single post-upload job against the stored original. Results are
+ * written back with targeted UPDATEs so a concurrent delete is never undone.
+ * Jobs may run again after a crash, so each one can be repeated safely.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageJobProcessor {
+
+    private final ImageRepository imageRepository;
+    private final MinioService minioService;
+    private final ImageHeaderReader imageHeaderReader;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final ImageOptimizer imageOptimizer;
+
+    public void process(ImageJob job) throws IOException {
+        Optional<Image> found = imageRepository.findByIdAndDeletedAtIsNull(job.getImageId());
+        if (found.isEmpty()) {
+            log.debug("Skipping job {}: image {} no longer exists", job.getId(), job.getImageId());
+            return;
+        }
+        Image image = found.get();
+        String sourceETag = null;
+        if (job.getJobType() == ImageJob.JobType.OPTIMIZE) {
+            Optional<StatObjectResponse> source = minioService.statFile(image.getShard(), image.getCloudPath());
+            if (source.isEmpty()) {
+                log.debug("Skipping job {}: object of image {} no longer exists", job.getId(), image.getId());
+                return;
+            }
+            if (recordPreviousOptimization(image, source.get())) {
+                return;
+            }
+            sourceETag = source.get().etag();
+        }
+
+        byte[] data;
+        try (InputStream inputStream = minioService.downloadFile(image.getShard(), image.getCloudPath())) {
+            data = inputStream.readAllBytes();
+        }
+        ImageHeader header = imageHeaderReader.read(new ByteArrayInputStream(data)).orElse(null);
+
+        switch (job.getJobType()) {
+            case PLACEHOLDER -> {
+                String placeholder = imagePlaceholderService.generate(new ByteArrayInputStream(data), header);
+                if (placeholder != null) {
+                    imageRepository.updatePlaceholder(image.getId(), placeholder);
+                }
+            }
+            case OPTIMIZE -> {
+                Optional<ImageOptimizer.OptimizedImage> optimized =
+                        imageOptimizer.optimize(data, header, image.getEntityType());
+                if (optimized.isPresent()) {
+                    storeOptimized(image, optimized.get(), sourceETag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the re-encoded object back over the original. Profile and banner
+     * paths are reused by every upload, so a newer upload may land at the same
+     * path while the job runs: the write is conditional on the original ETag,
+     * and the row is only updated if the object is still the one written here.
+     */
+    private void storeOptimized(Image image, ImageOptimizer.OptimizedImage optimized, String sourceETag)
+            throws IOException {
+        if (!sourceETag.equals(currentETag(image))) {
+            log.info("Image {} was replaced while it was optimized, keeping the new object", image.getId());
+            return;
+        }
+        Optional<String> written = minioService.replaceBytes(image.getShard(), optimized.data(), image.getCloudPath(),
+                optimized.contentType(), Map.of(MinioService.OPTIMIZED_METADATA, "true"), sourceETag);
+        if (written.isEmpty() || !written.get().equals(currentETag(image))) {
+            log.info("Image {} was replaced while the optimized object was stored, keeping the new object",
+                    image.getId());
+            return;
+        }
+        imageRepository.updateStoredObject(image.getId(), optimized.contentType(), (long) optimized.data().length);
+    }
+
+    private String currentETag(Image image) throws IOException {
+        return minioService.statFile(image.getShard(), image.getCloudPath())
+                .map(StatObjectResponse::etag)
+                .orElse(null);
+    }
+
+    /**
+     * Checks whether an earlier attempt already stored the re-encoded object,
+     * which must not be re-encoded again, and records its size in case that
+     * attempt stopped before doing so.
+     *
+     * @return true if the object is already optimized
+     */
+    private boolean recordPreviousOptimization(Image image, StatObjectResponse stat) {
+        if (!stat.userMetadata().containsKey(MinioService.OPTIMIZED_METADATA)) {
+            return false;
+        }
+        if (image.getSizeBytes() == null || image.getSizeBytes() != stat.size()) {
+            imageRepository.updateStoredObject(image.getId(), stat.contentType(), stat.size());
+        }
+        log.debug("Image {} is already optimized", image.getId());
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageJobConfig;
+import org.igdevx.imageservice.exception.QueueSaturatedException;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageJob;
+import org.igdevx.imageservice.repository.ImageJobRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent queue of post-upload work stored in the image_jobs table.
+ * Jobs are enqueued in the upload transaction, claimed with
+ * FOR UPDATE SKIP LOCKED so several nodes can share the backlog, and
+ * deleted once processed. Failures are retried with exponential backoff.
+ */
+@Service
+@Slf4j
+public class ImageJobQueue {
+
+    private final ImageJobRepository jobRepository;
+    private final ImageJobConfig jobConfig;
+
+    private final AtomicLong pendingJobs = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+
+    public ImageJobQueue(ImageJobRepository jobRepository, ImageJobConfig jobConfig, MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.jobConfig = jobConfig;
+
+        Gauge.builder("image.jobs.queue.depth", pendingJobs, AtomicLong::get)
+                .description("Pending post-upload jobs")
+                .register(meterRegistry);
+        Gauge.builder("image.jobs.queue.oldest.age", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending post-upload job")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refuses new work when the backlog is too deep. Based on the depth sampled
+     * by {@link #refreshStatistics()} so uploads never pay for a COUNT query.
+     */
+    public void checkCapacity() {
+        if (pendingJobs.get() >= jobConfig.getMaxQueueDepth()) {
+            throw new QueueSaturatedException(
+                    "Processing backlog is full (" + pendingJobs.get() + " pending jobs)",
+                    jobConfig.getRetryAfter().toSeconds());
+        }
+    }
+
+    @Transactional
+    public void enqueue(Image image, ImageJob.JobType jobType) {
+        ImageJob job = ImageJob.builder()
+                .imageId(image.getId())
+                .jobType(jobType)
+                .priority(jobConfig.priorityOf(image.getEntityType()))
+                .nextRunAt(LocalDateTime.now())
+                .build();
+        jobRepository.save(job);
+        pendingJobs.incrementAndGet();
+    }
+
+    @Transactional
+    public List<ImageJob> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageJob> jobs = jobRepository.lockDueJobs(now, limit);
+        for (ImageJob job : jobs) {
+            job.setStatus(ImageJob.Status.RUNNING);
+            job.setLockedAt(now);
+        }
+        return jobRepository.saveAll(jobs);
+    }
+
+    @Transactional
+    public void complete(ImageJob job) {
+        jobRepository.deleteById(job.getId());
+    }
+
+    @Transactional
+    public void fail(ImageJob job, Exception cause) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        job.setLockedAt(null);
+        job.setLastError(truncate(cause.getClass().getSimpleName() + ": " + cause.getMessage()));
+
+        if (attempts >= jobConfig.getMaxAttempts()) {
+            job.setStatus(ImageJob.Status.FAILED);
+            log.error("Job {} ({}) for image {} failed permanently after {} attempts",
+                    job.getId(), job.getJobType(), job.getImageId(), attempts, cause);
+        } else {
+            job.setStatus(ImageJob.Status.PENDING);
+            job.setNextRunAt(LocalDateTime.now().plus(backoff(attempts)));
+            log.warn("Job {} ({}) for image {} failed, attempt {}/{}: {}",
+                    job.getId(), job.getJobType(), job.getImageId(), attempts, jobConfig.getMaxAttempts(), cause.getMessage());
+        }
+        jobRepository.save(job);
+    }
+
+    @Scheduled(fixedDelayString = "${image.jobs.statistics-interval-ms:5000}")
+    @Transactional(readOnly = true)
+    public void refreshStatistics() {
+        pendingJobs.set(jobRepository.countByStatus(ImageJob.Status.PENDING));
+        LocalDateTime oldest = jobRepository.findOldestCreatedAt(ImageJob.Status.PENDING);
+        oldestPendingAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+    }
+
+    @Scheduled(fixedDelayString = "${image.jobs.stale-check-interval-ms:60000}")
+    @Transactional
+    public void releaseStaleJobs() {
+        int released = jobRepository.releaseStaleJobs(
+                LocalDateTime.now().minus(jobConfig.getStaleLockTimeout()), jobConfig.getMaxAttempts());
+        if (released > 0) {
+            log.warn("Released {} job(s) whose worker did not finish in time, as a failed attempt", released);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = jobConfig.getInitialBackoff().multipliedBy(factor);
+        return delay.compareTo(jobConfig.getMaxBackoff()) > 0 ? jobConfig.getMaxBackoff() : delay;
+    }
+
+    private String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,76 @@
+package org.igdevx.imageservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageJobConfig;
+import org.igdevx.imageservice.model.ImageJob;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Polls the job queue and hands claimed jobs to a bounded worker pool. Only as
+ * many jobs as there are idle workers are claimed, so the rest of the backlog
+ * stays visible to other nodes.
+ */
+@Component
+@Slf4j
+public class ImageJobWorker {
+
+    private final ImageJobQueue jobQueue;
+    private final ImageJobProcessor jobProcessor;
+    private final ThreadPoolTaskExecutor executor;
+    private final Semaphore idleWorkers;
+
+    public ImageJobWorker(
+            ImageJobQueue jobQueue,
+            ImageJobProcessor jobProcessor,
+            @Qualifier("imageJobExecutor") ThreadPoolTaskExecutor executor,
+            ImageJobConfig jobConfig
+    ) {
+        this.jobQueue = jobQueue;
+        this.jobProcessor = jobProcessor;
+        this.executor = executor;
+        this.idleWorkers = new Semaphore(jobConfig.getWorkers());
+    }
+
+    @Scheduled(fixedDelayString = "${image.jobs.poll-interval-ms:500}")
+    public void poll() {
+        int available = idleWorkers.availablePermits();
+        if (available == 0) {
+            return;
+        }
+
+        List<ImageJob> jobs;
+        try {
+            jobs = jobQueue.claim(available);
+        } catch (Exception e) {
+            log.error("Unable to claim image jobs", e);
+            return;
+        }
+
+        for (ImageJob job : jobs) {
+            idleWorkers.acquireUninterruptibly();
+            try {
+                executor.execute(() -> run(job));
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                jobQueue.fail(job, e);
+            }
+        }
+    }
+
+    private void run(ImageJob job) {
+        try {
+            jobProcessor.process(job);
+            jobQueue.complete(job);
+        } catch (Exception e) {
+            jobQueue.fail(job, e);
+        } finally {
+            idleWorkers.release();
+        }
+    }
+}
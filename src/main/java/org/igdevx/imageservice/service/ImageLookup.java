@@ -0,0 +1,169 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.LookupBatchingConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-image lookups by ID, by product and by user profile or banner.
+ * Lookups by product and by user are answered by the node-local
+ * {@link ImageLookupIndex} when it is enabled. With batching enabled,
+ * concurrent lookups are answered by one {@code = ANY(?)} query per batch
+ * instead of one query each. Callers wait without holding a connection;
+ * lookups of recently written keys, and lookups whose batch fails or is
+ * too slow, are run on their own.
+ */
+@Service
+@Slf4j
+public class ImageLookup implements DisposableBean {
+
+    private final ImageRepository imageRepository;
+    private final ReadYourWritesTracker readYourWrites;
+    private final LookupBatchingConfig batchingConfig;
+    private final ImageLookupIndex lookupIndex;
+    private final TransactionTemplate readOnly;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor workers;
+    private final BatchLoader<UUID, Image> byId;
+    private final BatchLoader<String, Image> byProduct;
+
+    public ImageLookup(ImageRepository imageRepository, ReadYourWritesTracker readYourWrites,
+                       LookupBatchingConfig batchingConfig, ImageLookupIndex lookupIndex,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.imageRepository = imageRepository;
+        this.readYourWrites = readYourWrites;
+        this.batchingConfig = batchingConfig;
+        this.lookupIndex = lookupIndex;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+
+        if (!batchingConfig.isEnabled()) {
+            this.timer = null;
+            this.workers = null;
+            this.byId = null;
+            this.byProduct = null;
+            return;
+        }
+
+        this.timer = new ScheduledThreadPoolExecutor(1, daemon("image-lookup-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+        int threads = Math.max(1, batchingConfig.getWorkers());
+        // A full queue fails the batch, whose callers then query on their own
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16), daemon("image-lookup-batch"));
+        this.byId = new BatchLoader<>("id", this::loadByIds, batchingConfig.getMaxBatchSize(),
+                batchingConfig.getMaxWait(), timer, workers, meterRegistry);
+        this.byProduct = new BatchLoader<>("product", this::loadByProductIds, batchingConfig.getMaxBatchSize(),
+                batchingConfig.getMaxWait(), timer, workers, meterRegistry);
+    }
+
+    public Optional<Image> findById(UUID id) {
+        Supplier<Optional<Image>> direct = () -> readOnly.execute(status -> {
+            readYourWrites.readImage(id);
+            return imageRepository.findByIdAndDeletedAtIsNull(id);
+        });
+        if (byId == null || readYourWrites.isRecentImage(id)) {
+            return direct.get();
+        }
+        return await(byId.load(id), direct);
+    }
+
+    public Optional<Image> findByProductId(String productId) {
+        return lookupIndex.findByProductId(productId, () -> queryByProductId(productId));
+    }
+
+    public Optional<Image> findByUserAndType(String userId, Image.EntityType entityType) {
+        return lookupIndex.findByUserAndType(userId, entityType, () -> readOnly.execute(status -> {
+            readYourWrites.readUser(userId);
+            return imageRepository.findFirstByUserIdAndEntityTypeAndDeletedAtIsNullOrderByUploadedAtDesc(
+                    userId, entityType);
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        if (timer != null) {
+            timer.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private Optional<Image> queryByProductId(String productId) {
+        Supplier<Optional<Image>> direct = () -> readOnly.execute(status -> {
+            readYourWrites.readProduct(productId);
+            return imageRepository.findPrimaryByProductId(productId);
+        });
+        if (byProduct == null || readYourWrites.isRecentProduct(productId)) {
+            return direct.get();
+        }
+        return await(byProduct.load(productId), direct);
+    }
+
+    private Optional<Image> await(CompletableFuture<Image> load, Supplier<Optional<Image>> direct) {
+        try {
+            return Optional.ofNullable(load.get(batchingConfig.getTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for image lookup", e);
+        } catch (TimeoutException e) {
+            log.warn("Batched image lookup timed out after {}, querying directly", batchingConfig.getTimeout());
+            return direct.get();
+        } catch (ExecutionException e) {
+            log.warn("Batched image lookup failed, querying directly: {}", e.getCause().toString());
+            return direct.get();
+        }
+    }
+
+    private Map<UUID, Image> loadByIds(List<UUID> ids) {
+        return readOnly.execute(status -> {
+            Map<UUID, Image> images = new HashMap<>();
+            for (Image image : imageRepository.findActiveByIds(ids.toArray(UUID[]::new))) {
+                images.put(image.getId(), image);
+            }
+            return images;
+        });
+    }
+
+    private Map<String, Image> loadByProductIds(List<String> productIds) {
+        return readOnly.execute(status -> {
+            Map<String, Image> images = new HashMap<>();
+            // Primary image first, so it is the one returned for its product
+            for (Image image : imageRepository.findActiveByProductIds(productIds.toArray(String[]::new))) {
+                images.putIfAbsent(image.getProductId(), image);
+            }
+            return images;
+        });
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
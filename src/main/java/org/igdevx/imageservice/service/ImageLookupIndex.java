@@ -0,0 +1,558 @@
+package org.igdevx.imageservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageIndexConfig;
+import org.igdevx.imageservice.config.ReplicaRoutingContext;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageEvent;
+import org.igdevx.imageservice.repository.ImageEventRepository;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Answers "image of this product" and "profile or banner of this user" from a
+ * node-local {@link ImageIndexFile} instead of the database. The index is
+ * built from a snapshot of the images table, then kept current by the same
+ * notifications that invalidate the metadata cache: every key they name is
+ * marked changed, bypassed by lookups, and re-read from the primary in
+ * batches. Notifications too large to list their keys are caught up from the
+ * image event log; the index is bypassed until every event committed before
+ * such a notification has been published and read. Building, and any
+ * refresh, runs on one thread.
+ */
+@Component
+@Slf4j
+public class ImageLookupIndex implements PostgresNotificationHandler, DisposableBean {
+
+    private static final String SNAPSHOT_QUERY = """
+            SELECT id, entity_type, user_id, product_id, cloud_path, file_name, shard, content_type,
+                   size_bytes, width, height, placeholder, uploaded_at, is_primary
+            FROM images
+            WHERE status = 'ACTIVE' AND deleted_at IS NULL
+              AND (product_id IS NOT NULL OR entity_type IN ('USER_PROFILE', 'USER_BANNER'))
+            """;
+    private static final int SNAPSHOT_FETCH_SIZE = 10_000;
+    private static final int EVENT_PAGE_SIZE = 1_000;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration CATCH_UP_DELAY = Duration.ofMillis(100);
+
+    private final ImageIndexConfig indexConfig;
+    private final ImageRepository imageRepository;
+    private final ImageEventRepository imageEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate primaryRead;
+    private final Timer buildTimer;
+
+    // Keys changed since the index last read them, with the generation of their latest change
+    private final Map<String, Long> changed = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final AtomicBoolean advancePending = new AtomicBoolean();
+    // Notifications without keys whose catch-up has not started yet
+    private final AtomicInteger catchUpsQueued = new AtomicInteger();
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-lookup-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ImageIndexFile current;
+    // Set while changes announced without their keys are not all read yet
+    private volatile boolean catchingUp;
+    // Only used by the applier thread
+    private long eventCursor;
+    // Transactions below it must have their events read before catchingUp clears
+    private long catchUpHorizon;
+    private boolean catchUpScheduled;
+    private int builds;
+    private boolean rebuildQueued;
+
+    public ImageLookupIndex(ImageIndexConfig indexConfig, ImageRepository imageRepository,
+                            ImageEventRepository imageEventRepository, JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.indexConfig = indexConfig;
+        this.imageRepository = imageRepository;
+        this.imageEventRepository = imageEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setReadOnly(true);
+
+        this.buildTimer = Timer.builder("image.index.build")
+                .description("Time to build the lookup index from a snapshot")
+                .register(meterRegistry);
+        Gauge.builder("image.index.entries", this, index -> {
+                    ImageIndexFile file = index.current;
+                    return file != null ? file.size() : 0;
+                })
+                .register(meterRegistry);
+    }
+
+    public Optional<Image> findByProductId(String productId, Supplier<Optional<Image>> fallback) {
+        return find(productKey(productId), Function.identity(), fallback);
+    }
+
+    /**
+     * Only profiles and banners are indexed; a user's product images go to
+     * the fallback.
+     */
+    public Optional<Image> findByUserAndType(String userId, Image.EntityType entityType,
+                                             Supplier<Optional<Image>> fallback) {
+        if (entityType == Image.EntityType.PRODUCT) {
+            return fallback.get();
+        }
+        return find(userKey(userId, entityType), Function.identity(), fallback);
+    }
+
+    /**
+     * Marks the keys of a changed image so lookups bypass the index until it
+     * has re-read them. Called after commit for changes made on this node,
+     * which would otherwise be visible to the index only once the
+     * notification arrives.
+     */
+    public void invalidate(String userId, String productId) {
+        if (!indexConfig.isEnabled()) {
+            return;
+        }
+        long changeGeneration = generation.incrementAndGet();
+        if (productId != null) {
+            changed.put(productKey(productId), changeGeneration);
+        }
+        if (userId != null) {
+            changed.put(userKey(userId, Image.EntityType.USER_PROFILE), changeGeneration);
+            changed.put(userKey(userId, Image.EntityType.USER_BANNER), changeGeneration);
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public String channel() {
+        return ImageMetadataCache.CHANNEL;
+    }
+
+    /**
+     * The first connection triggers the initial build. After a reconnect the
+     * index is rebuilt, since changes made meanwhile were never announced.
+     */
+    @Override
+    public void onListening() {
+        if (indexConfig.isEnabled()) {
+            applier.execute(() -> rebuild(builds > 0));
+        }
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        if (!indexConfig.isEnabled()) {
+            return;
+        }
+        if (ImageMetadataCache.FLUSH_ALL.equals(payload)) {
+            queueCatchUp();
+            return;
+        }
+        try {
+            for (JsonNode change : objectMapper.readTree(payload)) {
+                invalidate(textOrNull(change.path("userId")), textOrNull(change.path("productId")));
+            }
+            scheduleAdvance();
+        } catch (IOException e) {
+            log.warn("Unreadable cache invalidation '{}', catching up from the event log: {}", payload, e.getMessage());
+            queueCatchUp();
+        }
+    }
+
+    private void queueCatchUp() {
+        catchUpsQueued.incrementAndGet();
+        catchingUp = true;
+        applier.execute(this::startCatchUp);
+    }
+
+    @Override
+    public void destroy() {
+        applier.shutdownNow();
+        ImageIndexFile file = current;
+        current = null;
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private <T> Optional<T> find(String key, Function<Image, T> mapper, Supplier<Optional<T>> fallback) {
+        ImageIndexFile file = current;
+        if (file == null || catchingUp || changed.containsKey(key)) {
+            return fallback.get();
+        }
+        return Optional.ofNullable(file.get(key)).map(mapper);
+    }
+
+    /**
+     * Builds a new index from a consistent snapshot and swaps it in. The
+     * event log position is read in the same snapshot, so catching up from
+     * it later covers every change the snapshot missed.
+     *
+     * @param stale whether the current index may have missed changes and
+     *              must stop answering right away
+     */
+    private void rebuild(boolean stale) {
+        rebuildQueued = false;
+        ImageIndexFile previous = current;
+        if (stale) {
+            current = null;
+        }
+        if (builds == 0) {
+            clearDirectory();
+        }
+        // Every change marked up to here committed before the snapshot starts
+        long snapshotGeneration = generation.get();
+        long start = System.nanoTime();
+        ImageIndexFile[] next = new ImageIndexFile[1];
+        try {
+            long cursor = snapshotTransaction.execute(status -> {
+                // The primary: a replica behind it could hand back keys already refreshed from the primary
+                ReplicaRoutingContext.pinToPrimary();
+                long latestSeq = imageEventRepository.findLatestSeq();
+                Long count = jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM images WHERE status = 'ACTIVE' AND deleted_at IS NULL", Long.class);
+                next[0] = createFile(count != null ? count : 0);
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(SNAPSHOT_QUERY);
+                    statement.setFetchSize(SNAPSHOT_FETCH_SIZE);
+                    return statement;
+                }, resultSet -> {
+                    Image image = toImage(resultSet);
+                    for (String key : keysOf(image)) {
+                        next[0].putIfNewer(key, image);
+                    }
+                });
+                return latestSeq;
+            });
+
+            eventCursor = cursor;
+            current = next[0];
+            // The snapshot holds every change announced so far
+            catchUpHorizon = 0;
+            catchingUp = catchUpsQueued.get() > 0;
+            builds++;
+            changed.entrySet().removeIf(entry -> entry.getValue() <= snapshotGeneration);
+            if (previous != null) {
+                previous.close();
+            }
+            log.info("Image lookup index built with {} entries in {} ms",
+                    next[0].size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Could not build the image lookup index, retrying in {}s", RETRY_DELAY.toSeconds(), e);
+            if (next[0] != null) {
+                next[0].close();
+            }
+            CompletableFuture.delayedExecutor(RETRY_DELAY.toSeconds(), TimeUnit.SECONDS, applier)
+                    .execute(() -> rebuild(stale));
+        } finally {
+            buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        // Changes announced during the build
+        scheduleRefresh();
+    }
+
+    /**
+     * Catches up with a notification that did not list its keys. Its
+     * transaction has committed, so it is below the current horizon.
+     */
+    private void startCatchUp() {
+        catchUpsQueued.decrementAndGet();
+        try {
+            catchUpHorizon = Math.max(catchUpHorizon, imageEventRepository.findTransactionHorizon());
+        } catch (RuntimeException e) {
+            log.error("Could not catch up the image lookup index, rebuilding", e);
+            rebuild(true);
+            return;
+        }
+        catchUpFromEvents();
+    }
+
+    /**
+     * Marks the keys of every event after the cursor as changed, and lets
+     * lookups use the index again once no event below the catch-up horizon
+     * is left unpublished. Until then, it checks again shortly.
+     */
+    private void catchUpFromEvents() {
+        if (current == null) {
+            return;
+        }
+        try {
+            // Checked first: whatever is published by now is at or below the latest number read next
+            boolean pending = catchUpHorizon > 0 && imageEventRepository.existsUnpublishedBefore(catchUpHorizon);
+            if (!readEvents()) {
+                return;
+            }
+            if (!pending) {
+                catchUpHorizon = 0;
+                catchingUp = catchUpsQueued.get() > 0;
+                return;
+            }
+            catchingUp = true;
+            if (!catchUpScheduled) {
+                // Held back by an older transaction still running
+                catchUpScheduled = true;
+                CompletableFuture.delayedExecutor(CATCH_UP_DELAY.toMillis(), TimeUnit.MILLISECONDS, applier)
+                        .execute(() -> {
+                            catchUpScheduled = false;
+                            catchUpFromEvents();
+                        });
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not catch up the image lookup index, rebuilding", e);
+            rebuild(true);
+        }
+    }
+
+    private void scheduleAdvance() {
+        if (advancePending.compareAndSet(false, true)) {
+            applier.execute(this::advance);
+        }
+    }
+
+    /**
+     * Moves the event cursor past the events published since, after changes
+     * announced with their keys, so a later catch-up only reads what is new.
+     * Their keys are marked again, which coalesces with the marks of the
+     * notifications themselves while those are not refreshed yet.
+     */
+    private void advance() {
+        advancePending.set(false);
+        if (current == null) {
+            return;
+        }
+        try {
+            readEvents();
+        } catch (RuntimeException e) {
+            // Read again by the next notification or catch-up
+            log.warn("Could not read the image event log at position {}: {}", eventCursor, e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the keys of every event after the cursor as changed and moves the
+     * cursor past them.
+     *
+     * @return false if events were pruned before the index read them, in
+     *         which case it was rebuilt
+     */
+    private boolean readEvents() {
+        Boolean complete = primaryRead.execute(status -> {
+            // One server for the latest number and the events, so a lagging replica is not taken for a pruned log
+            ReplicaRoutingContext.pinToPrimary();
+            long latest = imageEventRepository.findLatestSeq();
+            while (eventCursor < latest) {
+                List<ImageEvent> events = imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(
+                        eventCursor, Limit.of(EVENT_PAGE_SIZE));
+                if (events.isEmpty() || events.get(0).getSeq() != eventCursor + 1) {
+                    return false;
+                }
+                for (ImageEvent event : events) {
+                    invalidate(event.getUserId(), event.getProductId());
+                    eventCursor = event.getSeq();
+                }
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(complete)) {
+            log.warn("Image event log pruned past the index position {}, rebuilding", eventCursor);
+            rebuild(true);
+            return false;
+        }
+        return true;
+    }
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            applier.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Re-reads up to one batch of changed keys from the primary and clears
+     * each one unless it changed again meanwhile.
+     */
+    private void refresh() {
+        refreshPending.set(false);
+        ImageIndexFile file = current;
+        if (file == null || changed.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> batch = new HashMap<>();
+        for (Map.Entry<String, Long> entry : changed.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= indexConfig.getRefreshBatchSize()) {
+                break;
+            }
+        }
+        Set<String> productIds = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        for (String key : batch.keySet()) {
+            if (key.startsWith("p:")) {
+                productIds.add(key.substring(2));
+            } else {
+                userIds.add(key.substring(2, key.lastIndexOf(':')));
+            }
+        }
+
+        Map<String, Image> latest;
+        try {
+            latest = primaryRead.execute(status -> {
+                ReplicaRoutingContext.pinToPrimary();
+                Map<String, Image> images = new HashMap<>();
+                List<Image> rows = new ArrayList<>();
+                if (!productIds.isEmpty()) {
+                    rows.addAll(imageRepository.findActiveByProductIds(productIds.toArray(String[]::new)));
+                }
+                if (!userIds.isEmpty()) {
+                    rows.addAll(imageRepository.findActiveUserImagesByUserIds(userIds.toArray(String[]::new)));
+                }
+                // Product rows come primary first, user rows newest first, so the image each key returns wins
+                for (Image image : rows) {
+                    for (String key : keysOf(image)) {
+                        images.putIfAbsent(key, image);
+                    }
+                }
+                return images;
+            });
+        } catch (RuntimeException e) {
+            // The keys stay marked and keep bypassing the index until the next change retries them
+            log.error("Could not refresh {} image lookup index keys", batch.size(), e);
+            return;
+        }
+
+        for (Map.Entry<String, Long> entry : batch.entrySet()) {
+            Image image = latest.get(entry.getKey());
+            if (image != null) {
+                file.put(entry.getKey(), image);
+            } else {
+                file.remove(entry.getKey());
+            }
+            changed.remove(entry.getKey(), entry.getValue());
+        }
+
+        if (file.needsRebuild() && !rebuildQueued) {
+            // Keeps answering from the current index; changed keys are still bypassed
+            rebuildQueued = true;
+            applier.execute(() -> rebuild(false));
+        } else if (!changed.isEmpty()) {
+            scheduleRefresh();
+        }
+    }
+
+    private ImageIndexFile createFile(long expectedEntries) {
+        try {
+            return ImageIndexFile.create(indexConfig.getDirectory(),
+                    "index-" + builds + "-" + System.currentTimeMillis(), expectedEntries);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the image index files", e);
+        }
+    }
+
+    private static Image toImage(ResultSet resultSet) throws SQLException {
+        Timestamp uploadedAt = resultSet.getTimestamp("uploaded_at");
+        return Image.builder()
+                .id(resultSet.getObject("id", UUID.class))
+                .entityType(Image.EntityType.valueOf(resultSet.getString("entity_type")))
+                .userId(resultSet.getString("user_id"))
+                .productId(resultSet.getString("product_id"))
+                .cloudPath(resultSet.getString("cloud_path"))
+                .fileName(resultSet.getString("file_name"))
+                .shard(resultSet.getString("shard"))
+                .contentType(resultSet.getString("content_type"))
+                .sizeBytes(resultSet.getObject("size_bytes", Long.class))
+                .width(resultSet.getObject("width", Integer.class))
+                .height(resultSet.getObject("height", Integer.class))
+                .placeholder(resultSet.getString("placeholder"))
+                .uploadedAt(uploadedAt != null ? uploadedAt.toLocalDateTime() : null)
+                .primary(resultSet.getBoolean("is_primary"))
+                .build();
+    }
+
+    private void clearDirectory() {
+        Path directory = indexConfig.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        // Leftovers of a previous run
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith("index-")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clear the image index directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static List<String> keysOf(Image image) {
+        List<String> keys = new ArrayList<>(1);
+        // A product's key holds its primary image; the rest of its gallery is not indexed
+        if (image.getProductId() != null && image.isPrimary()) {
+            keys.add(productKey(image.getProductId()));
+        }
+        if (image.getEntityType() != Image.EntityType.PRODUCT) {
+            keys.add(userKey(image.getUserId(), image.getEntityType()));
+        }
+        return keys;
+    }
+
+    private static String productKey(String productId) {
+        return "p:" + productId;
+    }
+
+    private static String userKey(String userId, Image.EntityType entityType) {
+        return "u:" + userId + ":" + entityType;
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+}
@@ -0,0 +1,131 @@
+package org.igdevx.imageservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageCacheConfig;
+import org.igdevx.imageservice.model.Image;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Evicts the cached lookups an image change affects: the image itself, its
+ * user's images and its product's image. Changes made on this node are
+ * evicted as soon as they commit; changes from every node arrive as
+ * notifications on {@link #CHANNEL}, sent by a trigger on the images table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageMetadataCache implements PostgresNotificationHandler {
+
+    public static final String CHANNEL = "image_cache";
+    // Sent instead of a key list when a statement changed many rows
+    static final String FLUSH_ALL = "*";
+
+    private final CacheManager cacheManager;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ObjectMapper objectMapper;
+    private final ImageLookupIndex lookupIndex;
+
+    public void evictAfterCommit(Image image) {
+        evictAfterCommit(image.getId(), image.getUserId(), image.getProductId());
+    }
+
+    public void evictAfterCommit(UUID imageId, String userId, String productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(imageId, userId, productId);
+            lookupIndex.invalidate(userId, productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(imageId, userId, productId);
+                // The index catches up on its own once the notification arrives; until then it must not answer
+                lookupIndex.invalidate(userId, productId);
+            }
+        });
+    }
+
+    public void evict(UUID imageId, String userId, String productId) {
+        if (imageId != null) {
+            evict(ImageCacheConfig.IMAGES, imageId);
+        }
+        if (userId != null) {
+            evict(ImageCacheConfig.USER_IMAGES, userId);
+            for (Image.EntityType entityType : Image.EntityType.values()) {
+                evict(ImageCacheConfig.USER_IMAGE, userKey(userId, entityType));
+            }
+        }
+        if (productId != null) {
+            evict(ImageCacheConfig.PRODUCT_IMAGE, productId);
+        }
+    }
+
+    public void evictAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void onListening() {
+        evictAll();
+    }
+
+    /**
+     * Applies a notification payload: a JSON array of {id, userId, productId}
+     * or {@value #FLUSH_ALL}. The change may not have reached the replicas
+     * yet, so the next reads of these keys go to the primary.
+     */
+    @Override
+    public void onNotification(String payload) {
+        if (FLUSH_ALL.equals(payload)) {
+            evictAll();
+            return;
+        }
+        try {
+            for (JsonNode change : objectMapper.readTree(payload)) {
+                UUID imageId = UUID.fromString(change.path("id").asText());
+                String userId = textOrNull(change.path("userId"));
+                String productId = textOrNull(change.path("productId"));
+                evict(imageId, userId, productId);
+                readYourWrites.recordImageWrite(imageId, userId, productId);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Unreadable cache invalidation '{}', flushing the cache: {}", payload, e.getMessage());
+            evictAll();
+        }
+    }
+
+    public static String userKey(String userId, Image.EntityType entityType) {
+        return userId + ":" + entityType;
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+}
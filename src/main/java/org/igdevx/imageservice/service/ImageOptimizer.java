@@ -0,0 +1,193 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImageOptimizationConfig;
+import org.igdevx.imageservice.model.Image;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Re-encodes originals without their metadata: JPEGs at the configured quality
+ * after baking the EXIF orientation into the pixels, PNGs losslessly at maximum
+ * deflate effort. The result is only used when it is smaller than the upload.
+ * Files carrying colour information or animation that a metadata-free
+ * re-encode would lose are kept as uploaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageOptimizer {
+
+    private static final byte[] ICC_PROFILE_ID = "ICC_PROFILE\0".getBytes(StandardCharsets.US_ASCII);
+    private static final Set<String> PRESERVED_PNG_CHUNKS = Set.of("iCCP", "gAMA", "cHRM", "acTL");
+
+    private final ImageOptimizationConfig optimizationConfig;
+    private final BoundedImageDecoder imageDecoder;
+    private final MeterRegistry meterRegistry;
+
+    public record OptimizedImage(byte[] data, String contentType) {
+    }
+
+    public boolean isEnabled(Image.EntityType entityType) {
+        return optimizationConfig.getEnabledFor().contains(entityType);
+    }
+
+    public Optional<OptimizedImage> optimize(byte[] original, ImageHeader header, Image.EntityType entityType) {
+        if (header == null) {
+            return Optional.empty();
+        }
+
+        if (hasStateToPreserve(original, header.format())) {
+            log.debug("Image optimization skipped: {} carries a colour profile or animation", header.format());
+            return Optional.empty();
+        }
+
+        try {
+            byte[] optimized = switch (header.format()) {
+                case "jpeg" -> reencodeJpeg(original, header.orientation());
+                case "png" -> reencodePng(original);
+                default -> null;
+            };
+
+            if (optimized == null || optimized.length >= original.length) {
+                return Optional.empty();
+            }
+
+            long saved = original.length - optimized.length;
+            meterRegistry.counter("image.optimization.bytes.saved", "entityType", entityType.name()).increment(saved);
+            meterRegistry.counter("image.optimization.applied", "entityType", entityType.name()).increment();
+            log.debug("Optimized {} image: {} -> {} bytes", header.format(), original.length, optimized.length);
+
+            return Optional.of(new OptimizedImage(optimized, "image/" + header.format()));
+        } catch (Exception e) {
+            log.warn("Image optimization skipped: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] reencodeJpeg(byte[] original, int orientation) throws IOException {
+        BufferedImage image = imageDecoder.decode(new ByteArrayInputStream(original), 0, 0);
+        image = ImageOrientation.apply(image, orientation);
+        if (image.getColorModel().hasAlpha()) {
+            return null;
+        }
+
+        ImageWriter writer = writerFor("jpeg");
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(optimizationConfig.getJpegQuality());
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        return write(writer, image, param);
+    }
+
+    private byte[] reencodePng(byte[] original) throws IOException {
+        BufferedImage image = imageDecoder.decode(new ByteArrayInputStream(original), 0, 0);
+
+        ImageWriter writer = writerFor("png");
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            // Quality 0 selects the highest deflate level, pixels are unchanged
+            param.setCompressionQuality(0.0f);
+        }
+        return write(writer, image, param);
+    }
+
+    /**
+     * Looks for what the re-encode would drop besides plain metadata: an
+     * embedded ICC profile (JPEG APP2, PNG iCCP), PNG gamma or chromaticity
+     * chunks, and APNG animation, of which only the first frame is decoded.
+     */
+    private static boolean hasStateToPreserve(byte[] data, String format) {
+        return switch (format) {
+            case "jpeg" -> jpegHasIccProfile(data);
+            case "png" -> pngHasColourOrAnimationChunk(data);
+            default -> false;
+        };
+    }
+
+    private static boolean jpegHasIccProfile(byte[] data) {
+        int offset = 2;
+        while (offset + 4 <= data.length && (data[offset] & 0xFF) == 0xFF) {
+            int marker = data[offset + 1] & 0xFF;
+            if (marker == 0xFF) {
+                offset++;
+                continue;
+            }
+            // Start of scan or end of image: no more metadata segments
+            if (marker == 0xDA || marker == 0xD9) {
+                return false;
+            }
+            int length = ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+            if (marker == 0xE2 && startsWith(data, offset + 4, ICC_PROFILE_ID)) {
+                return true;
+            }
+            offset += 2 + length;
+        }
+        return false;
+    }
+
+    private static boolean pngHasColourOrAnimationChunk(byte[] data) {
+        int offset = 8;
+        while (offset + 8 <= data.length) {
+            long length = ((data[offset] & 0xFFL) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                    | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+            String type = new String(data, offset + 4, 4, StandardCharsets.US_ASCII);
+            // All of these must appear before the first IDAT chunk
+            if (type.equals("IDAT")) {
+                return false;
+            }
+            if (PRESERVED_PNG_CHUNKS.contains(type)) {
+                return true;
+            }
+            if (length > data.length) {
+                return false;
+            }
+            offset += 12 + (int) length;
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        if (offset + prefix.length > data.length) {
+            return false;
+        }
+        return Arrays.equals(data, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private ImageWriter writerFor(String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No writer available for " + format);
+        }
+        return writers.next();
+    }
+
+    private byte[] write(ImageWriter writer, BufferedImage image, ImageWriteParam param) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            // No IIOMetadata is passed: EXIF, XMP and embedded thumbnails are dropped
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
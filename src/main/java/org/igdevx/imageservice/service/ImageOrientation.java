@@ -0,0 +1,50 @@
+package org.igdevx.imageservice.service;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Applies an EXIF orientation to decoded pixels so that downstream consumers
+ * (placeholders, re-encoded originals) match what browsers display.
+ */
+public final class ImageOrientation {
+
+    private ImageOrientation() {
+    }
+
+    public static BufferedImage apply(BufferedImage source, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return source;
+        }
+
+        int w = source.getWidth();
+        int h = source.getHeight();
+        boolean transposed = orientation >= 5;
+        int dw = transposed ? h : w;
+        int dh = transposed ? w : h;
+
+        int[] src = source.getRGB(0, 0, w, h, null, 0, w);
+        int[] dst = new int[src.length];
+
+        for (int y = 0; y < dh; y++) {
+            for (int x = 0; x < dw; x++) {
+                int sx;
+                int sy;
+                switch (orientation) {
+                    case 2 -> { sx = w - 1 - x; sy = y; }
+                    case 3 -> { sx = w - 1 - x; sy = h - 1 - y; }
+                    case 4 -> { sx = x; sy = h - 1 - y; }
+                    case 5 -> { sx = y; sy = x; }
+                    case 6 -> { sx = y; sy = h - 1 - x; }
+                    case 7 -> { sx = w - 1 - y; sy = h - 1 - x; }
+                    default -> { sx = w - 1 - y; sy = x; }
+                }
+                dst[y * dw + x] = src[sy * w + sx];
+            }
+        }
+
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage result = new BufferedImage(dw, dh, type);
+        result.setRGB(0, 0, dw, dh, dst, 0, dw);
+        return result;
+    }
+}
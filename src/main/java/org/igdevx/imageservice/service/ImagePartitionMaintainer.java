@@ -0,0 +1,193 @@
+package org.igdevx.imageservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImagePartitionConfig;
+import org.igdevx.imageservice.dto.ImagePartitionResponse;
+import org.igdevx.imageservice.exception.PartitionBusyException;
+import org.igdevx.imageservice.exception.PartitionInUseException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the images table: creates upcoming
+ * months ahead of time, and moves or detaches old months on request. Every
+ * node runs the creation; it is idempotent and serialized in the database.
+ */
+@Service
+@Slf4j
+public class ImagePartitionMaintainer {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // Holds rows of months that have no partition yet
+    private static final String DEFAULT_PARTITION = "images_default";
+
+    private static final String LIST_SQL = """
+            SELECT c.relname AS name, COALESCE(t.spcname, 'pg_default') AS tablespace,
+                   pg_total_relation_size(c.oid) AS size_bytes, c.reltuples::bigint AS estimated_rows
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            LEFT JOIN pg_tablespace t ON t.oid = c.reltablespace
+            WHERE i.inhparent = 'images'::regclass
+            ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImagePartitionConfig partitionConfig;
+    private final TransactionTemplate ownTransaction;
+
+    public ImagePartitionMaintainer(JdbcTemplate jdbcTemplate, ImagePartitionConfig partitionConfig,
+                                    PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionConfig = partitionConfig;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${image.partitions.maintenance-interval-ms:21600000}")
+    public void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        try {
+            int created = ensurePartitions(today, today.plusMonths(partitionConfig.getMonthsAhead()));
+            if (created > 0) {
+                log.info("Created {} image partition(s) up to {}", created,
+                        YearMonth.from(today).plusMonths(partitionConfig.getMonthsAhead()));
+            }
+        } catch (RuntimeException e) {
+            // Inserts only fail once the current month runs out, months from now
+            log.error("Could not create upcoming image partitions", e);
+        }
+    }
+
+    /**
+     * Creates the missing partitions for every month from {@code first} to
+     * {@code last}, e.g. before loading rows with past upload dates.
+     *
+     * @return number of partitions created
+     */
+    @Transactional
+    public int ensurePartitions(LocalDate first, LocalDate last) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_image_partitions(?, ?)", Integer.class, first, last);
+        return created != null ? created : 0;
+    }
+
+    @Transactional
+    public List<ImagePartitionResponse> listPartitions() {
+        return jdbcTemplate.query(LIST_SQL, (resultSet, row) -> {
+            String name = resultSet.getString("name");
+            return ImagePartitionResponse.builder()
+                    .name(name)
+                    .month(monthOf(name))
+                    .tablespace(resultSet.getString("tablespace"))
+                    .sizeBytes(resultSet.getLong("size_bytes"))
+                    .estimatedRows(resultSet.getLong("estimated_rows"))
+                    .build();
+        });
+    }
+
+    /**
+     * Rewrites a month's partition and its indexes into another tablespace.
+     * Each statement takes an ACCESS EXCLUSIVE lock on the relation it copies
+     * and holds it until the copy is done: every read or write of the month
+     * waits, as does every query on images that is not pruned to other months.
+     * The table and each index are moved in their own transaction, so the lock
+     * is released between them, and a statement gives up after
+     * {@code image.partitions.move-lock-timeout} rather than queue the traffic
+     * behind a long-running query; run it off-peak.
+     */
+    public ImagePartitionResponse moveToTablespace(YearMonth month, String tablespace) {
+        String partition = requireAttached(month);
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_tablespace WHERE spcname = ?)", Boolean.class, tablespace);
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new IllegalArgumentException("Unknown tablespace: " + tablespace);
+        }
+
+        long start = System.nanoTime();
+        executeWithLockTimeout("ALTER TABLE " + quote(partition) + " SET TABLESPACE " + quote(tablespace));
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexrelid::regclass::text FROM pg_index WHERE indrelid = ?::regclass", String.class, partition);
+        for (String index : indexes) {
+            // Already quoted where needed by the regclass output
+            executeWithLockTimeout("ALTER INDEX " + index + " SET TABLESPACE " + quote(tablespace));
+        }
+        log.info("Moved image partition {} to tablespace {} in {} ms",
+                partition, tablespace, (System.nanoTime() - start) / 1_000_000);
+
+        return listPartitions().stream()
+                .filter(response -> response.getName().equals(partition))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Detaches a month whose images are all deleted. The partition is kept,
+     * renamed images_archive_yyyy_MM, for dumping or dropping by hand.
+     *
+     * @return name of the detached table
+     * @throws PartitionInUseException if the month still holds live images
+     */
+    @Transactional
+    public String detach(YearMonth month) {
+        String partition = requireAttached(month);
+        Boolean live = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + quote(partition) + " WHERE deleted_at IS NULL)", Boolean.class);
+        if (Boolean.TRUE.equals(live)) {
+            throw new PartitionInUseException("Partition " + partition + " still holds live images");
+        }
+        // Checks again under a lock that keeps new images out of the month
+        String archived = jdbcTemplate.queryForObject("SELECT detach_image_partition(?)", String.class, month.atDay(1));
+        log.info("Detached image partition {} as {}", partition, archived);
+        return archived;
+    }
+
+    private void executeWithLockTimeout(String statement) {
+        long timeoutMs = partitionConfig.getMoveLockTimeout().toMillis();
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                // SET does not take bind parameters; the value is a number from the configuration
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + timeoutMs);
+                jdbcTemplate.execute(statement);
+            });
+        } catch (PessimisticLockingFailureException e) {
+            // What was already moved stays moved; a retry only copies the rest
+            throw new PartitionBusyException("Lock not acquired within " + timeoutMs + " ms: " + statement, e);
+        }
+    }
+
+    private String requireAttached(YearMonth month) {
+        String partition = "images_" + month.format(PARTITION_SUFFIX);
+        Boolean attached = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_inherits
+                    WHERE inhparent = 'images'::regclass AND inhrelid = to_regclass(?)
+                )
+                """, Boolean.class, partition);
+        if (!Boolean.TRUE.equals(attached)) {
+            throw new RuntimeException("Image partition not found: " + month);
+        }
+        return partition;
+    }
+
+    private static String monthOf(String partition) {
+        if (partition.equals(DEFAULT_PARTITION)) {
+            return null;
+        }
+        String suffix = partition.substring(partition.lastIndexOf('_') - 4);
+        return suffix.replace('_', '-');
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
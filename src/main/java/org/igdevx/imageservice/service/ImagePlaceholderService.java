@@ -0,0 +1,44 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ImagePlaceholderConfig;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+
+/**
+ * Builds BlurHash placeholders from a heavily subsampled decode, so that the
+ * raster allocated never exceeds roughly sampleSize² pixels whatever the
+ * size of the original.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImagePlaceholderService {
+
+    private final ImagePlaceholderConfig placeholderConfig;
+    private final BoundedImageDecoder imageDecoder;
+
+    public boolean isEnabled() {
+        return placeholderConfig.isEnabled();
+    }
+
+    public String generate(InputStream inputStream, ImageHeader header) {
+        if (!placeholderConfig.isEnabled() || header == null) {
+            return null;
+        }
+
+        try {
+            int sampleSize = placeholderConfig.getSampleSize();
+            BufferedImage sample = imageDecoder.decode(inputStream, sampleSize, sampleSize);
+            sample = ImageOrientation.apply(sample, header.orientation());
+
+            return BlurHashEncoder.encode(sample, placeholderConfig.getComponentsX(), placeholderConfig.getComponentsY());
+        } catch (Exception e) {
+            log.warn("Unable to generate placeholder: {}", e.getMessage());
+            return null;
+        }
+    }
+}
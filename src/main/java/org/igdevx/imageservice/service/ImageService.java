@@ -1,19 +1,33 @@
 package org.igdevx.imageservice.service;
 
+import io.minio.StatObjectResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.DirectUploadConfig;
+import org.igdevx.imageservice.config.ImageCacheConfig;
 import org.igdevx.imageservice.dto.ImageResponse;
+import org.igdevx.imageservice.dto.UploadIntentRequest;
+import org.igdevx.imageservice.dto.UploadIntentResponse;
 import org.igdevx.imageservice.dto.UploadResponse;
 import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageJob;
 import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,8 +36,23 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ImageService {
 
+    // Matches the 1000-key limit of one MinIO multi-object delete request
+    private static final int PURGE_BATCH_SIZE = 1000;
+
     private final ImageRepository imageRepository;
     private final MinioService minioService;
+    private final ImageHeaderReader imageHeaderReader;
+    private final ImagePlaceholderService imagePlaceholderService;
+    private final BoundedImageDecoder imageDecoder;
+    private final ImageOptimizer imageOptimizer;
+    private final ImageJobQueue imageJobQueue;
+    private final MinioPresigner minioPresigner;
+    private final DirectUploadConfig directUploadConfig;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ImageMetadataCache imageCache;
+    private final ImageLookup imageLookup;
+    private final ProductGalleryService galleryService;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public UploadResponse uploadImage(
@@ -34,23 +63,34 @@ public class ImageService {
     ) throws IOException {
 
         validateImageFile(file);
+        ImageHeader header = readHeader(file);
+        imageDecoder.checkDimensions(header);
+        imageJobQueue.checkCapacity();
 
         String fileName = generateFileName(file.getOriginalFilename());
         String cloudPath = buildCloudPath(userId, entityType, fileName);
+        String shard = minioService.shardFor(userId);
 
-        minioService.uploadFile(file, cloudPath);
+        minioService.uploadFile(shard, file, cloudPath);
 
         Image image = Image.builder()
                 .entityType(entityType)
+                .shard(shard)
                 .userId(userId)
                 .productId(productId)
                 .cloudPath(cloudPath)
                 .fileName(fileName)
                 .contentType(file.getContentType())
                 .sizeBytes(file.getSize())
+                .width(header != null ? header.displayWidth() : null)
+                .height(header != null ? header.displayHeight() : null)
                 .build();
+        galleryService.placeNewImage(image);
 
         image = imageRepository.save(image);
+        readYourWrites.recordImageWrite(image);
+        imageCache.evictAfterCommit(image);
+        enqueuePostProcessing(image);
 
         log.info("Image uploaded successfully: {} for user {}", fileName, userId);
 
@@ -58,33 +98,149 @@ public class ImageService {
                 .imageId(image.getId().toString())
                 .fileName(fileName)
                 .cloudPath(cloudPath)
-                .url(minioService.getPresignedUrl(cloudPath))
+                .url(minioService.getPresignedUrl(shard, cloudPath))
                 .sizeBytes(file.getSize())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .placeholder(image.getPlaceholder())
                 .message("Image uploaded successfully")
                 .build();
     }
 
+    /**
+     * First step of a direct upload: reserves a PENDING row and returns a
+     * presigned PUT URL so the client sends the bytes straight to MinIO.
+     * The row stays invisible until {@link #completeUpload(UUID)} verifies
+     * the stored object.
+     */
+    @Transactional
+    public UploadIntentResponse createUploadIntent(UploadIntentRequest request) throws IOException {
+        if (!directUploadConfig.isEnabled()) {
+            throw new IllegalArgumentException("Direct uploads are disabled");
+        }
+        Image image = reservePendingImage(request);
+        String cloudPath = image.getCloudPath();
+
+        Duration expiry = directUploadConfig.getUrlExpiry();
+        String uploadUrl = minioPresigner.presignUpload(image.getShard(), cloudPath, expiry);
+
+        log.info("Upload intent created: {} for user {}", image.getId(), request.getUserId());
+
+        return UploadIntentResponse.builder()
+                .imageId(image.getId().toString())
+                .cloudPath(cloudPath)
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .contentType(request.getContentType())
+                .expiresAt(LocalDateTime.now().plus(expiry))
+                .build();
+    }
+
+    /**
+     * Validates a declared upload and stores its PENDING row. Shared by
+     * presigned and resumable uploads, which both write the object before
+     * the service has seen its bytes.
+     */
+    @Transactional
+    public Image reservePendingImage(UploadIntentRequest request) {
+        validateUploadIntent(request);
+        imageJobQueue.checkCapacity();
+
+        String fileName = generateFileName(request.getFileName());
+        String cloudPath = buildDirectCloudPath(request.getUserId(), request.getEntityType(), fileName);
+
+        Image image = Image.builder()
+                .entityType(request.getEntityType())
+                .userId(request.getUserId())
+                .productId(request.getProductId())
+                .shard(minioService.shardFor(request.getUserId()))
+                .cloudPath(cloudPath)
+                .fileName(fileName)
+                .contentType(request.getContentType())
+                .sizeBytes(request.getSizeBytes())
+                .status(Image.Status.PENDING)
+                .build();
+        return imageRepository.save(image);
+    }
+
+    /**
+     * Second step of a direct upload: checks the object the client stored
+     * against what was declared in the intent, then activates the row.
+     * A rejected object is removed from storage but the intent stays pending,
+     * so the client may upload again while the URL is still valid.
+     */
+    @Transactional
+    public UploadResponse completeUpload(UUID id) throws IOException {
+        Image image = imageRepository.findPendingForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Pending upload not found: " + id));
+
+        StatObjectResponse stat = minioService.statFile(image.getShard(), image.getCloudPath())
+                .orElseThrow(() -> new IllegalArgumentException("No file has been uploaded for " + id));
+
+        ImageHeader header;
+        try {
+            verifyStoredObject(image, stat);
+            header = readStoredHeader(image, stat.size());
+            if (header == null) {
+                throw new IllegalArgumentException("File must be an image");
+            }
+            imageDecoder.checkDimensions(header);
+        } catch (IllegalArgumentException e) {
+            discardStoredObject(image);
+            throw e;
+        }
+
+        image.setStatus(Image.Status.ACTIVE);
+        image.setSizeBytes(stat.size());
+        image.setWidth(header.displayWidth());
+        image.setHeight(header.displayHeight());
+        // Pending uploads get their gallery position once they become visible
+        galleryService.placeNewImage(image);
+        image = imageRepository.save(image);
+        readYourWrites.recordImageWrite(image);
+        imageCache.evictAfterCommit(image);
+        enqueuePostProcessing(image);
+
+        log.info("Direct upload completed: {} for user {}", image.getFileName(), image.getUserId());
+
+        return UploadResponse.builder()
+                .imageId(image.getId().toString())
+                .fileName(image.getFileName())
+                .cloudPath(image.getCloudPath())
+                .url(minioService.getPresignedUrl(image.getShard(), image.getCloudPath()))
+                .sizeBytes(image.getSizeBytes())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .placeholder(image.getPlaceholder())
+                .message("Image uploaded successfully")
+                .build();
+    }
+
+    // Not transactional: the lookup may wait for a batch and must not hold a connection meanwhile
+    @Cacheable(cacheNames = ImageCacheConfig.IMAGES, sync = true)
     public ImageResponse getImageById(UUID id) {
-        Image image = imageRepository.findByIdAndDeletedAtIsNull(id)
+        Image image = imageLookup.findById(id)
                 .orElseThrow(() -> new RuntimeException("Image not found: " + id));
 
         return toImageResponse(image);
     }
 
+    @Cacheable(cacheNames = ImageCacheConfig.USER_IMAGE, sync = true,
+            key = "T(org.igdevx.imageservice.service.ImageMetadataCache).userKey(#userId, #entityType)")
     public ImageResponse getImageByUserAndType(String userId, Image.EntityType entityType) {
-        List<Image> images = imageRepository.findByUserIdAndEntityTypeAndDeletedAtIsNull(userId, entityType);
-        if (images.isEmpty()) {
-            return null;
-        }
-        return toImageResponse(images.get(0));
+        return imageLookup.findByUserAndType(userId, entityType)
+                .map(this::toImageResponse)
+                .orElse(null);
     }
 
+    @Cacheable(cacheNames = ImageCacheConfig.PRODUCT_IMAGE, sync = true)
     public ImageResponse getImageByProductId(String productId) {
-        return imageRepository.findByProductIdAndDeletedAtIsNull(productId)
+        return imageLookup.findByProductId(productId)
                 .map(this::toImageResponse)
                 .orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public List<ImageResponse> getAllImages() {
         return imageRepository.findByDeletedAtIsNull()
                 .stream()
@@ -92,18 +248,23 @@ public class ImageService {
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = ImageCacheConfig.USER_IMAGES, sync = true)
+    @Transactional(readOnly = true)
     public List<ImageResponse> getImagesByUser(String userId) {
+        readYourWrites.readUser(userId);
         return imageRepository.findByUserIdAndDeletedAtIsNull(userId)
                 .stream()
                 .map(this::toImageResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public InputStream downloadImage(UUID id) throws IOException {
+        readYourWrites.readImage(id);
         Image image = imageRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new RuntimeException("Image not found: " + id));
 
-        return minioService.downloadFile(image.getCloudPath());
+        return minioService.downloadFile(image.getShard(), image.getCloudPath());
     }
 
     @Transactional
@@ -113,51 +274,90 @@ public class ImageService {
 
         image.setDeletedAt(LocalDateTime.now());
         imageRepository.save(image);
+        galleryService.onImageRemoved(image);
+        readYourWrites.recordImageWrite(image);
+        imageCache.evictAfterCommit(image);
 
         try {
-            minioService.deleteFile(image.getCloudPath());
+            minioService.deleteFile(image.getShard(), image.getCloudPath());
             log.info("Image deleted: {}", id);
         } catch (IOException e) {
             log.error("Error deleting file from MinIO, but marked as deleted in DB", e);
         }
     }
 
+    /**
+     * Deletes the whole gallery of a product.
+     */
     @Transactional
     public void deleteImageByProductId(String productId) throws IOException {
-        imageRepository.findByProductIdAndDeletedAtIsNull(productId).ifPresent(image -> {
+        imageRepository.findByProductIdAndDeletedAtIsNull(productId).forEach(image -> {
             image.setDeletedAt(LocalDateTime.now());
             imageRepository.save(image);
+            readYourWrites.recordImageWrite(image);
+            imageCache.evictAfterCommit(image);
 
             try {
-                minioService.deleteFile(image.getCloudPath());
-                log.info("Product image deleted: {}", productId);
+                minioService.deleteFile(image.getShard(), image.getCloudPath());
+                log.info("Product image deleted: {} of product {}", image.getId(), productId);
             } catch (IOException e) {
                 log.error("Error deleting product image {} from MinIO", image.getCloudPath(), e);
             }
         });
     }
 
-    @Transactional
+    /**
+     * Soft-deletes every image of a user in batches of set-based updates and
+     * removes exactly the returned objects with multi-object deletes, so time
+     * and memory stay bounded whatever the number of images. Each batch
+     * commits on its own, so its rows are not held locked until the whole
+     * purge ends, and its objects are only removed once it has committed.
+     */
     public void deleteAllUserImages(String userId) throws IOException {
-        List<Image> images = imageRepository.findByUserIdAndDeletedAtIsNull(userId);
-
-        for (Image image : images) {
-            image.setDeletedAt(LocalDateTime.now());
-        }
-        imageRepository.saveAll(images);
-
+        LocalDateTime deletedAt = LocalDateTime.now();
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readYourWrites.recordUserWrite(userId);
+
+        int deleted = 0;
+        int failedBatches = 0;
+        List<ImageRepository.StoredObject> batch;
         try {
-            String userProfilePath = String.format("users/%s/", userId);
-            String userProductPath = String.format("products/%s/", userId);
-
-            minioService.deleteFolder(userProfilePath);
-            minioService.deleteFolder(userProductPath);
+            do {
+                batch = batchTransaction.execute(status -> {
+                    List<ImageRepository.StoredObject> objects =
+                            imageRepository.softDeleteUserBatch(userId, deletedAt, PURGE_BATCH_SIZE);
+                    for (ImageRepository.StoredObject object : objects) {
+                        readYourWrites.recordImageWrite(object.getId(), userId, object.getProductId());
+                    }
+                    return objects;
+                });
+                deleted += batch.size();
+
+                // Until a rebalance finishes, a user's objects may sit on more than one shard
+                Map<String, List<String>> pathsByShard = new LinkedHashMap<>();
+                for (ImageRepository.StoredObject object : batch) {
+                    imageCache.evictAfterCommit(object.getId(), null, object.getProductId());
+                    pathsByShard.computeIfAbsent(object.getShard(), shard -> new ArrayList<>()).add(object.getCloudPath());
+                }
+                for (Map.Entry<String, List<String>> entry : pathsByShard.entrySet()) {
+                    try {
+                        minioService.deleteFiles(entry.getKey(), entry.getValue());
+                    } catch (IOException e) {
+                        log.error("Error deleting images of user {} from MinIO shard {}", userId, entry.getKey(), e);
+                        failedBatches++;
+                    }
+                }
+            } while (batch.size() == PURGE_BATCH_SIZE);
+        } finally {
+            // Also after a failed batch: the ones before it are committed
+            imageCache.evictAfterCommit(null, userId, null);
+        }
 
-            log.info("All images deleted for user: {}", userId);
-        } catch (Exception e) {
-            log.error("Error deleting user images from MinIO: {}", userId, e);
-            throw new IOException("User images deletion failed", e);
+        if (failedBatches > 0) {
+            throw new IOException("User images deletion failed");
         }
+        log.info("All images deleted for user: {} ({} images)", userId, deleted);
     }
 
     private void validateImageFile(MultipartFile file) {
@@ -175,6 +375,79 @@ public class ImageService {
         }
     }
 
+    private void validateUploadIntent(UploadIntentRequest request) {
+        if (request.getEntityType() == null) {
+            throw new IllegalArgumentException("Entity type is required");
+        }
+        if (request.getUserId() == null || request.getUserId().isBlank()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (request.getSizeBytes() == null || request.getSizeBytes() <= 0) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("File must be an image");
+        }
+
+        if (request.getSizeBytes() > directUploadConfig.getMaxSizeBytes()) {
+            throw new IllegalArgumentException(
+                    "File size must not exceed " + directUploadConfig.getMaxSizeBytes() / (1024 * 1024) + " MB");
+        }
+    }
+
+    private void verifyStoredObject(Image image, StatObjectResponse stat) {
+        // A presigned PUT cannot cap the body size, so the declared size is enforced here
+        if (stat.size() != image.getSizeBytes()) {
+            throw new IllegalArgumentException(
+                    "Uploaded size " + stat.size() + " does not match declared size " + image.getSizeBytes());
+        }
+        if (!image.getContentType().equals(stat.contentType())) {
+            throw new IllegalArgumentException(
+                    "Uploaded content type " + stat.contentType() + " does not match declared type " + image.getContentType());
+        }
+    }
+
+    private ImageHeader readStoredHeader(Image image, long size) throws IOException {
+        long length = Math.min(size, directUploadConfig.getHeaderBytes());
+        try (InputStream inputStream = minioService.downloadRange(image.getShard(), image.getCloudPath(), 0, length)) {
+            return imageHeaderReader.read(inputStream).orElse(null);
+        }
+    }
+
+    private void discardStoredObject(Image image) {
+        try {
+            minioService.deleteFile(image.getShard(), image.getCloudPath());
+        } catch (IOException e) {
+            // Garbage collection of the pending row removes it later
+            log.warn("Unable to remove rejected direct upload {}: {}", image.getCloudPath(), e.getMessage());
+        }
+    }
+
+    private ImageHeader readHeader(MultipartFile file) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return imageHeaderReader.read(inputStream).orElse(null);
+        } catch (IOException e) {
+            log.warn("Unable to read image header for {}: {}", file.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void enqueuePostProcessing(Image image) {
+        if (image.getWidth() == null) {
+            // Unrecognized container, nothing the decoder could work with
+            return;
+        }
+        // Placeholders and re-encoding run on the job workers, not the request thread
+        if (imagePlaceholderService.isEnabled()) {
+            imageJobQueue.enqueue(image, ImageJob.JobType.PLACEHOLDER);
+        }
+        if (imageOptimizer.isEnabled(image.getEntityType())) {
+            imageJobQueue.enqueue(image, ImageJob.JobType.OPTIMIZE);
+        }
+    }
+
     private String generateFileName(String originalFilename) {
         String extension = "";
         if (originalFilename != null && originalFilename.contains(".")) {
@@ -191,6 +464,18 @@ public class ImageService {
         };
     }
 
+    /**
+     * Direct uploads never write to the fixed profile/banner paths: the object
+     * is unverified until completion and must not overwrite the live image.
+     */
+    private String buildDirectCloudPath(String userId, Image.EntityType entityType, String fileName) {
+        return switch (entityType) {
+            case USER_PROFILE -> String.format("users/%s/profile-%s", userId, fileName);
+            case USER_BANNER -> String.format("users/%s/banner-%s", userId, fileName);
+            case PRODUCT -> buildCloudPath(userId, entityType, fileName);
+        };
+    }
+
     private String getExtension(String fileName) {
         if (fileName != null && fileName.contains(".")) {
             return fileName.substring(fileName.lastIndexOf("."));
@@ -208,8 +493,11 @@ public class ImageService {
                 .fileName(image.getFileName())
                 .contentType(image.getContentType())
                 .sizeBytes(image.getSizeBytes())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .placeholder(image.getPlaceholder())
                 .uploadedAt(image.getUploadedAt())
-                .url(minioService.getPresignedUrl(image.getCloudPath()))
+                .url(minioService.getPresignedUrl(image.getShard(), image.getCloudPath()))
                 .build();
     }
 }
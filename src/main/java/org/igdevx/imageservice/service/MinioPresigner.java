@@ -0,0 +1,40 @@
+package org.igdevx.imageservice.service;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.http.Method;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues presigned URLs that let clients write objects straight to MinIO,
+ * without the bytes going through this service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MinioPresigner {
+
+    private final StorageShardRegistry shards;
+
+    public String presignUpload(String shardName, String cloudPath, Duration expiry) throws IOException {
+        StorageShard shard = shards.get(shardName);
+        try {
+            return shard.presignClient().getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.PUT)
+                            .bucket(shard.bucket())
+                            .object(cloudPath)
+                            .expiry((int) expiry.toSeconds(), TimeUnit.SECONDS)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Error presigning upload URL: {}", cloudPath, e);
+            throw new IOException("Error presigning MinIO upload URL", e);
+        }
+    }
+}
@@ -1,55 +1,141 @@
 package org.igdevx.imageservice.service;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.igdevx.imageservice.config.MinioConfig;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Object storage access. Every operation takes the shard recorded on the
+ * image (null for the primary); reads and writes go through separately tuned
+ * HTTP pools (see MinioConfig.Transport). The overloads without a shard act
+ * on the primary.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MinioService {
 
-    private final MinioClient minioClient;
-    private final MinioConfig minioConfig;
+    // Written once a bucket is set up; holds the hash of the applied policy
+    private static final String INIT_MARKER = ".image-service/initialized";
+    private static final String POLICY_HASH_METADATA = "policy-sha256";
+    // Set on objects replaced by their re-encoded version, so they are never re-encoded twice
+    public static final String OPTIMIZED_METADATA = "optimized";
 
-    public void ensureBucketExists() {
+    private final StorageShardRegistry shards;
+    private final ParallelMultipartUploader multipartUploader;
+
+    /**
+     * Shard that new objects of this user are written to.
+     */
+    public String shardFor(String userId) {
+        return shards.route(userId).name();
+    }
+
+    /**
+     * Creates the shard's bucket if needed and makes it publicly readable.
+     * A marker object records the policy that was applied, so instances
+     * booting against an initialized bucket only read it.
+     */
+    public void ensureBucketExists(String shardName) {
+        StorageShard shard = shards.get(shardName);
+        String policy = publicReadPolicy(shard.bucket());
+        String policyHash = sha256(policy);
         try {
-            boolean found = minioClient.bucketExists(
+            boolean found = shard.readClient().bucketExists(
                     BucketExistsArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .build()
             );
 
             if (!found) {
-                minioClient.makeBucket(
+                shard.writeClient().makeBucket(
                         MakeBucketArgs.builder()
-                                .bucket(minioConfig.getBucketName())
+                                .bucket(shard.bucket())
                                 .build()
                 );
-                log.info("Bucket created: {}", minioConfig.getBucketName());
-                setBucketPublicReadPolicy();
-            } else {
-                setBucketPublicReadPolicy();
+                log.info("Bucket created: {} on shard {}", shard.bucket(), shard.name());
+            } else if (policyHash.equals(appliedPolicyHash(shard))) {
+                log.info("Bucket {} on shard {} already initialized", shard.bucket(), shard.name());
+                return;
+            }
+
+            if (setBucketPublicReadPolicy(shard, policy)) {
+                writeInitMarker(shard, policyHash);
             }
         } catch (Exception e) {
-            log.error("Error while checking/creating bucket", e);
+            log.error("Error while checking/creating bucket on shard {}", shard.name(), e);
             throw new RuntimeException("Unable to create bucket", e);
         }
     }
 
+    private String appliedPolicyHash(StorageShard shard) throws Exception {
+        try {
+            StatObjectResponse marker = shard.readClient().statObject(
+                    StatObjectArgs.builder()
+                            .bucket(shard.bucket())
+                            .object(INIT_MARKER)
+                            .build()
+            );
+            return marker.userMetadata().get(POLICY_HASH_METADATA);
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private void writeInitMarker(StorageShard shard, String policyHash) {
+        try {
+            shard.writeClient().putObject(
+                    PutObjectArgs.builder()
+                            .bucket(shard.bucket())
+                            .object(INIT_MARKER)
+                            .stream(new ByteArrayInputStream(new byte[0]), 0, -1)
+                            .userMetadata(Map.of(POLICY_HASH_METADATA, policyHash))
+                            .build()
+            );
+        } catch (Exception e) {
+            // Only costs re-applying the policy on the next boot
+            log.warn("Unable to record initialization of bucket {}: {}", shard.bucket(), e.getMessage());
+        }
+    }
+
     public String uploadFile(MultipartFile file, String cloudPath) throws IOException {
+        return uploadFile(null, file, cloudPath);
+    }
+
+    public String uploadFile(String shardName, MultipartFile file, String cloudPath) throws IOException {
+        StorageShard shard = shards.get(shardName);
+        if (multipartUploader.accepts(file.getSize())) {
+            try (InputStream inputStream = file.getInputStream()) {
+                multipartUploader.upload(shard, inputStream, file.getSize(), cloudPath, file.getContentType());
+            }
+            return cloudPath;
+        }
+
         try {
-            minioClient.putObject(
+            shard.writeClient().putObject(
                     PutObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .object(cloudPath)
                             .stream(file.getInputStream(), file.getSize(), -1)
                             .contentType(file.getContentType())
@@ -65,18 +151,25 @@ public class MinioService {
         }
     }
 
-    public void uploadBytes(byte[] data, String cloudPath, String contentType) throws IOException {
+    public void uploadBytes(String shardName, byte[] data, String cloudPath, String contentType) throws IOException {
+        uploadBytes(shardName, data, cloudPath, contentType, Map.of());
+    }
+
+    public void uploadBytes(String shardName, byte[] data, String cloudPath, String contentType,
+                            Map<String, String> userMetadata) throws IOException {
+        StorageShard shard = shards.get(shardName);
         try {
-            minioClient.putObject(
+            shard.writeClient().putObject(
                     PutObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .object(cloudPath)
                             .stream(new ByteArrayInputStream(data), data.length, -1)
                             .contentType(contentType)
+                            .userMetadata(userMetadata)
                             .build()
             );
 
-            log.info("Data uploaded: {}", cloudPath);
+            log.debug("Data uploaded: {}", cloudPath);
 
         } catch (Exception e) {
             log.error("Error uploading data: {}", cloudPath, e);
@@ -84,11 +177,80 @@ public class MinioService {
         }
     }
 
+    /**
+     * Overwrites an object only while it still carries {@code expectedETag}.
+     * Returns the ETag of the written object, or empty when the server
+     * rejected the write because the object changed in the meantime. Servers
+     * without conditional writes ignore the If-Match header, so callers check
+     * the ETag around the write as well.
+     */
+    public Optional<String> replaceBytes(String shardName, byte[] data, String cloudPath, String contentType,
+                                         Map<String, String> userMetadata, String expectedETag) throws IOException {
+        StorageShard shard = shards.get(shardName);
+        try {
+            ObjectWriteResponse response = shard.writeClient().putObject(
+                    PutObjectArgs.builder()
+                            .bucket(shard.bucket())
+                            .object(cloudPath)
+                            .stream(new ByteArrayInputStream(data), data.length, -1)
+                            .contentType(contentType)
+                            .userMetadata(userMetadata)
+                            .extraHeaders(Map.of("If-Match", "\"" + expectedETag + "\""))
+                            .build()
+            );
+
+            log.debug("Data replaced: {}", cloudPath);
+            return Optional.of(response.etag());
+
+        } catch (ErrorResponseException e) {
+            if ("PreconditionFailed".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Error replacing data: {}", cloudPath, e);
+            throw new IOException("Error uploading to MinIO", e);
+        } catch (Exception e) {
+            log.error("Error replacing data: {}", cloudPath, e);
+            throw new IOException("Error uploading to MinIO", e);
+        }
+    }
+
+    /**
+     * Streams an object from one shard to another under the same path. The
+     * shards are usually different clusters, so no server-side copy is used.
+     */
+    public void copyBetweenShards(String fromShard, String toShard, String cloudPath) throws IOException {
+        StatObjectResponse stat = statFile(fromShard, cloudPath)
+                .orElseThrow(() -> new IOException("Object not found on shard " + fromShard + ": " + cloudPath));
+        StorageShard target = shards.get(toShard);
+
+        try (InputStream inputStream = downloadFile(fromShard, cloudPath)) {
+            target.writeClient().putObject(
+                    PutObjectArgs.builder()
+                            .bucket(target.bucket())
+                            .object(cloudPath)
+                            .stream(inputStream, stat.size(), -1)
+                            .contentType(stat.contentType())
+                            .userMetadata(stat.userMetadata())
+                            .build()
+            );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error copying {} from shard {} to {}", cloudPath, fromShard, toShard, e);
+            throw new IOException("Error copying between MinIO shards", e);
+        }
+    }
+
     public InputStream downloadFile(String cloudPath) throws IOException {
+        return downloadFile(null, cloudPath);
+    }
+
+    public InputStream downloadFile(String shardName, String cloudPath) throws IOException {
+        StorageShard shard = shards.get(shardName);
         try {
-            return minioClient.getObject(
+            return shard.readClient().getObject(
                     GetObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .object(cloudPath)
                             .build()
             );
@@ -98,11 +260,58 @@ public class MinioService {
         }
     }
 
+    public InputStream downloadRange(String shardName, String cloudPath, long offset, long length) throws IOException {
+        StorageShard shard = shards.get(shardName);
+        try {
+            return shard.readClient().getObject(
+                    GetObjectArgs.builder()
+                            .bucket(shard.bucket())
+                            .object(cloudPath)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Error downloading range of file: {}", cloudPath, e);
+            throw new IOException("Error downloading from MinIO", e);
+        }
+    }
+
+    /**
+     * Returns the stored object's metadata, or empty when no object exists at
+     * this path.
+     */
+    public Optional<StatObjectResponse> statFile(String shardName, String cloudPath) throws IOException {
+        StorageShard shard = shards.get(shardName);
+        try {
+            return Optional.of(shard.readClient().statObject(
+                    StatObjectArgs.builder()
+                            .bucket(shard.bucket())
+                            .object(cloudPath)
+                            .build()
+            ));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Error reading file metadata: {}", cloudPath, e);
+            throw new IOException("Error reading metadata from MinIO", e);
+        } catch (Exception e) {
+            log.error("Error reading file metadata: {}", cloudPath, e);
+            throw new IOException("Error reading metadata from MinIO", e);
+        }
+    }
+
     public void deleteFile(String cloudPath) throws IOException {
+        deleteFile(null, cloudPath);
+    }
+
+    public void deleteFile(String shardName, String cloudPath) throws IOException {
+        StorageShard shard = shards.get(shardName);
         try {
-            minioClient.removeObject(
+            shard.writeClient().removeObject(
                     RemoveObjectArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .object(cloudPath)
                             .build()
             );
@@ -115,50 +324,106 @@ public class MinioService {
         }
     }
 
+    /**
+     * Removes the given objects with multi-object delete requests, which the
+     * client splits into batches of 1000 keys. Missing keys are not errors.
+     */
+    public void deleteFiles(String shardName, Collection<String> cloudPaths) throws IOException {
+        if (cloudPaths.isEmpty()) {
+            return;
+        }
+        StorageShard shard = shards.get(shardName);
+        List<DeleteObject> objects = cloudPaths.stream().map(DeleteObject::new).toList();
+        int failures = 0;
+        try {
+            // The request is only sent while the results are iterated
+            Iterable<Result<DeleteError>> results = shard.writeClient().removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(shard.bucket())
+                            .objects(objects)
+                            .build()
+            );
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                log.error("Error deleting file {}: {}", error.objectName(), error.message());
+                failures++;
+            }
+        } catch (Exception e) {
+            log.error("Error deleting {} file(s) from MinIO", cloudPaths.size(), e);
+            throw new IOException("Error deleting from MinIO", e);
+        }
+
+        if (failures > 0) {
+            throw new IOException(failures + " of " + cloudPaths.size() + " file(s) could not be deleted from MinIO");
+        }
+        log.info("{} file(s) deleted", cloudPaths.size());
+    }
+
     public String getPresignedUrl(String cloudPath) {
-        String publicUrl = minioConfig.getPublicUrl();
-        String bucketName = minioConfig.getBucketName();
-        String fullUrl = String.format("%s/%s/%s", publicUrl, bucketName, cloudPath);
+        return getPresignedUrl(null, cloudPath);
+    }
+
+    public String getPresignedUrl(String shardName, String cloudPath) {
+        StorageShard shard = shards.get(shardName);
+        String fullUrl = String.format("%s/%s/%s", shard.publicUrl(), shard.bucket(), cloudPath);
 
         log.debug("Public URL generated: {}", fullUrl);
         return fullUrl;
     }
 
-    public void setBucketPublicReadPolicy() {
+    private boolean setBucketPublicReadPolicy(StorageShard shard, String policy) {
         try {
-            String policy = String.format("""
-                {
-                  "Version": "2012-10-17",
-                  "Statement": [
-                    {
-                      "Effect": "Allow",
-                      "Principal": {"AWS": ["*"]},
-                      "Action": ["s3:GetObject"],
-                      "Resource": ["arn:aws:s3:::%s/*"]
-                    }
-                  ]
-                }
-                """, minioConfig.getBucketName());
-
-            minioClient.setBucketPolicy(
+            shard.writeClient().setBucketPolicy(
                 SetBucketPolicyArgs.builder()
-                    .bucket(minioConfig.getBucketName())
+                    .bucket(shard.bucket())
                     .config(policy)
                     .build()
             );
 
-            log.info("Bucket {} configured in public mode (read-only)", minioConfig.getBucketName());
+            log.info("Bucket {} configured in public mode (read-only)", shard.bucket());
+            return true;
 
         } catch (Exception e) {
             log.warn("Unable to configure bucket as public. Configure it manually via MinIO Console.", e);
+            return false;
+        }
+    }
+
+    private static String publicReadPolicy(String bucket) {
+        return String.format("""
+            {
+              "Version": "2012-10-17",
+              "Statement": [
+                {
+                  "Effect": "Allow",
+                  "Principal": {"AWS": ["*"]},
+                  "Action": ["s3:GetObject"],
+                  "Resource": ["arn:aws:s3:::%s/*"]
+                }
+              ]
+            }
+            """, bucket);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
     public void deleteFolder(String folderPath) throws IOException {
+        deleteFolder(null, folderPath);
+    }
+
+    public void deleteFolder(String shardName, String folderPath) throws IOException {
+        StorageShard shard = shards.get(shardName);
         try {
-            Iterable<Result<Item>> results = minioClient.listObjects(
+            Iterable<Result<Item>> results = shard.readClient().listObjects(
                     ListObjectsArgs.builder()
-                            .bucket(minioConfig.getBucketName())
+                            .bucket(shard.bucket())
                             .prefix(folderPath)
                             .recursive(true)
                             .build()
@@ -166,9 +431,9 @@ public class MinioService {
 
             for (Result<Item> result : results) {
                 Item item = result.get();
-                minioClient.removeObject(
+                shard.writeClient().removeObject(
                         RemoveObjectArgs.builder()
-                                .bucket(minioConfig.getBucketName())
+                                .bucket(shard.bucket())
                                 .object(item.objectName())
                                 .build()
                 );
@@ -183,4 +448,3 @@ public class MinioService {
         }
     }
 }
-
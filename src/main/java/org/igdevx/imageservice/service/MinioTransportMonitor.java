@@ -0,0 +1,154 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes connection-pool and dispatcher gauges for the read and write
+ * MinIO transports, and pre-opens connections once storage is ready so the
+ * first requests do not pay for TCP and TLS handshakes. The warm-up runs in
+ * the background and never delays readiness.
+ */
+@Component
+@Slf4j
+public class MinioTransportMonitor {
+
+    private final OkHttpClient readClient;
+    private final OkHttpClient writeClient;
+    private final MinioConfig minioConfig;
+    private final StorageShardRegistry shards;
+    private final MinioInitializer minioInitializer;
+
+    public MinioTransportMonitor(
+            @Qualifier("minioReadHttpClient") OkHttpClient readClient,
+            @Qualifier("minioWriteHttpClient") OkHttpClient writeClient,
+            MinioConfig minioConfig,
+            StorageShardRegistry shards,
+            MinioInitializer minioInitializer,
+            MeterRegistry meterRegistry
+    ) {
+        this.readClient = readClient;
+        this.writeClient = writeClient;
+        this.minioConfig = minioConfig;
+        this.shards = shards;
+        this.minioInitializer = minioInitializer;
+
+        registerGauges(meterRegistry, "read", readClient);
+        registerGauges(meterRegistry, "write", writeClient);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpWhenStorageReady() {
+        minioInitializer.whenReady().thenRun(this::warmUp);
+    }
+
+    /**
+     * Sends the warm-up probes without waiting for them.
+     *
+     * @return completes once every probe has been answered or has failed
+     */
+    public CompletableFuture<Void> warmUp() {
+        // Shards may share a MinIO deployment, whose connections are pooled only once
+        Set<String> endpoints = new LinkedHashSet<>();
+        for (StorageShard shard : shards.all()) {
+            endpoints.add(shard.endpoint());
+        }
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            probes.add(warmUp("read", readClient, endpoint, minioConfig.getTransport().getRead()));
+            probes.add(warmUp("write", writeClient, endpoint, minioConfig.getTransport().getWrite()));
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new));
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry, String pool, OkHttpClient client) {
+        Gauge.builder("minio.http.connections.active", client,
+                        c -> c.connectionPool().connectionCount() - c.connectionPool().idleConnectionCount())
+                .description("Pooled MinIO connections currently carrying a request")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("minio.http.connections.idle", client, c -> c.connectionPool().idleConnectionCount())
+                .description("Pooled MinIO connections kept alive for reuse")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("minio.http.calls.running", client, c -> c.dispatcher().runningCallsCount())
+                .description("MinIO calls being executed")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("minio.http.calls.queued", client, c -> c.dispatcher().queuedCallsCount())
+                .description("MinIO calls waiting for a dispatcher slot")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends concurrent liveness probes: each in-flight call needs its own
+     * connection, and once answered the connection stays idle in the pool.
+     */
+    private CompletableFuture<Void> warmUp(String pool, OkHttpClient client, String endpoint,
+                                           MinioConfig.Pool settings) {
+        int connections = Math.min(settings.getWarmupConnections(), settings.getMaxIdleConnections());
+        if (connections <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Request probe = new Request.Builder()
+                .url(endpoint + "/minio/health/live")
+                .head()
+                .build();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(connections);
+        AtomicInteger failures = new AtomicInteger();
+        Runnable answered = () -> {
+            if (remaining.decrementAndGet() > 0) {
+                return;
+            }
+            if (failures.get() > 0) {
+                log.warn("MinIO {} pool warm-up of {}: {} of {} connection(s) failed",
+                        pool, endpoint, failures.get(), connections);
+            } else {
+                log.info("MinIO {} pool warmed up for {}: {} idle connection(s)",
+                        pool, endpoint, client.connectionPool().idleConnectionCount());
+            }
+            done.complete(null);
+        };
+
+        for (int i = 0; i < connections; i++) {
+            client.newCall(probe).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    answered.run();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    failures.incrementAndGet();
+                    answered.run();
+                }
+            });
+        }
+
+        return done;
+    }
+}
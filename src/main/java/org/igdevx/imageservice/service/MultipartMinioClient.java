@@ -0,0 +1,70 @@
+package org.igdevx.imageservice.service;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Exposes the S3 multipart primitives that MinioAsyncClient only makes
+ * available to subclasses, so that parts can be uploaded concurrently and the
+ * upload completed or aborted explicitly.
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public String createMultipartUpload(String bucket, String region, String object, String contentType) throws IOException {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null) {
+            headers.put("Content-Type", contentType);
+        }
+        try {
+            return createMultipartUploadAsync(bucket, region, object, headers, null).get().result().uploadId();
+        } catch (Exception e) {
+            throw asIOException("Unable to start multipart upload of " + object, e);
+        }
+    }
+
+    public Part uploadPart(String bucket, String region, String object, String uploadId, int partNumber, byte[] data, int length)
+            throws IOException {
+        try {
+            String etag = uploadPartAsync(bucket, region, object, data, length, uploadId, partNumber, null, null)
+                    .get()
+                    .etag();
+            return new Part(partNumber, etag);
+        } catch (Exception e) {
+            throw asIOException("Unable to upload part " + partNumber + " of " + object, e);
+        }
+    }
+
+    public void completeMultipartUpload(String bucket, String region, String object, String uploadId, Part[] parts)
+            throws IOException {
+        try {
+            completeMultipartUploadAsync(bucket, region, object, uploadId, parts, null, null).get();
+        } catch (Exception e) {
+            throw asIOException("Unable to complete multipart upload of " + object, e);
+        }
+    }
+
+    public void abortMultipartUpload(String bucket, String region, String object, String uploadId) throws IOException {
+        try {
+            abortMultipartUploadAsync(bucket, region, object, uploadId, null, null).get();
+        } catch (Exception e) {
+            throw asIOException("Unable to abort multipart upload of " + object, e);
+        }
+    }
+
+    private static IOException asIOException(String message, Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        return new IOException(message, cause);
+    }
+}
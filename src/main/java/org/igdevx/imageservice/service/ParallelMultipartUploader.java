@@ -0,0 +1,143 @@
+package org.igdevx.imageservice.service;
+
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Uploads large objects as S3 multipart uploads with several parts in flight.
+ * The stream is read sequentially into part buffers; at most
+ * {@code minio.upload.parallelism} buffers exist per upload, so memory stays at
+ * parallelism x part size. The object only becomes visible when every part
+ * succeeded; any failure aborts the multipart upload.
+ */
+@Component
+@Slf4j
+public class ParallelMultipartUploader {
+
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final MinioConfig minioConfig;
+    private final ThreadPoolTaskExecutor executor;
+
+    public ParallelMultipartUploader(
+            MinioConfig minioConfig,
+            @Qualifier("minioUploadExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        this.minioConfig = minioConfig;
+        this.executor = executor;
+    }
+
+    public boolean accepts(long size) {
+        return size >= minioConfig.getUpload().getMultipartThreshold();
+    }
+
+    public void upload(StorageShard shard, InputStream inputStream, long size, String cloudPath, String contentType)
+            throws IOException {
+        MultipartMinioClient multipartClient = shard.multipartClient();
+        String bucket = shard.bucket();
+        String region = shard.region();
+        int partSize = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_PART_SIZE, minioConfig.getUpload().getPartSize()));
+        Semaphore inFlight = new Semaphore(Math.max(1, minioConfig.getUpload().getParallelism()));
+
+        String uploadId = multipartClient.createMultipartUpload(bucket, region, cloudPath, contentType);
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+
+        try {
+            long remaining = size;
+            int partNumber = 1;
+            while (remaining > 0) {
+                int length = (int) Math.min(partSize, remaining);
+                byte[] buffer = inputStream.readNBytes(length);
+                if (buffer.length != length) {
+                    throw new IOException("Stream ended after " + (size - remaining + buffer.length) + " of " + size + " bytes");
+                }
+
+                acquire(inFlight);
+                int number = partNumber;
+                CompletableFuture<Part> part;
+                try {
+                    part = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return multipartClient.uploadPart(bucket, region, cloudPath, uploadId, number, buffer, length);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor);
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                part.whenComplete((result, error) -> inFlight.release());
+                parts.add(part);
+
+                // Stop reading as soon as a part failed instead of finishing the stream
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+
+                remaining -= length;
+                partNumber++;
+            }
+
+            Part[] uploaded = join(parts);
+            multipartClient.completeMultipartUpload(bucket, region, cloudPath, uploadId, uploaded);
+            log.info("Multipart upload completed: {} ({} parts, {} bytes)", cloudPath, uploaded.length, size);
+
+        } catch (IOException | RuntimeException e) {
+            abortQuietly(multipartClient, bucket, region, cloudPath, uploadId, parts);
+            throw e instanceof IOException io ? io : new IOException("Multipart upload of " + cloudPath + " failed", e);
+        }
+    }
+
+    private Part[] join(List<CompletableFuture<Part>> parts) throws IOException {
+        try {
+            return parts.stream()
+                    .map(CompletableFuture::join)
+                    .sorted(Comparator.comparingInt(Part::partNumber))
+                    .toArray(Part[]::new);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof IOException io ? io : new IOException(cause);
+        }
+    }
+
+    private void abortQuietly(MultipartMinioClient multipartClient, String bucket, String region, String cloudPath,
+                              String uploadId, List<CompletableFuture<Part>> parts) {
+        // Wait for in-flight parts so none is written after the abort
+        for (CompletableFuture<Part> part : parts) {
+            try {
+                part.join();
+            } catch (RuntimeException ignored) {
+                // already reported by the caller
+            }
+        }
+        try {
+            multipartClient.abortMultipartUpload(bucket, region, cloudPath, uploadId);
+            log.warn("Multipart upload aborted: {}", cloudPath);
+        } catch (IOException e) {
+            log.error("Unable to abort multipart upload {} of {}", uploadId, cloudPath, e);
+        }
+    }
+
+    private void acquire(Semaphore semaphore) throws IOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an upload slot", e);
+        }
+    }
+}
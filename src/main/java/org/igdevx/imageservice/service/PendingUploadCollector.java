@@ -0,0 +1,65 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.DirectUploadConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Removes direct-upload intents that were never completed, together with any
+ * object the client may have stored for them. Rows are claimed with
+ * SKIP LOCKED so several nodes can collect concurrently, and a row whose
+ * object could not be removed is kept for the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingUploadCollector {
+
+    private final ImageRepository imageRepository;
+    private final MinioService minioService;
+    private final DirectUploadConfig directUploadConfig;
+
+    @Scheduled(fixedDelayString = "${upload.direct.gc-interval-ms:300000}")
+    @Transactional
+    public void collectExpired() {
+        // Never collect while the presigned URL can still be used to write the object
+        Duration ttl = directUploadConfig.getPendingTtl();
+        if (ttl.compareTo(directUploadConfig.getUrlExpiry()) < 0) {
+            ttl = directUploadConfig.getUrlExpiry();
+        }
+
+        List<Image> expired = imageRepository.lockExpiredPending(
+                LocalDateTime.now().minus(ttl), directUploadConfig.getGcBatchSize());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<UUID> removable = new ArrayList<>(expired.size());
+        for (Image image : expired) {
+            try {
+                // Removing a missing key succeeds, so intents without an upload are covered
+                minioService.deleteFile(image.getShard(), image.getCloudPath());
+                removable.add(image.getId());
+            } catch (IOException e) {
+                log.warn("Unable to remove abandoned upload {}, retrying later: {}", image.getCloudPath(), e.getMessage());
+            }
+        }
+
+        if (!removable.isEmpty()) {
+            int deleted = imageRepository.deletePending(removable);
+            log.info("Garbage-collected {} abandoned direct upload(s)", deleted);
+        }
+    }
+}
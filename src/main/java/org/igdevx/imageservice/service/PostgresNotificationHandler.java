@@ -0,0 +1,18 @@
+package org.igdevx.imageservice.service;
+
+/**
+ * Receives the Postgres notifications of one channel through
+ * {@link PostgresNotificationListener}.
+ */
+public interface PostgresNotificationHandler {
+
+    String channel();
+
+    void onNotification(String payload);
+
+    /**
+     * Called each time the LISTEN connection is (re)opened. Notifications sent
+     * while nobody was listening are lost, so handlers resynchronize here.
+     */
+    void onListening();
+}
@@ -0,0 +1,133 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Holds one LISTEN connection to the primary for every channel a
+ * {@link PostgresNotificationHandler} subscribes to, and dispatches each
+ * notification to its handlers. The connection is opened outside the pool so
+ * it never takes a slot from request traffic; after it was lost, handlers are
+ * told to resynchronize once it is back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresNotificationListener implements SmartLifecycle {
+
+    // Idle connections are checked with a round trip this often
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final List<PostgresNotificationHandler> handlers;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "pg-notification-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listenConnection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                connection = listenConnection;
+                try (Statement statement = listenConnection.createStatement()) {
+                    for (String channel : handlers.stream().map(PostgresNotificationHandler::channel).distinct().toList()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                handlers.forEach(PostgresNotificationHandler::onListening);
+                log.info("Listening for Postgres notifications on {} channel(s)", handlers.size());
+
+                PGConnection pgConnection = listenConnection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null || notifications.length == 0) {
+                        // Nothing received; make sure the connection is still alive
+                        try (Statement statement = listenConnection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Postgres notification channel lost, reconnecting in {}s: {}",
+                        RECONNECT_DELAY.toSeconds(), e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        for (PostgresNotificationHandler handler : handlers) {
+            if (!handler.channel().equals(notification.getName())) {
+                continue;
+            }
+            try {
+                handler.onNotification(notification.getParameter());
+            } catch (RuntimeException e) {
+                log.error("Error handling notification on {}", notification.getName(), e);
+            }
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Error closing the notification connection", e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.dto.GalleryImageResponse;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ordered image galleries of products. Positions are spaced by
+ * {@link #POSITION_GAP}: a new image goes after the last one, and a moved
+ * image takes a position between its new neighbours, so neither rewrites
+ * the other rows. One image per gallery is primary; it is the one returned
+ * by lookups of a product's image. Changes to a gallery are serialized per
+ * product.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductGalleryService {
+
+    public static final long POSITION_GAP = 1024;
+    // Products per multi-product fetch, to keep the array parameter and the response bounded
+    static final int MAX_PRODUCTS = 100;
+
+    private final ImageRepository imageRepository;
+    private final MinioService minioService;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ImageMetadataCache imageCache;
+
+    /**
+     * Places an image that is about to become visible at the end of its
+     * product's gallery, as primary if the gallery has none. Called in the
+     * transaction that saves it.
+     */
+    @Transactional
+    public void placeNewImage(Image image) {
+        String productId = image.getProductId();
+        if (productId == null) {
+            return;
+        }
+        imageRepository.lockGallery(productId);
+        Long last = imageRepository.findLastGalleryPosition(productId);
+        image.setGalleryPosition(last != null ? last + POSITION_GAP : POSITION_GAP);
+        image.setPrimary(!imageRepository.existsPrimaryByProductId(productId));
+    }
+
+    /**
+     * Makes the first remaining image primary when the removed one was.
+     */
+    @Transactional
+    public void onImageRemoved(Image image) {
+        if (image.getProductId() == null || !image.isPrimary()) {
+            return;
+        }
+        imageRepository.lockGallery(image.getProductId());
+        imageRepository.promoteFirstGalleryImage(image.getProductId(), image.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<GalleryImageResponse> getGallery(String productId) {
+        readYourWrites.readProduct(productId);
+        return toResponses(imageRepository.findGalleries(new String[]{productId}));
+    }
+
+    /**
+     * Galleries of several products in one query, in the order requested.
+     * Products without images map to an empty list.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<GalleryImageResponse>> getGalleries(Collection<String> productIds) {
+        if (productIds.size() > MAX_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_PRODUCTS + " products per request");
+        }
+        Map<String, List<GalleryImageResponse>> galleries = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            readYourWrites.readProduct(productId);
+            galleries.put(productId, new ArrayList<>());
+        }
+        if (galleries.isEmpty()) {
+            return galleries;
+        }
+        String[] requested = galleries.keySet().toArray(String[]::new);
+        for (GalleryImageResponse image : toResponses(imageRepository.findGalleries(requested))) {
+            galleries.get(image.getProductId()).add(image);
+        }
+        return galleries;
+    }
+
+    /**
+     * Moves an image right after another one of the same gallery, or to the
+     * front when {@code afterImageId} is null. Only the moved row is updated,
+     * unless its new neighbours have no position left between them.
+     *
+     * @return the gallery in its new order
+     */
+    @Transactional
+    public List<GalleryImageResponse> move(String productId, UUID imageId, UUID afterImageId) {
+        if (imageId.equals(afterImageId)) {
+            throw new IllegalArgumentException("An image cannot be placed after itself");
+        }
+        imageRepository.lockGallery(productId);
+        List<ImageRepository.GalleryEntry> gallery =
+                new ArrayList<>(imageRepository.findGalleries(new String[]{productId}));
+        int from = indexOf(gallery, imageId);
+        if (from < 0) {
+            throw new RuntimeException("Image not found in gallery of product " + productId + ": " + imageId);
+        }
+        ImageRepository.GalleryEntry moved = gallery.remove(from);
+
+        int index = 0;
+        if (afterImageId != null) {
+            index = indexOf(gallery, afterImageId) + 1;
+            if (index == 0) {
+                throw new IllegalArgumentException(
+                        "Image " + afterImageId + " is not in the gallery of product " + productId);
+            }
+        }
+        Long position = positionBetween(index > 0 ? gallery.get(index - 1) : null,
+                index < gallery.size() ? gallery.get(index) : null);
+        if (position != null) {
+            imageRepository.updateGalleryPosition(imageId, position);
+        } else {
+            gallery.add(index, moved);
+            renumber(gallery);
+            log.info("Renumbered gallery of product {} ({} images)", productId, gallery.size());
+        }
+        recordChange(imageId, productId);
+        return toResponses(imageRepository.findGalleries(new String[]{productId}));
+    }
+
+    /**
+     * Makes an image the primary one of its gallery, which updates the
+     * previous primary image and this one only.
+     *
+     * @return the gallery
+     */
+    @Transactional
+    public List<GalleryImageResponse> setPrimary(String productId, UUID imageId) {
+        imageRepository.lockGallery(productId);
+        List<ImageRepository.GalleryEntry> gallery = imageRepository.findGalleries(new String[]{productId});
+        if (indexOf(gallery, imageId) < 0) {
+            throw new RuntimeException("Image not found in gallery of product " + productId + ": " + imageId);
+        }
+        imageRepository.updatePrimary(productId, imageId);
+        recordChange(imageId, productId);
+        return toResponses(imageRepository.findGalleries(new String[]{productId}));
+    }
+
+    /**
+     * @return a free position between the two neighbours, either of which
+     *         may be absent at an end of the gallery, or null if there is none
+     */
+    private static Long positionBetween(ImageRepository.GalleryEntry previous, ImageRepository.GalleryEntry next) {
+        Long low = previous != null ? previous.getPosition() : null;
+        Long high = next != null ? next.getPosition() : null;
+        if ((previous != null && low == null) || (next != null && high == null)) {
+            // Rows written without a position sort last and get one on renumbering
+            return null;
+        }
+        if (low == null && high == null) {
+            return POSITION_GAP;
+        }
+        if (low == null) {
+            // Goes below zero after a few moves to the front, which sorts the same
+            return high - POSITION_GAP;
+        }
+        if (high == null) {
+            return low + POSITION_GAP;
+        }
+        return high - low > 1 ? low + (high - low) / 2 : null;
+    }
+
+    private void renumber(List<ImageRepository.GalleryEntry> gallery) {
+        UUID[] ids = new UUID[gallery.size()];
+        Long[] positions = new Long[gallery.size()];
+        for (int i = 0; i < gallery.size(); i++) {
+            ids[i] = gallery.get(i).getId();
+            positions[i] = (i + 1) * POSITION_GAP;
+        }
+        imageRepository.renumberGallery(ids, positions);
+    }
+
+    private void recordChange(UUID imageId, String productId) {
+        readYourWrites.recordImageWrite(imageId, null, productId);
+        imageCache.evictAfterCommit(imageId, null, productId);
+    }
+
+    private static int indexOf(List<ImageRepository.GalleryEntry> gallery, UUID imageId) {
+        for (int i = 0; i < gallery.size(); i++) {
+            if (gallery.get(i).getId().equals(imageId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<GalleryImageResponse> toResponses(List<ImageRepository.GalleryEntry> entries) {
+        return entries.stream()
+                .map(entry -> GalleryImageResponse.builder()
+                        .id(entry.getId())
+                        .productId(entry.getProductId())
+                        .position(entry.getPosition())
+                        .primary(Boolean.TRUE.equals(entry.getPrimary()))
+                        .cloudPath(entry.getCloudPath())
+                        .contentType(entry.getContentType())
+                        .sizeBytes(entry.getSizeBytes())
+                        .width(entry.getWidth())
+                        .height(entry.getHeight())
+                        .placeholder(entry.getPlaceholder())
+                        .url(minioService.getPresignedUrl(entry.getShard(), entry.getCloudPath()))
+                        .build())
+                .toList();
+    }
+}
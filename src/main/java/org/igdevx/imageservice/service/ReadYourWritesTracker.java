@@ -0,0 +1,95 @@
+package org.igdevx.imageservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.igdevx.imageservice.config.ReplicaRoutingConfig;
+import org.igdevx.imageservice.config.ReplicaRoutingContext;
+import org.igdevx.imageservice.model.Image;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users, products and images were written recently so their
+ * reads are served by the primary until the replicas have caught up. The
+ * window is tracked per node, which covers a client reading back through the
+ * same instance right after its upload or deletion.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+    private final ReplicaRoutingConfig routingConfig;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Records a write to an image, which also changes what its user's and
+     * product's listings return.
+     */
+    public void recordImageWrite(Image image) {
+        recordImageWrite(image.getId(), image.getUserId(), image.getProductId());
+    }
+
+    public void recordImageWrite(UUID imageId, String userId, String productId) {
+        record("image:", imageId);
+        record("user:", userId);
+        record("product:", productId);
+    }
+
+    public void recordUserWrite(String userId) {
+        record("user:", userId);
+    }
+
+    public void readUser(String userId) {
+        pinIfRecent("user:", userId);
+    }
+
+    public void readProduct(String productId) {
+        pinIfRecent("product:", productId);
+    }
+
+    public void readImage(UUID imageId) {
+        pinIfRecent("image:", imageId);
+    }
+
+    /**
+     * Whether reads of the image must go to the primary, without pinning the
+     * current transaction. Lets callers keep such reads out of shared batches.
+     */
+    public boolean isRecentImage(UUID imageId) {
+        return isRecent("image:", imageId);
+    }
+
+    public boolean isRecentProduct(String productId) {
+        return isRecent("product:", productId);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.read-your-writes-purge-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(until -> until - now <= 0);
+    }
+
+    private void record(String kind, Object id) {
+        if (!routingConfig.isEnabled() || id == null) {
+            return;
+        }
+        recentWrites.put(kind + id, System.nanoTime() + routingConfig.getReadYourWritesWindow().toNanos());
+    }
+
+    private void pinIfRecent(String kind, Object id) {
+        if (isRecent(kind, id)) {
+            ReplicaRoutingContext.pinToPrimary();
+        }
+    }
+
+    private boolean isRecent(String kind, Object id) {
+        if (!routingConfig.isEnabled() || id == null) {
+            return false;
+        }
+        Long until = recentWrites.get(kind + id);
+        return until != null && until - System.nanoTime() > 0;
+    }
+}
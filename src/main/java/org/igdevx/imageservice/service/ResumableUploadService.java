@@ -0,0 +1,208 @@
+package org.igdevx.imageservice.service;
+
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.ResumableUploadConfig;
+import org.igdevx.imageservice.dto.UploadIntentRequest;
+import org.igdevx.imageservice.dto.UploadResponse;
+import org.igdevx.imageservice.dto.UploadSessionResponse;
+import org.igdevx.imageservice.exception.UploadOffsetMismatchException;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.UploadSession;
+import org.igdevx.imageservice.model.UploadSessionPart;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.repository.UploadSessionPartRepository;
+import org.igdevx.imageservice.repository.UploadSessionRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for clients on unreliable networks. A session reserves a
+ * pending image and opens a MinIO multipart upload; the client sends
+ * fixed-size chunks at the current offset, each stored as one part, and can
+ * ask for the offset after a disconnect so received chunks are never sent
+ * again. Finalizing completes the multipart upload and hands the object to
+ * the same verification as presigned uploads.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadService {
+
+    private static final int MIN_CHUNK_SIZE = 5 * 1024 * 1024;
+
+    private final UploadSessionRepository sessionRepository;
+    private final UploadSessionPartRepository partRepository;
+    private final ImageRepository imageRepository;
+    private final ImageService imageService;
+    private final MinioService minioService;
+    private final StorageShardRegistry shards;
+    private final ResumableUploadConfig resumableConfig;
+
+    @Transactional
+    public UploadSessionResponse createSession(UploadIntentRequest request) throws IOException {
+        if (!resumableConfig.isEnabled()) {
+            throw new IllegalArgumentException("Resumable uploads are disabled");
+        }
+
+        Image image = imageService.reservePendingImage(request);
+        StorageShard shard = shards.get(image.getShard());
+        String uploadId = shard.multipartClient().createMultipartUpload(
+                shard.bucket(), shard.region(), image.getCloudPath(), image.getContentType());
+
+        UploadSession session = UploadSession.builder()
+                .imageId(image.getId())
+                .uploadId(uploadId)
+                .shard(shard.name())
+                .cloudPath(image.getCloudPath())
+                .totalSize(image.getSizeBytes())
+                .chunkSize(Math.max(MIN_CHUNK_SIZE, resumableConfig.getChunkSize()))
+                .expiresAt(LocalDateTime.now().plus(resumableConfig.getSessionTtl()))
+                .build();
+        session = sessionRepository.save(session);
+
+        log.info("Upload session {} opened for image {} ({} bytes)", session.getId(), image.getId(), session.getTotalSize());
+        return toResponse(session);
+    }
+
+    public UploadSessionResponse getSession(UUID sessionId) {
+        return toResponse(findSession(sessionId));
+    }
+
+    /**
+     * Stores one chunk. The offset must be the session's current offset and
+     * the chunk must be exactly one chunk size long (shorter only for the
+     * last one), so chunk boundaries always line up with part numbers.
+     */
+    public UploadSessionResponse uploadChunk(UUID sessionId, long offset, long contentLength, InputStream body)
+            throws IOException {
+        UploadSession session = findSession(sessionId);
+        if (offset != session.getReceivedBytes()) {
+            throw new UploadOffsetMismatchException(
+                    "Chunk offset " + offset + " does not match session offset " + session.getReceivedBytes(),
+                    session.getReceivedBytes());
+        }
+        if (session.isComplete()) {
+            throw new IllegalArgumentException("All bytes have already been received");
+        }
+
+        int expected = (int) Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new IllegalArgumentException("Chunk must be " + expected + " bytes, got " + contentLength);
+        }
+        byte[] chunk = body.readNBytes(expected);
+        if (chunk.length != expected || body.read() != -1) {
+            // Interrupted or oversized body: nothing is stored, the client resends from the same offset
+            throw new IllegalArgumentException("Chunk must be " + expected + " bytes");
+        }
+
+        int partNumber = (int) (offset / session.getChunkSize()) + 1;
+        StorageShard shard = shards.get(session.getShard());
+        Part part = shard.multipartClient().uploadPart(shard.bucket(), shard.region(),
+                session.getCloudPath(), session.getUploadId(), partNumber, chunk, expected);
+
+        partRepository.save(UploadSessionPart.builder()
+                .sessionId(sessionId)
+                .partNumber(partNumber)
+                .sizeBytes(expected)
+                .etag(part.etag())
+                .build());
+
+        long newOffset = offset + expected;
+        if (sessionRepository.advanceOffset(sessionId, offset, newOffset) == 0) {
+            // Another request stored the same chunk first; the part it wrote has identical content
+            UploadSession current = findSession(sessionId);
+            throw new UploadOffsetMismatchException(
+                    "Chunk at offset " + offset + " was already received", current.getReceivedBytes());
+        }
+
+        session.setReceivedBytes(newOffset);
+        log.debug("Upload session {}: part {} stored, {}/{} bytes", sessionId, partNumber, newOffset, session.getTotalSize());
+        return toResponse(session);
+    }
+
+    /**
+     * Completes the multipart upload and activates the image. The session is
+     * deleted only once the image is active, so a finalize that fails part
+     * way can be retried, and an expiring session never removes an image
+     * being activated.
+     */
+    public UploadResponse finalizeSession(UUID sessionId) throws IOException {
+        UploadSession session = findSession(sessionId);
+        if (!session.isComplete()) {
+            throw new IllegalArgumentException(
+                    "Upload incomplete: " + session.getReceivedBytes() + " of " + session.getTotalSize() + " bytes received");
+        }
+
+        String cloudPath = session.getCloudPath();
+        Part[] parts = partRepository.findBySessionIdOrderByPartNumber(sessionId).stream()
+                .map(part -> new Part(part.getPartNumber(), part.getEtag()))
+                .toArray(Part[]::new);
+        StorageShard shard = shards.get(session.getShard());
+        try {
+            shard.multipartClient().completeMultipartUpload(shard.bucket(), shard.region(),
+                    cloudPath, session.getUploadId(), parts);
+        } catch (IOException e) {
+            // A previous finalize may have completed it before failing; the object then already exists
+            if (minioService.statFile(shard.name(), cloudPath).isEmpty()) {
+                throw e;
+            }
+        }
+
+        // Commits on its own; a rejected object leaves the session until it expires
+        UploadResponse response = imageService.completeUpload(session.getImageId());
+        sessionRepository.deleteById(sessionId);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${upload.resumable.gc-interval-ms:600000}")
+    @Transactional
+    public void expireSessions() {
+        List<UploadSession> expired = sessionRepository.lockExpired(LocalDateTime.now(), resumableConfig.getGcBatchSize());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<UUID> imageIds = new ArrayList<>(expired.size());
+        for (UploadSession session : expired) {
+            try {
+                StorageShard shard = shards.get(session.getShard());
+                shard.multipartClient().abortMultipartUpload(shard.bucket(), shard.region(),
+                        session.getCloudPath(), session.getUploadId());
+            } catch (IOException e) {
+                // Already completed or aborted; MinIO also expires stale multipart uploads on its own
+                log.debug("Unable to abort multipart upload of session {}: {}", session.getId(), e.getMessage());
+            }
+            imageIds.add(session.getImageId());
+        }
+
+        sessionRepository.deleteAllInBatch(expired);
+        imageRepository.deletePending(imageIds);
+        log.info("Expired {} resumable upload session(s)", expired.size());
+    }
+
+    private UploadSession findSession(UUID sessionId) {
+        return sessionRepository.findByIdAndExpiresAtAfter(sessionId, LocalDateTime.now())
+                .orElseThrow(() -> new RuntimeException("Upload session not found: " + sessionId));
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session) {
+        return UploadSessionResponse.builder()
+                .sessionId(session.getId().toString())
+                .imageId(session.getImageId().toString())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .offset(session.getReceivedBytes())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
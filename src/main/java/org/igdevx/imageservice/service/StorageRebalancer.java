@@ -0,0 +1,150 @@
+package org.igdevx.imageservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.dto.RebalanceStatusResponse;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves objects to the shard the ring now assigns their user to, after a
+ * shard was added or reweighted. Each image is copied first, then its row is
+ * switched with a compare-and-set on the old shard, and only then is the old
+ * object removed, so reads keep working throughout and an interrupted run can
+ * simply be started again. Batches are throttled to leave room for live
+ * traffic.
+ */
+@Service
+@Slf4j
+public class StorageRebalancer {
+
+    // Postgres orders uuids as unsigned bytes, so the smallest one is all zeros
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    private final ImageRepository imageRepository;
+    private final MinioService minioService;
+    private final StorageShardRegistry shards;
+    private final MinioConfig minioConfig;
+    private final TaskExecutor executor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public StorageRebalancer(
+            ImageRepository imageRepository,
+            MinioService minioService,
+            StorageShardRegistry shards,
+            MinioConfig minioConfig,
+            @Qualifier("storageRebalanceExecutor") TaskExecutor executor
+    ) {
+        this.imageRepository = imageRepository;
+        this.minioService = minioService;
+        this.shards = shards;
+        this.minioConfig = minioConfig;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a rebalance in the background.
+     *
+     * @return false when one is already running on this node
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        scanned.set(0);
+        moved.set(0);
+        failed.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+
+        try {
+            executor.execute(this::run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public RebalanceStatusResponse status() {
+        return RebalanceStatusResponse.builder()
+                .running(running.get())
+                .scanned(scanned.get())
+                .moved(moved.get())
+                .failed(failed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    void run() {
+        MinioConfig.Rebalance settings = minioConfig.getRebalance();
+        try {
+            UUID after = FIRST;
+            while (true) {
+                List<Image> page = imageRepository.findActivePageAfter(after, settings.getBatchSize());
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (Image image : page) {
+                    scanned.incrementAndGet();
+                    relocate(image);
+                }
+                after = page.get(page.size() - 1).getId();
+                Thread.sleep(settings.getPause().toMillis());
+            }
+            log.info("Storage rebalance finished: {} scanned, {} moved, {} failed", scanned.get(), moved.get(), failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Storage rebalance interrupted after {} image(s)", scanned.get());
+        } catch (RuntimeException e) {
+            log.error("Storage rebalance aborted after {} image(s)", scanned.get(), e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private void relocate(Image image) {
+        String source = shards.get(image.getShard()).name();
+        String target = shards.route(image.getUserId()).name();
+        if (source.equals(target)) {
+            return;
+        }
+
+        String cloudPath = image.getCloudPath();
+        try {
+            if (minioService.statFile(target, cloudPath).isEmpty()) {
+                minioService.copyBetweenShards(source, target, cloudPath);
+            }
+            if (imageRepository.updateShard(image.getId(), source, target) == 0) {
+                // Replaced or deleted meanwhile; the copy is left for the next upload to overwrite
+                return;
+            }
+            // A newer profile image may share the path and still live on the source
+            if (!imageRepository.existsByShardAndCloudPathAndDeletedAtIsNull(source, cloudPath)) {
+                minioService.deleteFile(source, cloudPath);
+            }
+            moved.incrementAndGet();
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            log.warn("Unable to move image {} from shard {} to {}: {}", image.getId(), source, target, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.igdevx.imageservice.service;
+
+import io.minio.MinioClient;
+
+/**
+ * One storage target (MinIO endpoint and bucket) together with the clients
+ * used to reach it.
+ *
+ * @param name            value recorded in images.shard
+ * @param weight          share of new users routed here, 0 when draining
+ * @param readClient      downloads, stats and listings
+ * @param writeClient     uploads and deletions
+ * @param multipartClient parallel and resumable multipart uploads
+ * @param presignClient   signs URLs against the public endpoint
+ */
+public record StorageShard(
+        String name,
+        String endpoint,
+        String publicUrl,
+        String bucket,
+        String region,
+        int weight,
+        MinioClient readClient,
+        MinioClient writeClient,
+        MultipartMinioClient multipartClient,
+        MinioClient presignClient
+) {
+
+    public static final String PRIMARY = "primary";
+}
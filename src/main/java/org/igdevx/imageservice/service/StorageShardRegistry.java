@@ -0,0 +1,60 @@
+package org.igdevx.imageservice.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * All configured storage targets and the ring that assigns users to them.
+ * Images remember the shard they were written to, so reads resolve it by
+ * name and never consult the ring.
+ */
+public class StorageShardRegistry {
+
+    private final Map<String, StorageShard> shards = new LinkedHashMap<>();
+    private final ConsistentHashRing ring;
+
+    public StorageShardRegistry(Collection<StorageShard> shards, int virtualNodes) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (StorageShard shard : shards) {
+            if (this.shards.putIfAbsent(shard.name(), shard) != null) {
+                throw new IllegalArgumentException("Duplicate storage shard name: " + shard.name());
+            }
+            if (shard.weight() > 0) {
+                weights.put(shard.name(), shard.weight());
+            }
+        }
+        if (!this.shards.containsKey(StorageShard.PRIMARY)) {
+            throw new IllegalArgumentException("The primary storage shard is missing");
+        }
+        this.ring = new ConsistentHashRing(weights, virtualNodes);
+    }
+
+    /**
+     * Resolves the shard recorded on an image; rows written before sharding
+     * have no shard and live on the primary.
+     */
+    public StorageShard get(String name) {
+        if (name == null) {
+            return primary();
+        }
+        StorageShard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalStateException("Unknown storage shard: " + name);
+        }
+        return shard;
+    }
+
+    public StorageShard primary() {
+        return shards.get(StorageShard.PRIMARY);
+    }
+
+    public StorageShard route(String key) {
+        return shards.get(ring.locate(key));
+    }
+
+    public Collection<StorageShard> all() {
+        return Collections.unmodifiableCollection(shards.values());
+    }
+}
@@ -0,0 +1,147 @@
+package org.igdevx.imageservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.config.UploadAdmissionConfig;
+import org.igdevx.imageservice.exception.UploadRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for upload endpoints: a node-wide budget of in-flight
+ * request bytes plus a concurrency limit per user. Both use fair semaphores,
+ * always acquired through the queue, so waiting requests are served in
+ * arrival order and a new request never takes a permit ahead of them; a
+ * request that cannot be admitted within the queue timeout is rejected
+ * with 429.
+ */
+@Component
+@Slf4j
+public class UploadAdmissionController {
+
+    private final UploadAdmissionConfig admissionConfig;
+    private final Semaphore bytesBudget;
+    private final int budgetKilobytes;
+    private final ConcurrentHashMap<String, UserSlots> userSlots = new ConcurrentHashMap<>();
+
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter bytesRejections;
+    private final Counter userRejections;
+
+    public UploadAdmissionController(UploadAdmissionConfig admissionConfig, MeterRegistry meterRegistry) {
+        this.admissionConfig = admissionConfig;
+        this.budgetKilobytes = (int) Math.max(1, Math.min(Integer.MAX_VALUE, admissionConfig.getMaxInFlightBytes() / 1024));
+        this.bytesBudget = new Semaphore(budgetKilobytes, true);
+
+        Gauge.builder("upload.admission.inflight.bytes", inFlightBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("upload.admission.waiting", waiting, AtomicInteger::get)
+                .description("Upload requests waiting for admission")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("upload.admission.wait")
+                .description("Time spent waiting for admission")
+                .register(meterRegistry);
+        this.bytesRejections = Counter.builder("upload.admission.rejected")
+                .tag("reason", "bytes")
+                .register(meterRegistry);
+        this.userRejections = Counter.builder("upload.admission.rejected")
+                .tag("reason", "user")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return admissionConfig.isEnabled();
+    }
+
+    /**
+     * Reserves room for a request body of the given length (-1 when unknown).
+     */
+    public Permit admitBytes(long contentLength) {
+        long bytes = contentLength >= 0 ? contentLength : admissionConfig.getUnknownLengthBytes();
+        // A single request larger than the whole budget may still run, alone
+        int permits = (int) Math.min(budgetKilobytes, Math.max(1, (bytes + 1023) / 1024));
+
+        if (!acquire(bytesBudget, permits)) {
+            bytesRejections.increment();
+            log.warn("Upload rejected: in-flight bytes budget exhausted ({} bytes requested)", bytes);
+            throw new UploadRejectedException("Too many uploads in progress", retryAfterSeconds());
+        }
+
+        inFlightBytes.addAndGet(bytes);
+        return () -> {
+            inFlightBytes.addAndGet(-bytes);
+            bytesBudget.release(permits);
+        };
+    }
+
+    public Permit admitUser(String userId) {
+        UserSlots slots = userSlots.compute(userId, (key, existing) -> {
+            UserSlots current = existing != null ? existing : new UserSlots(admissionConfig.getMaxConcurrentPerUser());
+            current.references++;
+            return current;
+        });
+
+        if (!acquire(slots.semaphore, 1)) {
+            releaseReference(userId);
+            userRejections.increment();
+            log.warn("Upload rejected: user {} already has {} uploads in progress",
+                    userId, admissionConfig.getMaxConcurrentPerUser());
+            throw new UploadRejectedException("Too many concurrent uploads for this user", retryAfterSeconds());
+        }
+
+        return () -> {
+            slots.semaphore.release();
+            releaseReference(userId);
+        };
+    }
+
+    private boolean acquire(Semaphore semaphore, int permits) {
+        // The timed form honours fairness, unlike tryAcquire(permits), which would barge past the queue
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return semaphore.tryAcquire(permits, admissionConfig.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void releaseReference(String userId) {
+        // Drop the entry once no request of this user holds or waits for a slot
+        userSlots.computeIfPresent(userId, (key, slots) -> --slots.references == 0 ? null : slots);
+    }
+
+    private long retryAfterSeconds() {
+        return admissionConfig.getRetryAfter().toSeconds();
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class UserSlots {
+        private final Semaphore semaphore;
+        private int references;
+
+        private UserSlots(int maxConcurrent) {
+            this.semaphore = new Semaphore(maxConcurrent, true);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+-- Partitions images by month of upload, so vacuum, indexes and backups work
+-- on bounded tables and old months can be moved to cheaper storage or
+-- detached. The primary key has to include the partition key; lookups by id
+-- or product probe each partition's index.
+ALTER TABLE images RENAME TO images_unpartitioned;
+
+DROP TRIGGER trg_images_cache_insert ON images_unpartitioned;
+DROP TRIGGER trg_images_cache_update ON images_unpartitioned;
+DROP TRIGGER trg_images_cache_delete ON images_unpartitioned;
+DROP TRIGGER trg_images_event ON images_unpartitioned;
+
+CREATE TABLE images (
+    LIKE images_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (uploaded_at);
+
+-- Creates the missing monthly partitions from the month of first_day through
+-- the month of last_day. Every node calls it daily to stay months ahead.
+CREATE OR REPLACE FUNCTION create_image_partitions(first_day DATE, last_day DATE) RETURNS INT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', first_day);
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    -- Nodes may run this concurrently
+    PERFORM pg_advisory_xact_lock(hashtext('create_image_partitions'));
+    WHILE partition_start <= last_day LOOP
+        partition_name := 'images_' || to_char(partition_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF images FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, partition_start, (partition_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        partition_start := (partition_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the partition of one month once none of its images is live, and
+-- renames it images_archive_YYYY_MM. It can then be dumped and dropped, or
+-- kept elsewhere; the service no longer reads it.
+CREATE OR REPLACE FUNCTION detach_image_partition(partition_month DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'images_' || to_char(partition_month, 'YYYY_MM');
+    archive_name TEXT := 'images_archive_' || to_char(partition_month, 'YYYY_MM');
+    has_live BOOLEAN;
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_inherits
+        WHERE inhparent = 'images'::regclass AND inhrelid = to_regclass(partition_name)
+    ) THEN
+        RAISE EXCEPTION 'No attached image partition %', partition_name USING ERRCODE = 'no_data_found';
+    END IF;
+
+    -- Locks out inserts into the month while it is checked and detached
+    EXECUTE format('LOCK TABLE %I IN SHARE MODE', partition_name);
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE deleted_at IS NULL)', partition_name) INTO has_live;
+    IF has_live THEN
+        RAISE EXCEPTION 'Image partition % still holds live images', partition_name USING ERRCODE = 'object_in_use';
+    END IF;
+
+    EXECUTE format('ALTER TABLE images DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', partition_name, archive_name);
+    RETURN archive_name;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_image_partitions(
+    COALESCE((SELECT min(uploaded_at) FROM images_unpartitioned)::date, CURRENT_DATE),
+    GREATEST((SELECT max(uploaded_at) FROM images_unpartitioned)::date, CURRENT_DATE + 90)
+);
+
+INSERT INTO images SELECT * FROM images_unpartitioned;
+DROP TABLE images_unpartitioned;
+
+-- Built after the copy, and named after the old table's constraint, which is gone now
+ALTER TABLE images ADD CONSTRAINT images_pkey PRIMARY KEY (id, uploaded_at);
+
+-- Defined on the parent, so every partition, present and future, gets them
+CREATE INDEX idx_images_user_id ON images(user_id);
+CREATE INDEX idx_images_user_id_entity_type ON images(user_id, entity_type);
+CREATE INDEX idx_images_product_id ON images(product_id);
+CREATE INDEX idx_images_deleted_at ON images(deleted_at);
+CREATE INDEX idx_images_pending ON images(uploaded_at) WHERE status = 'PENDING';
+CREATE INDEX idx_images_shard_cloud_path ON images(shard, cloud_path) WHERE deleted_at IS NULL;
+
+-- Statement triggers on the parent see the rows of every partition in their transition tables
+CREATE TRIGGER trg_images_cache_insert
+    AFTER INSERT ON images REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
+
+CREATE TRIGGER trg_images_cache_update
+    AFTER UPDATE ON images REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
+
+CREATE TRIGGER trg_images_cache_delete
+    AFTER DELETE ON images REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
+
+CREATE TRIGGER trg_images_event
+    AFTER INSERT OR UPDATE ON images
+    FOR EACH ROW EXECUTE FUNCTION record_image_event();
@@ -0,0 +1,11 @@
+-- Covering indexes over live images only, for the HEAD existence checks.
+-- The filtered columns are implied by the predicate, so the checks are
+-- answered by index-only scans without reading the table rows.
+CREATE INDEX idx_images_live_id ON images(id)
+    WHERE deleted_at IS NULL AND status = 'ACTIVE';
+
+CREATE INDEX idx_images_live_product ON images(product_id, uploaded_at DESC) INCLUDE (id)
+    WHERE deleted_at IS NULL AND status = 'ACTIVE';
+
+CREATE INDEX idx_images_live_user_type ON images(user_id, entity_type, uploaded_at DESC) INCLUDE (id)
+    WHERE deleted_at IS NULL AND status = 'ACTIVE';
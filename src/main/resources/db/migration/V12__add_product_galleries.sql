@@ -0,0 +1,27 @@
+-- Ordered multi-image galleries per product. Positions are spaced by 1024,
+-- so moving an image updates only its own row to a value between its new
+-- neighbours; a gallery is renumbered only once such a gap is used up.
+ALTER TABLE images ADD COLUMN gallery_position BIGINT;
+ALTER TABLE images ADD COLUMN is_primary BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Existing product images keep their upload order, and the latest upload,
+-- which lookups by product returned so far, becomes the primary one
+UPDATE images i
+SET gallery_position = g.position, is_primary = g.latest
+FROM (
+    SELECT id, uploaded_at,
+           row_number() OVER (PARTITION BY product_id ORDER BY uploaded_at, id) * 1024 AS position,
+           row_number() OVER (PARTITION BY product_id ORDER BY uploaded_at DESC, id DESC) = 1 AS latest
+    FROM images
+    WHERE product_id IS NOT NULL AND deleted_at IS NULL AND status = 'ACTIVE'
+) g
+WHERE i.id = g.id AND i.uploaded_at = g.uploaded_at;
+
+-- Everything a gallery entry returns is in the index, so galleries of any
+-- number of products are read by index-only scans in position order
+CREATE INDEX idx_images_gallery ON images(product_id, gallery_position)
+    INCLUDE (id, is_primary, shard, cloud_path, content_type, size_bytes, width, height, placeholder)
+    WHERE product_id IS NOT NULL AND deleted_at IS NULL AND status = 'ACTIVE';
+
+-- A product's image is now the primary one of its gallery, found in the index above
+DROP INDEX idx_images_live_product;
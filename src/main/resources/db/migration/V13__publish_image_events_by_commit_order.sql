@@ -0,0 +1,83 @@
+-- The counter row of V9 was locked by every write that produced an event
+-- until its commit, which serialized all image writes. Events now take an id
+-- from a sequence and record their transaction, and get their public,
+-- gap-free sequence number afterwards: a publisher numbers the events of
+-- every transaction older than the oldest one still running, in transaction
+-- order. No transaction that could still add an event below that point is
+-- left, so a consumer resuming after sequence N can still never miss one.
+CREATE SEQUENCE image_events_id_seq;
+
+ALTER TABLE image_events ADD COLUMN id BIGINT;
+ALTER TABLE image_events ADD COLUMN xid xid8;
+UPDATE image_events SET id = seq;
+SELECT setval('image_events_id_seq', COALESCE((SELECT max(seq) FROM image_events), 0) + 1, false);
+
+ALTER TABLE image_events DROP CONSTRAINT image_events_pkey;
+ALTER TABLE image_events ALTER COLUMN seq DROP NOT NULL;
+ALTER TABLE image_events ADD CONSTRAINT uq_image_events_seq UNIQUE (seq);
+ALTER TABLE image_events ALTER COLUMN id SET DEFAULT nextval('image_events_id_seq');
+ALTER TABLE image_events ALTER COLUMN id SET NOT NULL;
+ALTER TABLE image_events ADD PRIMARY KEY (id);
+ALTER TABLE image_events ALTER COLUMN xid SET DEFAULT pg_current_xact_id();
+ALTER SEQUENCE image_events_id_seq OWNED BY image_events.id;
+
+-- Events waiting for their number, in publishing order
+CREATE INDEX idx_image_events_unpublished ON image_events(xid, id) WHERE seq IS NULL;
+
+-- image_event_sequence now only holds the last number published; it is
+-- updated by the publisher alone.
+CREATE OR REPLACE FUNCTION record_image_event() RETURNS trigger AS $$
+DECLARE
+    kind TEXT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.status <> 'ACTIVE' OR NEW.deleted_at IS NOT NULL THEN
+            RETURN NULL;
+        END IF;
+        kind := 'CREATED';
+    ELSIF OLD.deleted_at IS NULL AND NEW.deleted_at IS NOT NULL THEN
+        IF OLD.status <> 'ACTIVE' THEN
+            RETURN NULL;
+        END IF;
+        kind := 'DELETED';
+    ELSIF NEW.deleted_at IS NOT NULL OR NEW.status <> 'ACTIVE' THEN
+        RETURN NULL;
+    ELSIF OLD.status <> 'ACTIVE' THEN
+        kind := 'CREATED';
+    ELSIF NEW.shard IS DISTINCT FROM OLD.shard OR NEW.cloud_path IS DISTINCT FROM OLD.cloud_path THEN
+        kind := 'REPLACED';
+    ELSE
+        RETURN NULL;
+    END IF;
+
+    IF kind = 'CREATED' AND NEW.entity_type IN ('USER_PROFILE', 'USER_BANNER') AND EXISTS (
+        SELECT 1 FROM images
+        WHERE user_id = NEW.user_id AND entity_type = NEW.entity_type AND id <> NEW.id
+          AND status = 'ACTIVE' AND deleted_at IS NULL
+    ) THEN
+        kind := 'REPLACED';
+    END IF;
+
+    INSERT INTO image_events (event_type, image_id, entity_type, user_id, product_id, shard, cloud_path)
+    VALUES (kind, NEW.id, NEW.entity_type, NEW.user_id, NEW.product_id, NEW.shard, NEW.cloud_path);
+
+    -- Asks the publisher to number the new events; the same payload for every
+    -- event, so Postgres folds them into one wake-up per transaction
+    PERFORM pg_notify('image_events', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Wakes the consumers once the publisher has numbered events
+CREATE OR REPLACE FUNCTION notify_image_events_published() RETURNS trigger AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM published) THEN
+        PERFORM pg_notify('image_events', '');
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_image_events_published
+    AFTER UPDATE ON image_events REFERENCING NEW TABLE AS published
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_events_published();
@@ -0,0 +1,75 @@
+-- Lookups by id probed every monthly partition: the id says nothing about
+-- uploaded_at to the planner. Version 7 ids embed the time they were created,
+-- by the same insert that sets uploaded_at, so an id bounds uploaded_at and
+-- lookups that add the bounds below touch the partitions of one month.
+-- uploaded_at is the server's local time and the id's time is UTC; a day on
+-- either side covers any time zone and clock drift. Random version 4 ids,
+-- issued before the service generated version 7 ones, are not bounded.
+CREATE FUNCTION image_uploaded_from(image_id UUID) RETURNS TIMESTAMP AS $$
+    SELECT CASE WHEN substr(image_id::text, 15, 1) = '7'
+        THEN to_timestamp(('x' || lpad(replace(substr(image_id::text, 1, 13), '-', ''), 16, '0'))::bit(64)::bigint / 1000.0)
+             AT TIME ZONE 'UTC' - INTERVAL '1 day'
+        ELSE '-infinity'::timestamp
+    END
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+CREATE FUNCTION image_uploaded_until(image_id UUID) RETURNS TIMESTAMP AS $$
+    SELECT CASE WHEN substr(image_id::text, 15, 1) = '7'
+        THEN to_timestamp(('x' || lpad(replace(substr(image_id::text, 1, 13), '-', ''), 16, '0'))::bit(64)::bigint / 1000.0)
+             AT TIME ZONE 'UTC' + INTERVAL '1 day'
+        ELSE 'infinity'::timestamp
+    END
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM images
+        WHERE uploaded_at < image_uploaded_from(id) OR uploaded_at >= image_uploaded_until(id)
+    ) THEN
+        RAISE EXCEPTION 'Images with a version 7 id far from their uploaded_at'
+            USING HINT = 'Rows of a synthetic dataset generated before ids followed uploaded_at; regenerate it.';
+    END IF;
+END;
+$$;
+
+-- A row outside its bounds would be invisible to lookups by id
+ALTER TABLE images ADD CONSTRAINT chk_images_uploaded_at_matches_id
+    CHECK (uploaded_at >= image_uploaded_from(id) AND uploaded_at < image_uploaded_until(id));
+
+-- Rows of a month without a partition land here instead of failing the
+-- insert; they are moved out once the month's partition is created.
+CREATE TABLE images_default PARTITION OF images DEFAULT;
+
+CREATE OR REPLACE FUNCTION create_image_partitions(first_day DATE, last_day DATE) RETURNS INT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', first_day);
+    partition_end DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    -- Nodes may run this concurrently
+    PERFORM pg_advisory_xact_lock(hashtext('create_image_partitions'));
+    WHILE partition_start <= last_day LOOP
+        partition_end := (partition_start + INTERVAL '1 month')::date;
+        partition_name := 'images_' || to_char(partition_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM images_default WHERE uploaded_at >= partition_start AND uploaded_at < partition_end) THEN
+                -- A partition cannot be created over rows of the default one;
+                -- they are moved into the new table before it is attached
+                EXECUTE format('CREATE TABLE %I (LIKE images INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+                EXECUTE format('WITH moved AS (DELETE FROM images_default WHERE uploaded_at >= %L AND uploaded_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', partition_start, partition_end, partition_name);
+                EXECUTE format('ALTER TABLE images ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, partition_start, partition_end);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF images FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, partition_start, partition_end);
+            END IF;
+            created := created + 1;
+        END IF;
+        partition_start := partition_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,7 @@
+-- The HEAD checks answer from the same cached lookups as the GETs, so the
+-- index-only scans V11 was written for never happen. The id index is unused:
+-- lookups by id go through the primary key.
+DROP INDEX idx_images_live_id;
+
+COMMENT ON INDEX idx_images_live_user_type IS
+    'Latest live profile and banner images of users, newest first';
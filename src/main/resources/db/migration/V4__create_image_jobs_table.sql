@@ -0,0 +1,20 @@
+CREATE TABLE image_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    image_id UUID NOT NULL,
+    job_type VARCHAR(50) NOT NULL,
+    priority INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_run_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_at TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_job_type CHECK (job_type IN ('PLACEHOLDER', 'OPTIMIZE')),
+    CONSTRAINT chk_job_status CHECK (status IN ('PENDING', 'RUNNING', 'FAILED'))
+);
+
+-- Workers claim by priority then due time; completed jobs are deleted so the
+-- partial index only ever covers the live backlog
+CREATE INDEX idx_image_jobs_pending ON image_jobs(priority DESC, next_run_at) WHERE status = 'PENDING';
+CREATE INDEX idx_image_jobs_running ON image_jobs(locked_at) WHERE status = 'RUNNING';
+CREATE INDEX idx_image_jobs_image_id ON image_jobs(image_id);
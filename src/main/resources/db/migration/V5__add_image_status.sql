@@ -0,0 +1,7 @@
+-- Direct uploads create the row before the object exists; it stays PENDING
+-- until the client calls /upload/{id}/complete and the object is verified
+ALTER TABLE images ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE';
+ALTER TABLE images ADD CONSTRAINT chk_image_status CHECK (status IN ('PENDING', 'ACTIVE'));
+
+-- Garbage collection of abandoned intents scans by age, pending rows only
+CREATE INDEX idx_images_pending ON images(uploaded_at) WHERE status = 'PENDING';
@@ -0,0 +1,23 @@
+-- Resumable uploads: one session per pending image, backed by a MinIO
+-- multipart upload; every received chunk is a part
+CREATE TABLE upload_sessions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    image_id UUID NOT NULL UNIQUE,
+    upload_id VARCHAR(1024) NOT NULL,
+    cloud_path VARCHAR(500) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_upload_sessions_expires_at ON upload_sessions(expires_at);
+
+CREATE TABLE upload_session_parts (
+    session_id UUID NOT NULL REFERENCES upload_sessions(id) ON DELETE CASCADE,
+    part_number INTEGER NOT NULL,
+    size_bytes INTEGER NOT NULL,
+    etag VARCHAR(255) NOT NULL,
+    PRIMARY KEY (session_id, part_number)
+);
@@ -0,0 +1,7 @@
+-- Storage target holding each object; everything stored before sharding
+-- lives on the primary MinIO target
+ALTER TABLE images ADD COLUMN shard VARCHAR(64) NOT NULL DEFAULT 'primary';
+ALTER TABLE upload_sessions ADD COLUMN shard VARCHAR(64) NOT NULL DEFAULT 'primary';
+
+-- Lets the rebalancer find objects still referenced on a shard
+CREATE INDEX idx_images_shard_cloud_path ON images(shard, cloud_path) WHERE deleted_at IS NULL;
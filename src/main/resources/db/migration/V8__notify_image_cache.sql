@@ -0,0 +1,45 @@
+-- Tell every node which cached image lookups a statement changed.
+-- One notification per statement, delivered on commit; statements touching
+-- many rows only ask for a full flush to stay under the 8000-byte payload limit.
+CREATE OR REPLACE FUNCTION notify_image_cache() RETURNS trigger AS $$
+DECLARE
+    payload TEXT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT CASE WHEN count(*) > 40 THEN '*'
+                    ELSE json_agg(json_build_object('id', id, 'userId', user_id, 'productId', product_id))::text END
+        INTO payload FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT CASE WHEN count(*) > 40 THEN '*'
+                    ELSE json_agg(json_build_object('id', id, 'userId', user_id, 'productId', product_id))::text END
+        INTO payload FROM old_rows;
+    ELSE
+        SELECT CASE WHEN count(*) > 40 THEN '*'
+                    ELSE json_agg(json_build_object('id', id, 'userId', user_id, 'productId', product_id))::text END
+        INTO payload
+        FROM (SELECT id, user_id, product_id FROM old_rows
+              UNION
+              SELECT id, user_id, product_id FROM new_rows) changed;
+    END IF;
+
+    IF payload IS NOT NULL THEN
+        IF octet_length(payload) > 7900 THEN
+            payload := '*';
+        END IF;
+        PERFORM pg_notify('image_cache', payload);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_images_cache_insert
+    AFTER INSERT ON images REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
+
+CREATE TRIGGER trg_images_cache_update
+    AFTER UPDATE ON images REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
+
+CREATE TRIGGER trg_images_cache_delete
+    AFTER DELETE ON images REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_image_cache();
@@ -0,0 +1,76 @@
+-- Durable change log of image visibility, read by downstream services through
+-- GET /events. Sequence numbers come from a single counter row locked until
+-- commit, so events become visible in sequence order and a consumer resuming
+-- after sequence N can never miss an event committed later with a lower number.
+CREATE TABLE image_event_sequence (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    value BIGINT NOT NULL
+);
+
+INSERT INTO image_event_sequence (id, value) VALUES (TRUE, 0);
+
+CREATE TABLE image_events (
+    seq BIGINT PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL,
+    image_id UUID NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    product_id VARCHAR(255),
+    shard VARCHAR(64) NOT NULL,
+    cloud_path VARCHAR(500) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_image_event_type CHECK (event_type IN ('CREATED', 'REPLACED', 'DELETED'))
+);
+
+CREATE INDEX idx_image_events_occurred_at ON image_events(occurred_at);
+
+-- CREATED when an image becomes visible (REPLACED when it supersedes the
+-- user's profile or banner, or its object moved), DELETED when soft-deleted.
+-- Pending direct uploads and metadata-only updates produce no event.
+CREATE OR REPLACE FUNCTION record_image_event() RETURNS trigger AS $$
+DECLARE
+    kind TEXT;
+    next_seq BIGINT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.status <> 'ACTIVE' OR NEW.deleted_at IS NOT NULL THEN
+            RETURN NULL;
+        END IF;
+        kind := 'CREATED';
+    ELSIF OLD.deleted_at IS NULL AND NEW.deleted_at IS NOT NULL THEN
+        IF OLD.status <> 'ACTIVE' THEN
+            RETURN NULL;
+        END IF;
+        kind := 'DELETED';
+    ELSIF NEW.deleted_at IS NOT NULL OR NEW.status <> 'ACTIVE' THEN
+        RETURN NULL;
+    ELSIF OLD.status <> 'ACTIVE' THEN
+        kind := 'CREATED';
+    ELSIF NEW.shard IS DISTINCT FROM OLD.shard OR NEW.cloud_path IS DISTINCT FROM OLD.cloud_path THEN
+        kind := 'REPLACED';
+    ELSE
+        RETURN NULL;
+    END IF;
+
+    IF kind = 'CREATED' AND NEW.entity_type IN ('USER_PROFILE', 'USER_BANNER') AND EXISTS (
+        SELECT 1 FROM images
+        WHERE user_id = NEW.user_id AND entity_type = NEW.entity_type AND id <> NEW.id
+          AND status = 'ACTIVE' AND deleted_at IS NULL
+    ) THEN
+        kind := 'REPLACED';
+    END IF;
+
+    UPDATE image_event_sequence SET value = value + 1 RETURNING value INTO next_seq;
+
+    INSERT INTO image_events (seq, event_type, image_id, entity_type, user_id, product_id, shard, cloud_path)
+    VALUES (next_seq, kind, NEW.id, NEW.entity_type, NEW.user_id, NEW.product_id, NEW.shard, NEW.cloud_path);
+
+    -- Same payload for every event, so Postgres folds them into one wake-up per transaction
+    PERFORM pg_notify('image_events', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_images_event
+    AFTER INSERT OR UPDATE ON images
+    FOR EACH ROW EXECUTE FUNCTION record_image_event();
@@ -0,0 +1,173 @@
+package org.igdevx.imageservice.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.igdevx.imageservice.model.UuidV7;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput of random (v4) versus time-ordered (v7) primary keys on
+ * a table shaped like images. Only runs when a row count is given:
+ *
+ * <pre>
+ * mvn test -Dgroups=benchmark -Dbenchmark.rows=20000000
+ * </pre>
+ *
+ * Uses a throwaway Postgres container unless benchmark.jdbc-url (with
+ * benchmark.username and benchmark.password) points at a database sized
+ * like production, which gives more meaningful numbers once the v4 index
+ * no longer fits in shared_buffers. The results are logged, not asserted:
+ * throughput depends too much on the machine to fail a build on.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+@DisplayName("UUID v4 vs v7 insert benchmark")
+@Slf4j
+class UuidInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int REPORTS = 10;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static Connection connection;
+
+    @BeforeAll
+    static void connect() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        String username = System.getProperty("benchmark.username");
+        String password = System.getProperty("benchmark.password");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16")
+                .withCommand("postgres", "-c", "shared_buffers=256MB", "-c", "max_wal_size=4GB");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        // Sends each batch as multi-row INSERT statements
+        connection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+            username, password);
+        connection.setAutoCommit(false);
+    }
+
+    @AfterAll
+    static void disconnect() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the insert throughput of random and time-ordered keys")
+    void insertThroughput_V4VersusV7() throws SQLException {
+        long rows = Long.getLong("benchmark.rows");
+
+        Result v4 = run("bench_uuid_v4", rows, UUID::randomUUID);
+        Result v7 = run("bench_uuid_v7", rows, UuidV7::generate);
+
+        log.info(String.format("%-8s %14s %14s %14s", "keys", "rows/s", "WAL MB", "pkey MB"));
+        log.info(v4.format("v4"));
+        log.info(v7.format("v7"));
+    }
+
+    private Result run(String table, long rows, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (" +
+                "id UUID PRIMARY KEY, user_id VARCHAR(255) NOT NULL, cloud_path VARCHAR(500) NOT NULL, " +
+                "uploaded_at TIMESTAMP NOT NULL)");
+            connection.commit();
+            // Start both runs from the same state, so one does not pay for the other's dirty pages
+            connection.setAutoCommit(true);
+            statement.execute("CHECKPOINT");
+            connection.setAutoCommit(false);
+        }
+
+        String walStart = currentWalLsn();
+        long reportEvery = Math.max(BATCH_SIZE, rows / REPORTS);
+        long start = System.nanoTime();
+        long windowStart = start;
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, user_id, cloud_path, uploaded_at) VALUES (?, ?, ?, ?)")) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (long i = 1; i <= rows; i++) {
+                String userId = "user-" + (i % 50_000);
+                insert.setObject(1, ids.get());
+                insert.setString(2, userId);
+                insert.setString(3, "products/" + userId + "/" + i + ".jpg");
+                insert.setTimestamp(4, now);
+                insert.addBatch();
+
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (i % reportEvery == 0) {
+                    long end = System.nanoTime();
+                    log.info(String.format("%s: %,d rows, last window %,.0f rows/s",
+                        table, i, reportEvery / ((end - windowStart) / 1e9)));
+                    windowStart = end;
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(rows / seconds, walBytesSince(walStart), relationSize(table + "_pkey"));
+    }
+
+    private String currentWalLsn() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_current_wal_lsn()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private long walBytesSince(String lsn) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint")) {
+            statement.setString(1, lsn);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private long relationSize(String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            statement.setString(1, relation);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private record Result(double rowsPerSecond, long walBytes, long indexBytes) {
+
+        String format(String keys) {
+            return String.format("%-8s %,14.0f %,14d %,14d", keys, rowsPerSecond, walBytes >> 20, indexBytes >> 20);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.igdevx.imageservice.unit.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.UploadAdmissionConfig;
+import org.igdevx.imageservice.controller.UploadAdmissionFilter;
+import org.igdevx.imageservice.service.UploadAdmissionController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("UploadAdmissionFilter Unit Tests")
+class UploadAdmissionFilterTest {
+
+    private UploadAdmissionController admissionController;
+    private UploadAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        UploadAdmissionConfig config = new UploadAdmissionConfig();
+        config.setMaxConcurrentPerUser(1);
+        config.setQueueTimeout(Duration.ofMillis(20));
+        admissionController = new UploadAdmissionController(config, new SimpleMeterRegistry());
+        filter = new UploadAdmissionFilter(admissionController, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should reject a user over the limit from the query string, without reading the body")
+    void doFilter_UserOverLimit_RejectedBeforeBody() throws Exception {
+        // Given
+        UploadAdmissionController.Permit held = admissionController.admitUser("user-001");
+        MockHttpServletRequest request = upload("userId=user-001");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(chain.getRequest()).isNull();
+        held.close();
+    }
+
+    @Test
+    @DisplayName("Should hold the user's slot for the whole request and free it afterwards")
+    void doFilter_UserAdmitted_SlotReleasedAfterRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = upload("userId=user-001");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] slotHeld = new boolean[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, (servletRequest, servletResponse, next) -> slotHeld[0] = isRejected("user-001"));
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(slotHeld[0]).isTrue();
+        assertThat(isRejected("user-001")).isFalse();
+    }
+
+    private boolean isRejected(String userId) {
+        try {
+            admissionController.admitUser(userId).close();
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static MockHttpServletRequest upload(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload/profile");
+        request.setQueryString(query);
+        request.setContentType("multipart/form-data; boundary=x");
+        request.setContent(new byte[1024]);
+        return request;
+    }
+}
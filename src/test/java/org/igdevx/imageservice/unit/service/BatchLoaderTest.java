@@ -0,0 +1,108 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.service.BatchLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("BatchLoader Unit Tests")
+class BatchLoaderTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledExecutorService timer;
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timer = Executors.newSingleThreadScheduledExecutor();
+        workers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should answer loads made within the wait window with one batch call")
+    void load_WithinWindow_Coalesced() throws Exception {
+        // Given
+        BatchLoader<String, String> loader = loader(10, Duration.ofMillis(50), this::upperCase);
+
+        // When
+        CompletableFuture<String> first = loader.load("a");
+        CompletableFuture<String> second = loader.load("b");
+        CompletableFuture<String> duplicate = loader.load("a");
+
+        // Then
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("B");
+        assertThat(duplicate).isSameAs(first);
+        assertThat(batches).containsExactly(List.of("a", "b"));
+        assertThat(meterRegistry.summary("image.lookup.batch.size", "loader", "test").totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should send a full batch without waiting for the window")
+    void load_BatchFull_SentImmediately() throws Exception {
+        // Given - a window far longer than the assertion timeout
+        BatchLoader<String, String> loader = loader(2, Duration.ofSeconds(30), this::upperCase);
+
+        // When
+        CompletableFuture<String> first = loader.load("a");
+        CompletableFuture<String> second = loader.load("b");
+        CompletableFuture<String> next = loader.load("c");
+
+        // Then
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("B");
+        assertThat(next).isNotDone();
+        assertThat(batches).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("Should complete missing keys with null and fail every load of a failed batch")
+    void load_MissingAndFailures_Propagated() throws Exception {
+        // Given
+        BatchLoader<String, String> missing = loader(10, Duration.ofMillis(5), keys -> Map.of());
+        BatchLoader<String, String> failing = loader(10, Duration.ofMillis(5), keys -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // When / Then
+        assertThat(missing.load("a").get(1, TimeUnit.SECONDS)).isNull();
+        assertThatThrownBy(() -> failing.load("a").get(1, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private BatchLoader<String, String> loader(int maxBatchSize, Duration maxWait,
+                                               Function<List<String>, Map<String, String>> function) {
+        return new BatchLoader<>("test", function, maxBatchSize, maxWait, timer, workers, meterRegistry);
+    }
+
+    private Map<String, String> upperCase(List<String> keys) {
+        batches.add(keys);
+        return keys.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase));
+    }
+}
@@ -0,0 +1,84 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.service.BlurHashEncoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("BlurHashEncoder Unit Tests")
+class BlurHashEncoderTest {
+
+    @Test
+    @DisplayName("Should encode average color as the DC component")
+    void encode_SolidColor_DcMatchesColor() {
+        // Given
+        BufferedImage image = solid(Color.RED, 16, 16);
+
+        // When
+        String hash = BlurHashEncoder.encode(image, 4, 3);
+
+        // Then - size flag 'L' (4x3), then the DC component encodes pure red
+        assertThat(hash).hasSize(28);
+        assertThat(hash).startsWith("L");
+        assertThat(decode83(hash.substring(2, 6))).isEqualTo(0xFF0000);
+    }
+
+    @Test
+    @DisplayName("Should produce length 4 + 2 * components")
+    void encode_ComponentCount_DeterminesLength() {
+        // Given
+        BufferedImage image = gradient(20, 10);
+
+        // When / Then
+        assertThat(BlurHashEncoder.encode(image, 1, 1)).hasSize(6);
+        assertThat(BlurHashEncoder.encode(image, 9, 9)).hasSize(4 + 2 * 81);
+    }
+
+    @Test
+    @DisplayName("Should reject out of range component counts")
+    void encode_InvalidComponents_ThrowsException() {
+        BufferedImage image = solid(Color.BLUE, 4, 4);
+
+        assertThatThrownBy(() -> BlurHashEncoder.encode(image, 0, 3))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlurHashEncoder.encode(image, 4, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Helper methods
+
+    private int decode83(String value) {
+        String alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+        int result = 0;
+        for (char c : value.toCharArray()) {
+            result = result * 83 + alphabet.indexOf(c);
+        }
+        return result;
+    }
+
+    private BufferedImage solid(Color color, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private BufferedImage gradient(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, new Color(x * 255 / width, y * 255 / height, 128).getRGB());
+            }
+        }
+        return image;
+    }
+}
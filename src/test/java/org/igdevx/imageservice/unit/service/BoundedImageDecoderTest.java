@@ -0,0 +1,108 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageDecoderConfig;
+import org.igdevx.imageservice.service.BoundedImageDecoder;
+import org.igdevx.imageservice.service.ImageHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("BoundedImageDecoder Unit Tests")
+class BoundedImageDecoderTest {
+
+    private ImageDecoderConfig decoderConfig;
+    private BoundedImageDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoderConfig = new ImageDecoderConfig();
+        decoderConfig.setMaxPixels(1_000_000L);
+        decoder = new BoundedImageDecoder(decoderConfig);
+    }
+
+    @Test
+    @DisplayName("Should subsample while decoding to fit the target size")
+    void decode_LargeImage_SubsampledToTarget() throws Exception {
+        // Given
+        byte[] png = encode("png", 800, 600);
+
+        // When
+        BufferedImage image = decoder.decode(new ByteArrayInputStream(png), 32, 32);
+
+        // Then
+        assertThat(image.getWidth()).isLessThanOrEqualTo(32);
+        assertThat(image.getHeight()).isLessThanOrEqualTo(32);
+        assertThat(image.getWidth()).isGreaterThan(16);
+    }
+
+    @Test
+    @DisplayName("Should decode only the requested region")
+    void decodeRegion_Region_ReturnsRegionPixels() throws Exception {
+        // Given - left half red, right half blue
+        BufferedImage source = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 100; y++) {
+                source.setRGB(x, y, x < 100 ? Color.RED.getRGB() : Color.BLUE.getRGB());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(source, "png", out);
+
+        // When
+        BufferedImage region = decoder.decodeRegion(
+            new ByteArrayInputStream(out.toByteArray()), new Rectangle(100, 0, 100, 100), 50, 50);
+
+        // Then
+        assertThat(region.getWidth()).isEqualTo(50);
+        assertThat(region.getRGB(0, 0) & 0xFFFFFF).isEqualTo(0x0000FF);
+    }
+
+    @Test
+    @DisplayName("Should reject images above the pixel limit before decoding")
+    void decode_TooManyPixels_ThrowsException() throws Exception {
+        // Given
+        byte[] png = encode("png", 2000, 1000);
+
+        // When / Then
+        assertThatThrownBy(() -> decoder.decode(new ByteArrayInputStream(png), 32, 32))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("exceed the maximum");
+    }
+
+    @Test
+    @DisplayName("Should check header dimensions against the pixel limit")
+    void checkDimensions_Header_EnforcesLimit() {
+        assertThatCode(() -> decoder.checkDimensions(new ImageHeader("jpeg", 1000, 1000, 1)))
+            .doesNotThrowAnyException();
+        assertThatThrownBy(() -> decoder.checkDimensions(new ImageHeader("jpeg", 1001, 1000, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should fail when the format is not supported")
+    void decode_UnsupportedFormat_ThrowsIOException() {
+        assertThatThrownBy(() -> decoder.decode(new ByteArrayInputStream(new byte[64]), 32, 32))
+            .isInstanceOf(IOException.class);
+    }
+
+    // Helper methods
+
+    private byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
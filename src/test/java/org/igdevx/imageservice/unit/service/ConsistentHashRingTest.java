@@ -0,0 +1,76 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.service.ConsistentHashRing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("ConsistentHashRing Unit Tests")
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    @DisplayName("Should always route a key to the same node")
+    void locate_SameKey_IsStable() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(Map.of("a", 1, "b", 1, "c", 1), 160);
+
+        // When / Then
+        assertThat(ring.locate("producteur-001")).isEqualTo(ring.locate("producteur-001"));
+    }
+
+    @Test
+    @DisplayName("Should spread keys according to node weights")
+    void locate_WeightedNodes_SpreadsProportionally() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(Map.of("small", 1, "large", 3), 160);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.locate("user-" + i), 1, Integer::sum);
+        }
+
+        // Then - about a quarter of the keys land on the small node
+        assertThat(counts.get("small") / (double) KEYS).isBetween(0.20, 0.30);
+    }
+
+    @Test
+    @DisplayName("Should only move keys to the added node")
+    void locate_NodeAdded_MovesOnlyItsShare() {
+        // Given
+        Map<String, Integer> weights = new LinkedHashMap<>(Map.of("a", 1, "b", 1, "c", 1));
+        ConsistentHashRing before = new ConsistentHashRing(weights, 160);
+        weights.put("d", 1);
+        ConsistentHashRing after = new ConsistentHashRing(weights, 160);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String target = after.locate(key);
+            if (!target.equals(before.locate(key))) {
+                assertThat(target).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        // Then - roughly 1/4 of the keys move, all of them to the new node
+        assertThat(moved / (double) KEYS).isBetween(0.18, 0.32);
+    }
+
+    @Test
+    @DisplayName("Should reject a ring without any weighted node")
+    void constructor_NoWeight_ThrowsException() {
+        assertThatThrownBy(() -> new ConsistentHashRing(Map.of(), 160))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,142 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageEventConfig;
+import org.igdevx.imageservice.dto.ImageEventResponse;
+import org.igdevx.imageservice.exception.EventCursorExpiredException;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageEvent;
+import org.igdevx.imageservice.repository.ImageEventRepository;
+import org.igdevx.imageservice.service.ImageEventLog;
+import org.igdevx.imageservice.service.MinioService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageEventLog Unit Tests")
+class ImageEventLogTest {
+
+    @Mock
+    private ImageEventRepository imageEventRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Spy
+    private ImageEventConfig eventConfig = new ImageEventConfig();
+
+    @InjectMocks
+    private ImageEventLog imageEventLog;
+
+    @Test
+    @DisplayName("Should return the events right after the cursor with their public URL")
+    void readAfter_ContiguousEvents_Returned() {
+        // Given
+        when(imageEventRepository.findLatestSeq()).thenReturn(12L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(10L, Limit.of(100)))
+            .thenReturn(List.of(event(11, ImageEvent.Type.CREATED), event(12, ImageEvent.Type.DELETED)));
+        when(minioService.getPresignedUrl(eq("primary"), anyString())).thenReturn("http://localhost:9000/images/x.png");
+
+        // When
+        List<ImageEventResponse> events = imageEventLog.readAfter(10, 100);
+
+        // Then
+        assertThat(events).extracting(ImageEventResponse::getSeq).containsExactly(11L, 12L);
+        assertThat(events.get(0).getType()).isEqualTo("CREATED");
+        assertThat(events.get(0).getUrl()).isEqualTo("http://localhost:9000/images/x.png");
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a consumer that is up to date")
+    void readAfter_UpToDate_Empty() {
+        // Given
+        when(imageEventRepository.findLatestSeq()).thenReturn(12L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(12L, Limit.of(100))).thenReturn(List.of());
+
+        // When / Then
+        assertThat(imageEventLog.readAfter(12, 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse a cursor whose following events were pruned")
+    void readAfter_GapAfterCursor_Expired() {
+        // Given - events up to 40 were pruned
+        when(imageEventRepository.findLatestSeq()).thenReturn(50L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(10L, Limit.of(100)))
+            .thenReturn(List.of(event(41, ImageEvent.Type.CREATED)));
+
+        // When / Then
+        assertThatThrownBy(() -> imageEventLog.readAfter(10, 100))
+            .isInstanceOf(EventCursorExpiredException.class)
+            .extracting("latestSeq").isEqualTo(50L);
+    }
+
+    @Test
+    @DisplayName("Should refuse a cursor ahead of the log")
+    void readAfter_CursorAheadOfLog_Expired() {
+        // Given - e.g. the database was restored from a backup
+        when(imageEventRepository.findLatestSeq()).thenReturn(5L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(10L, Limit.of(100))).thenReturn(List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> imageEventLog.readAfter(10, 100))
+            .isInstanceOf(EventCursorExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("Should publish batch after batch until the ready events are numbered")
+    void publish_FullBatches_Continues() {
+        // Given
+        when(imageEventRepository.tryLockPublisher()).thenReturn(true);
+        when(imageEventRepository.publish(anyInt())).thenReturn(1_000, 1_000, 12);
+
+        // When
+        imageEventLog.publish();
+
+        // Then
+        verify(imageEventRepository, times(3)).publish(1_000);
+    }
+
+    @Test
+    @DisplayName("Should leave publishing to the node already doing it")
+    void publish_LockHeldElsewhere_Skips() {
+        // Given
+        when(imageEventRepository.tryLockPublisher()).thenReturn(false);
+
+        // When
+        imageEventLog.publish();
+
+        // Then
+        verify(imageEventRepository, never()).publish(anyInt());
+    }
+
+    private ImageEvent event(long seq, ImageEvent.Type type) {
+        return ImageEvent.builder()
+            .id(seq)
+            .seq(seq)
+            .type(type)
+            .imageId(UUID.randomUUID())
+            .entityType(Image.EntityType.PRODUCT)
+            .userId("user-001")
+            .productId("product-001")
+            .shard("primary")
+            .cloudPath("products/user-001/" + seq + ".png")
+            .occurredAt(LocalDateTime.now())
+            .build();
+    }
+}
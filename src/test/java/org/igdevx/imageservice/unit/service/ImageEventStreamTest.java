@@ -0,0 +1,149 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageEventConfig;
+import org.igdevx.imageservice.dto.ImageEventResponse;
+import org.igdevx.imageservice.exception.EventCursorExpiredException;
+import org.igdevx.imageservice.service.ImageEventLog;
+import org.igdevx.imageservice.service.ImageEventStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageEventStream Unit Tests")
+class ImageEventStreamTest {
+
+    @Mock
+    private ImageEventLog eventLog;
+
+    private ImageEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        eventStream = new ImageEventStream(eventLog, new ImageEventConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStream.destroy();
+    }
+
+    @Test
+    @DisplayName("Should answer a long-poll at once when events are already there")
+    void poll_EventsAvailable_ReturnsAtOnce() {
+        // Given
+        when(eventLog.readAfter(10L, 100)).thenReturn(List.of(event(11), event(12)));
+
+        // When
+        DeferredResult<ResponseEntity<List<ImageEventResponse>>> result =
+            eventStream.poll(10, 100, Duration.ofSeconds(30));
+
+        // Then
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertThat(response.getHeaders().getFirst(ImageEventStream.LAST_EVENT_ID)).isEqualTo("12");
+        assertThat((List<?>) response.getBody()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should complete a waiting long-poll once the dispatcher reads new events")
+    void poll_NoEventsYet_CompletedOnNotification() throws InterruptedException {
+        // Given
+        when(eventLog.readAfter(eq(10L), anyInt())).thenReturn(List.of()).thenReturn(List.of(event(11)));
+        DeferredResult<ResponseEntity<List<ImageEventResponse>>> result =
+            eventStream.poll(10, 100, Duration.ofSeconds(30));
+
+        // When
+        eventStream.onNotification("");
+
+        // Then
+        ResponseEntity<?> response = (ResponseEntity<?>) await(result);
+        assertThat(response.getHeaders().getFirst(ImageEventStream.LAST_EVENT_ID)).isEqualTo("11");
+        assertThat((List<?>) response.getBody()).hasSize(1);
+        verify(eventLog, atLeastOnce()).publish();
+    }
+
+    @Test
+    @DisplayName("Should give a waiter no more events than it asked for")
+    void poll_MoreEventsThanLimit_Truncated() throws InterruptedException {
+        // Given
+        when(eventLog.readAfter(10L, 1)).thenReturn(List.of());
+        when(eventLog.readAfter(10L, 500)).thenReturn(List.of(event(11), event(12), event(13)));
+
+        // When
+        DeferredResult<ResponseEntity<List<ImageEventResponse>>> result =
+            eventStream.poll(10, 1, Duration.ofSeconds(30));
+
+        // Then
+        ResponseEntity<?> response = (ResponseEntity<?>) await(result);
+        assertThat(response.getHeaders().getFirst(ImageEventStream.LAST_EVENT_ID)).isEqualTo("11");
+        assertThat((List<?>) response.getBody()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should fail a waiting long-poll whose cursor fell behind the retention")
+    void poll_CursorExpiredWhileWaiting_ErrorResult() throws InterruptedException {
+        // Given
+        EventCursorExpiredException expired = new EventCursorExpiredException("pruned", 50L);
+        when(eventLog.readAfter(eq(10L), anyInt())).thenReturn(List.of()).thenThrow(expired);
+
+        // When
+        DeferredResult<ResponseEntity<List<ImageEventResponse>>> result =
+            eventStream.poll(10, 100, Duration.ofSeconds(30));
+
+        // Then
+        assertThat(await(result)).isSameAs(expired);
+    }
+
+    @Test
+    @DisplayName("Should publish on a notification even with no consumer on this node")
+    void onNotification_NoConsumers_PublishesOnly() {
+        // When
+        eventStream.onNotification("");
+
+        // Then
+        verify(eventLog, timeout(5_000)).publish();
+        verify(eventLog, never()).readAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should refuse a stream whose cursor is no longer retained")
+    void subscribe_ExpiredCursor_Throws() {
+        // Given
+        when(eventLog.readAfter(5L, 1)).thenThrow(new EventCursorExpiredException("pruned", 50L));
+
+        // When / Then
+        assertThatThrownBy(() -> eventStream.subscribe(5L))
+            .isInstanceOf(EventCursorExpiredException.class);
+    }
+
+    private static Object await(DeferredResult<?> result) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        result.setResultHandler(value -> done.countDown());
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        return result.getResult();
+    }
+
+    private static ImageEventResponse event(long seq) {
+        return ImageEventResponse.builder()
+            .seq(seq)
+            .type("CREATED")
+            .build();
+    }
+}
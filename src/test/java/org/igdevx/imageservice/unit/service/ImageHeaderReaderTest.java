@@ -0,0 +1,148 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.service.ImageHeader;
+import org.igdevx.imageservice.service.ImageHeaderReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("ImageHeaderReader Unit Tests")
+class ImageHeaderReaderTest {
+
+    private final ImageHeaderReader reader = new ImageHeaderReader();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"png", "jpeg", "gif"})
+    @DisplayName("Should read dimensions from encoded images")
+    void read_EncodedImage_ReturnsDimensions(String format) throws Exception {
+        // Given
+        byte[] data = encode(format, 123, 45);
+
+        // When
+        Optional<ImageHeader> header = reader.read(new ByteArrayInputStream(data));
+
+        // Then
+        assertThat(header).isPresent();
+        assertThat(header.get().format()).isEqualTo(format);
+        assertThat(header.get().width()).isEqualTo(123);
+        assertThat(header.get().height()).isEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("Should read lossless WebP dimensions")
+    void read_WebpLossless_ReturnsDimensions() throws Exception {
+        // Given
+        int bits = 299 | (199 << 14);
+        byte[] data = {
+            'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+            'V', 'P', '8', 'L', 5, 0, 0, 0,
+            0x2F, (byte) bits, (byte) (bits >> 8), (byte) (bits >> 16), (byte) (bits >> 24)
+        };
+
+        // When
+        Optional<ImageHeader> header = reader.read(new ByteArrayInputStream(data));
+
+        // Then
+        assertThat(header).contains(new ImageHeader("webp", 300, 200, 1));
+    }
+
+    @Test
+    @DisplayName("Should read extended WebP canvas dimensions")
+    void read_WebpExtended_ReturnsDimensions() throws Exception {
+        // Given - canvas 1920x1080 stored as value minus one
+        byte[] data = {
+            'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+            'V', 'P', '8', 'X', 10, 0, 0, 0,
+            0, 0, 0, 0,
+            (byte) 0x7F, 0x07, 0x00,
+            0x37, 0x04, 0x00
+        };
+
+        // When
+        Optional<ImageHeader> header = reader.read(new ByteArrayInputStream(data));
+
+        // Then
+        assertThat(header).contains(new ImageHeader("webp", 1920, 1080, 1));
+    }
+
+    @Test
+    @DisplayName("Should honor EXIF orientation for JPEG display dimensions")
+    void read_JpegWithExifOrientation_SwapsDisplayDimensions() throws Exception {
+        // Given
+        byte[] jpeg = encode("jpeg", 40, 30);
+        byte[] withExif = insertAfterSoi(jpeg, exifSegment(6));
+
+        // When
+        ImageHeader header = reader.read(new ByteArrayInputStream(withExif)).orElseThrow();
+
+        // Then
+        assertThat(header.orientation()).isEqualTo(6);
+        assertThat(header.displayWidth()).isEqualTo(30);
+        assertThat(header.displayHeight()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown formats")
+    void read_UnknownFormat_ReturnsEmpty() throws Exception {
+        assertThat(reader.read(new ByteArrayInputStream(new byte[2048]))).isEmpty();
+        assertThat(reader.read(new ByteArrayInputStream(new byte[4]))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return empty for truncated PNG")
+    void read_TruncatedPng_ReturnsEmpty() throws Exception {
+        // Given
+        byte[] png = encode("png", 10, 10);
+        byte[] truncated = java.util.Arrays.copyOf(png, 14);
+
+        // When / Then
+        assertThat(reader.read(new ByteArrayInputStream(truncated))).isEmpty();
+    }
+
+    // Helper methods
+
+    private byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private byte[] exifSegment(int orientation) {
+        byte[] tiff = {
+            'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+            0, 0, 0, 0
+        };
+        int length = 2 + 6 + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        out.writeBytes(tiff);
+        return out.toByteArray();
+    }
+
+    private byte[] insertAfterSoi(byte[] jpeg, byte[] segment) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.writeBytes(segment);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
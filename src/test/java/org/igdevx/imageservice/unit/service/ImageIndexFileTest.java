@@ -0,0 +1,108 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.service.ImageIndexFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("ImageIndexFile Unit Tests")
+class ImageIndexFileTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageIndexFile index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = ImageIndexFile.create(directory, "test", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Should return every field of a stored image")
+    void get_StoredImage_RoundTrips() {
+        // Given
+        Image image = image("product-001", LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000));
+        image.setPlaceholder("LEHV6nWB2yk8pyo0adR*.7kCMdnj");
+
+        // When
+        index.put("p:product-001", image);
+        Image found = index.get("p:product-001");
+
+        // Then
+        assertThat(found).usingRecursiveComparison().isEqualTo(image);
+        assertThat(index.get("p:product-002")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep finding keys past a removed one and reuse its slot")
+    void remove_KeepsProbeRunsIntact() {
+        // Given - more keys than fit without collisions in a small table
+        for (int i = 0; i < 600; i++) {
+            index.put("p:product-" + i, image("product-" + i, LocalDateTime.now()));
+        }
+
+        // When
+        for (int i = 0; i < 600; i += 2) {
+            index.remove("p:product-" + i);
+        }
+        index.put("p:product-0", image("product-0", LocalDateTime.now()));
+
+        // Then
+        assertThat(index.size()).isEqualTo(301);
+        assertThat(index.get("p:product-2")).isNull();
+        for (int i = 1; i < 600; i += 2) {
+            assertThat(index.get("p:product-" + i)).isNotNull();
+        }
+        assertThat(index.get("p:product-0")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the latest upload when a snapshot returns older images later")
+    void putIfNewer_OlderImage_Ignored() {
+        // Given
+        Image newer = image("product-001", LocalDateTime.of(2026, 5, 2, 10, 0));
+        Image older = image("product-001", LocalDateTime.of(2026, 5, 1, 10, 0));
+
+        // When
+        index.putIfNewer("p:product-001", newer);
+        index.putIfNewer("p:product-001", older);
+
+        // Then
+        assertThat(index.get("p:product-001").getId()).isEqualTo(newer.getId());
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private Image image(String productId, LocalDateTime uploadedAt) {
+        return Image.builder()
+            .id(UUID.randomUUID())
+            .entityType(Image.EntityType.PRODUCT)
+            .userId("producteur-001")
+            .productId(productId)
+            .cloudPath("products/producteur-001/" + productId + ".webp")
+            .fileName("photo é.jpg")
+            .shard("primary")
+            .contentType("image/webp")
+            .sizeBytes(48_213L)
+            .width(1200)
+            .height(800)
+            .uploadedAt(uploadedAt)
+            .build();
+    }
+}
@@ -0,0 +1,209 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.minio.StatObjectResponse;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageJob;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.ImageHeaderReader;
+import org.igdevx.imageservice.service.ImageJobProcessor;
+import org.igdevx.imageservice.service.ImageOptimizer;
+import org.igdevx.imageservice.service.ImagePlaceholderService;
+import org.igdevx.imageservice.service.MinioService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageJobProcessor Unit Tests")
+class ImageJobProcessorTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private ImageHeaderReader imageHeaderReader;
+
+    @Mock
+    private ImagePlaceholderService imagePlaceholderService;
+
+    @Mock
+    private ImageOptimizer imageOptimizer;
+
+    @InjectMocks
+    private ImageJobProcessor jobProcessor;
+
+    @Test
+    @DisplayName("Should record the size of an object optimized by an interrupted attempt without re-encoding it")
+    void process_ObjectAlreadyOptimized_RecordsSizeOnly() throws Exception {
+        // Given - the previous attempt stored the object, then its worker died
+        Image image = image(48_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse stat = optimizedStat(31_000L);
+        when(minioService.statFile("primary", image.getCloudPath())).thenReturn(Optional.of(stat));
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(imageRepository).updateStoredObject(image.getId(), "image/jpeg", 31_000L);
+        verify(minioService, never()).downloadFile(any(), anyString());
+        verifyNoInteractions(imageOptimizer);
+    }
+
+    @Test
+    @DisplayName("Should leave an optimized object whose size is already recorded alone")
+    void process_OptimizationRecorded_DoesNothing() throws Exception {
+        // Given - the previous attempt also recorded the size but did not complete the job
+        Image image = image(31_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse stat = optimizedStat(31_000L);
+        when(minioService.statFile("primary", image.getCloudPath())).thenReturn(Optional.of(stat));
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(imageRepository, never()).updateStoredObject(any(), any(), any());
+        verify(minioService, never()).replaceBytes(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(imageOptimizer);
+    }
+
+    @Test
+    @DisplayName("Should store the optimized object and record its size when the original is unchanged")
+    void process_OriginalUnchanged_StoresOptimizedObject() throws Exception {
+        // Given
+        Image image = image(48_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse original = originalStat("etag-original");
+        StatObjectResponse stored = originalStat("etag-optimized");
+        when(minioService.statFile("primary", image.getCloudPath()))
+            .thenReturn(Optional.of(original), Optional.of(original), Optional.of(stored));
+        givenOptimizedImage(image);
+        when(minioService.replaceBytes(eq("primary"), any(), eq(image.getCloudPath()), eq("image/jpeg"), any(),
+            eq("etag-original"))).thenReturn(Optional.of("etag-optimized"));
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(imageRepository).updateStoredObject(image.getId(), "image/jpeg", 3L);
+    }
+
+    @Test
+    @DisplayName("Should not overwrite an object replaced by a newer upload while it was optimized")
+    void process_ReplacedBeforeWrite_KeepsNewObject() throws Exception {
+        // Given - a new profile picture lands at the same path during the re-encode
+        Image image = image(48_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse original = originalStat("etag-original");
+        StatObjectResponse replaced = originalStat("etag-new-upload");
+        when(minioService.statFile("primary", image.getCloudPath()))
+            .thenReturn(Optional.of(original), Optional.of(replaced));
+        givenOptimizedImage(image);
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(minioService, never()).replaceBytes(any(), any(), any(), any(), any(), any());
+        verify(imageRepository, never()).updateStoredObject(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not record the optimized size when a newer upload overwrote the optimized object")
+    void process_ReplacedAfterWrite_LeavesRowAlone() throws Exception {
+        // Given
+        Image image = image(48_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse original = originalStat("etag-original");
+        StatObjectResponse replaced = originalStat("etag-new-upload");
+        when(minioService.statFile("primary", image.getCloudPath()))
+            .thenReturn(Optional.of(original), Optional.of(original), Optional.of(replaced));
+        givenOptimizedImage(image);
+        when(minioService.replaceBytes(any(), any(), any(), any(), any(), any()))
+            .thenReturn(Optional.of("etag-optimized"));
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(imageRepository, never()).updateStoredObject(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not record the optimized size when the server rejects the conditional write")
+    void process_ConditionalWriteRejected_LeavesRowAlone() throws Exception {
+        // Given
+        Image image = image(48_000L);
+        when(imageRepository.findByIdAndDeletedAtIsNull(image.getId())).thenReturn(Optional.of(image));
+        StatObjectResponse original = originalStat("etag-original");
+        when(minioService.statFile("primary", image.getCloudPath())).thenReturn(Optional.of(original));
+        givenOptimizedImage(image);
+        when(minioService.replaceBytes(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        jobProcessor.process(job(image));
+
+        // Then
+        verify(imageRepository, never()).updateStoredObject(any(), any(), any());
+    }
+
+    private void givenOptimizedImage(Image image) throws Exception {
+        when(minioService.downloadFile("primary", image.getCloudPath()))
+            .thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+        when(imageHeaderReader.read(any())).thenReturn(Optional.empty());
+        when(imageOptimizer.optimize(any(), isNull(), eq(image.getEntityType())))
+            .thenReturn(Optional.of(new ImageOptimizer.OptimizedImage(new byte[]{1, 2, 3}, "image/jpeg")));
+    }
+
+    private static StatObjectResponse originalStat(String etag) {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        lenient().when(stat.userMetadata()).thenReturn(Map.of());
+        lenient().when(stat.etag()).thenReturn(etag);
+        return stat;
+    }
+
+    private static StatObjectResponse optimizedStat(long size) {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.userMetadata()).thenReturn(Map.of(MinioService.OPTIMIZED_METADATA, "true"));
+        lenient().when(stat.size()).thenReturn(size);
+        lenient().when(stat.contentType()).thenReturn("image/jpeg");
+        return stat;
+    }
+
+    private static Image image(long sizeBytes) {
+        return Image.builder()
+            .id(UUID.randomUUID())
+            .entityType(Image.EntityType.PRODUCT)
+            .userId("producteur-001")
+            .shard("primary")
+            .cloudPath("products/producteur-001/photo.jpg")
+            .contentType("image/jpeg")
+            .sizeBytes(sizeBytes)
+            .build();
+    }
+
+    private static ImageJob job(Image image) {
+        return ImageJob.builder()
+            .id(1L)
+            .imageId(image.getId())
+            .jobType(ImageJob.JobType.OPTIMIZE)
+            .build();
+    }
+}
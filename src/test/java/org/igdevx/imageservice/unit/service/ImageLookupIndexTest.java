@@ -0,0 +1,287 @@
+package org.igdevx.imageservice.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageIndexConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageEvent;
+import org.igdevx.imageservice.repository.ImageEventRepository;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.ImageLookupIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+// The index reads from its own thread, so some stubs are only used depending on timing
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ImageLookupIndex Unit Tests")
+class ImageLookupIndexTest {
+
+    private static final Image FALLBACK = Image.builder().id(UUID.randomUUID()).build();
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageEventRepository imageEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImageLookupIndex lookupIndex;
+
+    @BeforeEach
+    void setUp() {
+        ImageIndexConfig indexConfig = new ImageIndexConfig();
+        indexConfig.setEnabled(true);
+        indexConfig.setDirectory(directory);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        lookupIndex = new ImageLookupIndex(indexConfig, imageRepository, imageEventRepository, jdbcTemplate,
+            new ObjectMapper(), transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupIndex.destroy();
+    }
+
+    @Test
+    @DisplayName("Should answer lookups from the snapshot once the index is built")
+    void onListening_SnapshotBuilt_AnswersFromIndex() throws Exception {
+        // Given
+        Image product = productImage("product-001");
+        givenSnapshot(product);
+
+        // When
+        lookupIndex.onListening();
+
+        // Then
+        eventually(() -> assertThat(findProduct("product-001")).get()
+            .extracting(Image::getId).isEqualTo(product.getId()));
+        assertThat(findProduct("product-002")).isEmpty();
+        assertThat(lookupIndex.findByUserAndType(
+            "producteur-001", Image.EntityType.PRODUCT, () -> Optional.of(FALLBACK))).contains(FALLBACK);
+    }
+
+    @Test
+    @DisplayName("Should re-read a key named by a notification and answer with the newest image")
+    void onNotification_KeyChanged_RefreshedFromPrimary() throws Exception {
+        // Given
+        givenBuiltIndex();
+        Image newer = profileImage("producteur-001", LocalDateTime.of(2026, 6, 2, 10, 0));
+        Image older = profileImage("producteur-001", LocalDateTime.of(2026, 6, 1, 10, 0));
+        when(imageRepository.findActiveUserImagesByUserIds(new String[]{"producteur-001"}))
+            .thenReturn(List.of(newer, older));
+
+        // When
+        lookupIndex.onNotification("[{\"userId\":\"producteur-001\",\"productId\":null}]");
+
+        // Then
+        eventually(() -> assertThat(findProfile("producteur-001")).get()
+            .extracting(Image::getId).isEqualTo(newer.getId()));
+    }
+
+    @Test
+    @DisplayName("Should bypass the index while events below the catch-up horizon are unpublished")
+    void onNotification_FlushAll_WaitsForHorizon() throws Exception {
+        // Given
+        givenBuiltIndex();
+        AtomicBoolean unpublished = new AtomicBoolean(true);
+        when(imageEventRepository.findTransactionHorizon()).thenReturn(100L);
+        when(imageEventRepository.existsUnpublishedBefore(100L)).thenAnswer(invocation -> unpublished.get());
+
+        // When
+        lookupIndex.onNotification("*");
+
+        // Then - held back by an older transaction still running
+        verify(imageEventRepository, timeout(5_000).atLeast(3)).existsUnpublishedBefore(100L);
+        assertThat(findProduct("product-001")).contains(FALLBACK);
+
+        unpublished.set(false);
+        eventually(() -> assertThat(findProduct("product-001")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should catch up from the event log after a notification without keys")
+    void onNotification_FlushAll_MarksKeysOfLoggedEvents() throws Exception {
+        // Given
+        givenBuiltIndex();
+        Image product = productImage("product-001");
+        when(imageEventRepository.findTransactionHorizon()).thenReturn(100L);
+        when(imageEventRepository.findLatestSeq()).thenReturn(1L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), any()))
+            .thenReturn(List.of(event(1L, "product-001")));
+        when(imageRepository.findActiveByProductIds(new String[]{"product-001"})).thenReturn(List.of(product));
+
+        // When
+        lookupIndex.onNotification("*");
+
+        // Then
+        eventually(() -> assertThat(findProduct("product-001")).get()
+            .extracting(Image::getId).isEqualTo(product.getId()));
+        verify(imageEventRepository).existsUnpublishedBefore(100L);
+    }
+
+    @Test
+    @DisplayName("Should move the event cursor after a keyed notification so a catch-up only reads new events")
+    void onNotification_Keyed_AdvancesEventCursor() throws Exception {
+        // Given
+        givenBuiltIndex();
+        when(imageEventRepository.findLatestSeq()).thenReturn(2L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), any()))
+            .thenReturn(List.of(event(1L, "product-001"), event(2L, "product-001")));
+        when(imageEventRepository.findTransactionHorizon()).thenReturn(100L);
+
+        // When
+        lookupIndex.onNotification("[{\"userId\":null,\"productId\":\"product-001\"}]");
+        verify(imageEventRepository, timeout(5_000)).findBySeqGreaterThanOrderBySeqAsc(eq(0L), any());
+        lookupIndex.onNotification("*");
+
+        // Then
+        verify(imageEventRepository, timeout(5_000)).existsUnpublishedBefore(100L);
+        eventually(() -> assertThat(findProduct("product-001")).isEmpty());
+        verify(imageEventRepository, times(1)).findBySeqGreaterThanOrderBySeqAsc(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from a new snapshot when the event log was pruned past its position")
+    void onNotification_LogPruned_Rebuilds() throws Exception {
+        // Given - events 1 and 2 were pruned before the index read them
+        givenBuiltIndex();
+        when(imageEventRepository.findLatestSeq()).thenReturn(5L);
+        when(imageEventRepository.findBySeqGreaterThanOrderBySeqAsc(eq(0L), any()))
+            .thenReturn(List.of(event(3L, "product-001")));
+
+        // When
+        lookupIndex.onNotification("[{\"userId\":null,\"productId\":\"product-002\"}]");
+
+        // Then
+        verify(jdbcTemplate, timeout(5_000).times(2))
+            .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        eventually(() -> assertThat(findProduct("product-001")).isEmpty());
+    }
+
+    // Helper methods
+
+    private void givenBuiltIndex() throws Exception {
+        lookupIndex.onListening();
+        eventually(() -> assertThat(findProduct("product-001")).isEmpty());
+    }
+
+    private void givenSnapshot(Image... images) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Image image : images) {
+                handler.processRow(row(image));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private Optional<Image> findProduct(String productId) {
+        return lookupIndex.findByProductId(productId, () -> Optional.of(FALLBACK));
+    }
+
+    private Optional<Image> findProfile(String userId) {
+        return lookupIndex.findByUserAndType(userId, Image.EntityType.USER_PROFILE, () -> Optional.of(FALLBACK));
+    }
+
+    private static void eventually(Runnable assertion) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static ResultSet row(Image image) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject("id", UUID.class)).thenReturn(image.getId());
+        when(resultSet.getString("entity_type")).thenReturn(image.getEntityType().name());
+        when(resultSet.getString("user_id")).thenReturn(image.getUserId());
+        when(resultSet.getString("product_id")).thenReturn(image.getProductId());
+        when(resultSet.getString("cloud_path")).thenReturn(image.getCloudPath());
+        when(resultSet.getString("shard")).thenReturn(image.getShard());
+        when(resultSet.getString("content_type")).thenReturn(image.getContentType());
+        when(resultSet.getTimestamp("uploaded_at")).thenReturn(Timestamp.valueOf(image.getUploadedAt()));
+        when(resultSet.getBoolean("is_primary")).thenReturn(image.isPrimary());
+        return resultSet;
+    }
+
+    private static Image productImage(String productId) {
+        return Image.builder()
+            .id(UUID.randomUUID())
+            .entityType(Image.EntityType.PRODUCT)
+            .userId("producteur-001")
+            .productId(productId)
+            .cloudPath("products/producteur-001/" + productId + ".webp")
+            .shard("primary")
+            .contentType("image/webp")
+            .uploadedAt(LocalDateTime.of(2026, 6, 1, 10, 0))
+            .primary(true)
+            .build();
+    }
+
+    private static Image profileImage(String userId, LocalDateTime uploadedAt) {
+        return Image.builder()
+            .id(UUID.randomUUID())
+            .entityType(Image.EntityType.USER_PROFILE)
+            .userId(userId)
+            .cloudPath("users/" + userId + "/profile.jpg")
+            .shard("primary")
+            .contentType("image/jpeg")
+            .uploadedAt(uploadedAt)
+            .build();
+    }
+
+    private static ImageEvent event(long seq, String productId) {
+        return ImageEvent.builder()
+            .seq(seq)
+            .type(ImageEvent.Type.CREATED)
+            .entityType(Image.EntityType.PRODUCT)
+            .userId("producteur-001")
+            .productId(productId)
+            .build();
+    }
+}
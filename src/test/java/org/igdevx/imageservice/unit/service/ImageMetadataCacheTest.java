@@ -0,0 +1,107 @@
+package org.igdevx.imageservice.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageCacheConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.service.ImageLookupIndex;
+import org.igdevx.imageservice.service.ImageMetadataCache;
+import org.igdevx.imageservice.service.ReadYourWritesTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageMetadataCache Unit Tests")
+class ImageMetadataCacheTest {
+
+    private static final String USER_ID = "user-001";
+    private static final String PRODUCT_ID = "product-001";
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ImageLookupIndex lookupIndex;
+
+    private CacheManager cacheManager;
+    private ImageMetadataCache imageCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ImageCacheConfig().cacheManager();
+        imageCache = new ImageMetadataCache(cacheManager, readYourWrites, new ObjectMapper(), lookupIndex);
+    }
+
+    @Test
+    @DisplayName("Should evict the image, its user's and its product's entries named in a notification")
+    void onNotification_EvictsAffectedKeys() {
+        // Given
+        UUID imageId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        put(ImageCacheConfig.IMAGES, imageId);
+        put(ImageCacheConfig.IMAGES, otherId);
+        put(ImageCacheConfig.USER_IMAGES, USER_ID);
+        put(ImageCacheConfig.USER_IMAGE, ImageMetadataCache.userKey(USER_ID, Image.EntityType.USER_PROFILE));
+        put(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID);
+
+        // When
+        imageCache.onNotification("[{\"id\":\"" + imageId + "\",\"userId\":\"" + USER_ID
+            + "\",\"productId\":\"" + PRODUCT_ID + "\"}]");
+
+        // Then
+        assertThat(cached(ImageCacheConfig.IMAGES, imageId)).isFalse();
+        assertThat(cached(ImageCacheConfig.USER_IMAGES, USER_ID)).isFalse();
+        assertThat(cached(ImageCacheConfig.USER_IMAGE,
+            ImageMetadataCache.userKey(USER_ID, Image.EntityType.USER_PROFILE))).isFalse();
+        assertThat(cached(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID)).isFalse();
+        assertThat(cached(ImageCacheConfig.IMAGES, otherId)).isTrue();
+        verify(readYourWrites).recordImageWrite(imageId, USER_ID, PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("Should flush everything on a flush-all notification")
+    void onNotification_FlushAll_ClearsEveryCache() {
+        // Given
+        put(ImageCacheConfig.IMAGES, UUID.randomUUID());
+        put(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID);
+
+        // When
+        imageCache.onNotification("*");
+
+        // Then
+        assertThat(cached(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID)).isFalse();
+        verifyNoInteractions(readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should flush everything when a notification cannot be read")
+    void onNotification_Unreadable_ClearsEveryCache() {
+        // Given
+        put(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID);
+
+        // When
+        imageCache.onNotification("not json");
+
+        // Then
+        assertThat(cached(ImageCacheConfig.PRODUCT_IMAGE, PRODUCT_ID)).isFalse();
+    }
+
+    private void put(String cacheName, Object key) {
+        cacheManager.getCache(cacheName).put(key, "cached");
+    }
+
+    private boolean cached(String cacheName, Object key) {
+        return cacheManager.getCache(cacheName).get(key) != null;
+    }
+}
@@ -0,0 +1,215 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImageDecoderConfig;
+import org.igdevx.imageservice.config.ImageOptimizationConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.service.BoundedImageDecoder;
+import org.igdevx.imageservice.service.ImageHeader;
+import org.igdevx.imageservice.service.ImageOptimizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("ImageOptimizer Unit Tests")
+class ImageOptimizerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImageOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        ImageOptimizationConfig optimizationConfig = new ImageOptimizationConfig();
+        optimizationConfig.setEnabledFor(EnumSet.of(Image.EntityType.PRODUCT));
+        optimizationConfig.setJpegQuality(0.7f);
+        meterRegistry = new SimpleMeterRegistry();
+        optimizer = new ImageOptimizer(optimizationConfig, new BoundedImageDecoder(new ImageDecoderConfig()), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should only be enabled for configured entity types")
+    void isEnabled_ConfiguredTypes() {
+        assertThat(optimizer.isEnabled(Image.EntityType.PRODUCT)).isTrue();
+        assertThat(optimizer.isEnabled(Image.EntityType.USER_PROFILE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should re-encode a max quality JPEG into a smaller file and record bytes saved")
+    void optimize_HighQualityJpeg_ReturnsSmallerFile() throws Exception {
+        // Given
+        byte[] original = jpeg(noise(400, 300), 1.0f);
+        ImageHeader header = new ImageHeader("jpeg", 400, 300, 1);
+
+        // When
+        Optional<ImageOptimizer.OptimizedImage> result = optimizer.optimize(original, header, Image.EntityType.PRODUCT);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().data().length).isLessThan(original.length);
+        assertThat(result.get().contentType()).isEqualTo("image/jpeg");
+        assertThat(ImageIO.read(new ByteArrayInputStream(result.get().data())).getWidth()).isEqualTo(400);
+        assertThat(meterRegistry.counter("image.optimization.bytes.saved", "entityType", "PRODUCT").count())
+            .isEqualTo(original.length - result.get().data().length);
+    }
+
+    @Test
+    @DisplayName("Should bake EXIF orientation into re-encoded pixels")
+    void optimize_RotatedJpeg_PixelsRotated() throws Exception {
+        // Given
+        byte[] original = jpeg(noise(400, 300), 1.0f);
+        ImageHeader header = new ImageHeader("jpeg", 400, 300, 6);
+
+        // When
+        ImageOptimizer.OptimizedImage result = optimizer.optimize(original, header, Image.EntityType.PRODUCT).orElseThrow();
+
+        // Then
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.data()));
+        assertThat(decoded.getWidth()).isEqualTo(300);
+        assertThat(decoded.getHeight()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Should keep the original when re-encoding does not shrink it")
+    void optimize_AlreadySmall_ReturnsEmpty() throws Exception {
+        // Given
+        byte[] original = jpeg(noise(64, 64), 0.1f);
+        ImageHeader header = new ImageHeader("jpeg", 64, 64, 1);
+
+        // When / Then
+        assertThat(optimizer.optimize(original, header, Image.EntityType.PRODUCT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip formats it cannot re-encode")
+    void optimize_UnsupportedFormat_ReturnsEmpty() {
+        ImageHeader header = new ImageHeader("webp", 10, 10, 1);
+
+        assertThat(optimizer.optimize(new byte[100], header, Image.EntityType.PRODUCT)).isEmpty();
+        assertThat(optimizer.optimize(new byte[100], null, Image.EntityType.PRODUCT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a JPEG with an embedded colour profile as uploaded")
+    void optimize_JpegWithIccProfile_ReturnsEmpty() throws Exception {
+        // Given - a wide-gamut phone photo would shift colour without its profile
+        byte[] original = insertAfter(jpeg(noise(400, 300), 1.0f), 2, iccSegment());
+        ImageHeader header = new ImageHeader("jpeg", 400, 300, 1);
+
+        // When / Then
+        assertThat(optimizer.optimize(original, header, Image.EntityType.PRODUCT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep an animated PNG as uploaded")
+    void optimize_AnimatedPng_ReturnsEmpty() throws Exception {
+        // Given - an acTL chunk right after IHDR marks an APNG
+        byte[] original = insertAfter(png(gradient(100, 100)), 33, pngChunk("acTL", new byte[8]));
+        ImageHeader header = new ImageHeader("png", 100, 100, 1);
+
+        // When / Then
+        assertThat(optimizer.optimize(original, header, Image.EntityType.PRODUCT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a PNG with an embedded colour profile as uploaded")
+    void optimize_PngWithIccProfile_ReturnsEmpty() throws Exception {
+        // Given
+        byte[] original = insertAfter(png(gradient(100, 100)), 33, pngChunk("iCCP", new byte[16]));
+        ImageHeader header = new ImageHeader("png", 100, 100, 1);
+
+        // When / Then
+        assertThat(optimizer.optimize(original, header, Image.EntityType.PRODUCT)).isEmpty();
+    }
+
+    // Helper methods
+
+    private BufferedImage gradient(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x << 16) | (y << 8) | ((x + y) & 0xFF));
+            }
+        }
+        return image;
+    }
+
+    private byte[] png(BufferedImage image) throws IOException {
+        // Lowest deflate effort, so the lossless re-encode shrinks it
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(1.0f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] iccSegment() {
+        byte[] payload = "ICC_PROFILE\0\1\1profile-data".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer segment = ByteBuffer.allocate(4 + payload.length);
+        segment.put((byte) 0xFF).put((byte) 0xE2).putShort((short) (2 + payload.length)).put(payload);
+        return segment.array();
+    }
+
+    private byte[] pngChunk(String type, byte[] data) {
+        // The CRC is left zeroed: the chunk is detected before any decoding
+        ByteBuffer chunk = ByteBuffer.allocate(12 + data.length);
+        chunk.putInt(data.length).put(type.getBytes(StandardCharsets.US_ASCII)).put(data).putInt(0);
+        return chunk.array();
+    }
+
+    private byte[] insertAfter(byte[] data, int offset, byte[] inserted) {
+        ByteBuffer result = ByteBuffer.allocate(data.length + inserted.length);
+        result.put(data, 0, offset).put(inserted).put(data, offset, data.length - offset);
+        return result.array();
+    }
+
+    private BufferedImage noise(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        java.util.Random random = new java.util.Random(42);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        return image;
+    }
+
+    private byte[] jpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
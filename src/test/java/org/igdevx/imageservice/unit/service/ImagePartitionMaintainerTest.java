@@ -0,0 +1,125 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ImagePartitionConfig;
+import org.igdevx.imageservice.dto.ImagePartitionResponse;
+import org.igdevx.imageservice.exception.PartitionBusyException;
+import org.igdevx.imageservice.exception.PartitionInUseException;
+import org.igdevx.imageservice.service.ImagePartitionMaintainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImagePartitionMaintainer Unit Tests")
+class ImagePartitionMaintainerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ImagePartitionConfig partitionConfig = new ImagePartitionConfig();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ImagePartitionMaintainer partitionMaintainer;
+
+    @Test
+    @DisplayName("Should create partitions from the current month through the configured months ahead")
+    void createUpcomingPartitions_CoversMonthsAhead() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq("SELECT create_image_partitions(?, ?)"), eq(Integer.class), any(), any()))
+            .thenReturn(1);
+
+        // When
+        partitionMaintainer.createUpcomingPartitions();
+
+        // Then
+        LocalDate today = LocalDate.now();
+        verify(jdbcTemplate).queryForObject("SELECT create_image_partitions(?, ?)", Integer.class,
+            today, today.plusMonths(3));
+    }
+
+    @Test
+    @DisplayName("Should refuse to detach a month that still holds live images")
+    void detach_LiveImages_Refused() {
+        // Given
+        when(jdbcTemplate.queryForObject(contains("pg_inherits"), eq(Boolean.class), eq("images_2025_01")))
+            .thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("\"images_2025_01\" WHERE deleted_at IS NULL"), eq(Boolean.class)))
+            .thenReturn(true);
+
+        // When / Then
+        assertThatThrownBy(() -> partitionMaintainer.detach(YearMonth.of(2025, 1)))
+            .isInstanceOf(PartitionInUseException.class);
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT detach_image_partition(?)"), eq(String.class), any());
+    }
+
+    @Test
+    @DisplayName("Should move the table and each index in their own transaction under the lock timeout")
+    void moveToTablespace_EachStatementInOwnTransaction() {
+        // Given
+        givenPartitionAndTablespace();
+        when(jdbcTemplate.queryForList(contains("pg_index"), eq(String.class), eq("images_2025_01")))
+            .thenReturn(List.of("images_2025_01_pkey"));
+        when(jdbcTemplate.query(contains("pg_total_relation_size"), any(RowMapper.class)))
+            .thenReturn(List.of(ImagePartitionResponse.builder().name("images_2025_01").tablespace("cold").build()));
+
+        // When
+        ImagePartitionResponse moved = partitionMaintainer.moveToTablespace(YearMonth.of(2025, 1), "cold");
+
+        // Then
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("SET LOCAL lock_timeout = 5000");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE \"images_2025_01\" SET TABLESPACE \"cold\"");
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("SET LOCAL lock_timeout = 5000");
+        inOrder.verify(jdbcTemplate).execute("ALTER INDEX images_2025_01_pkey SET TABLESPACE \"cold\"");
+        inOrder.verify(transactionManager).commit(any());
+        assertThat(moved.getTablespace()).isEqualTo("cold");
+    }
+
+    @Test
+    @DisplayName("Should report a busy partition when its lock is not acquired in time")
+    void moveToTablespace_LockTimeout_PartitionBusy() {
+        // Given
+        givenPartitionAndTablespace();
+        lenient().doThrow(new CannotAcquireLockException("canceling statement due to lock timeout"))
+            .when(jdbcTemplate).execute(startsWith("ALTER TABLE"));
+
+        // When / Then
+        assertThatThrownBy(() -> partitionMaintainer.moveToTablespace(YearMonth.of(2025, 1), "cold"))
+            .isInstanceOf(PartitionBusyException.class);
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER INDEX"));
+    }
+
+    private void givenPartitionAndTablespace() {
+        when(jdbcTemplate.queryForObject(contains("pg_inherits"), eq(Boolean.class), eq("images_2025_01")))
+            .thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_tablespace"), eq(Boolean.class), eq("cold")))
+            .thenReturn(true);
+    }
+}
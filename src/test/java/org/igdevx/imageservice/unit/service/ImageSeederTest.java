@@ -0,0 +1,141 @@
+package org.igdevx.imageservice.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.StatObjectResponse;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.igdevx.imageservice.dto.UploadResponse;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.seed.ImageSeeder;
+import org.igdevx.imageservice.seed.SeedManifest;
+import org.igdevx.imageservice.service.ImageService;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.StorageShard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageSeeder Unit Tests")
+class ImageSeederTest {
+
+    private static final String MANIFEST_PATH = ".image-service/seed-manifest.json";
+    // Bundled in src/main/resources/seed-images
+    private static final int SEED_FILES = 7;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private MinioInitializer minioInitializer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ImageSeeder imageSeeder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageSeeder = new ImageSeeder(imageRepository, minioService, imageService, minioInitializer, objectMapper);
+        when(minioInitializer.awaitReady(any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should upload every seed file and record them in the manifest on a fresh environment")
+    void run_NoManifest_UploadsAllAndWritesManifest() throws Exception {
+        // Given
+        when(minioService.statFile(StorageShard.PRIMARY, MANIFEST_PATH)).thenReturn(Optional.empty());
+        when(imageService.uploadImage(any(), any(), any(), any()))
+            .thenAnswer(invocation -> UploadResponse.builder().imageId(UUID.randomUUID().toString()).build());
+
+        // When
+        imageSeeder.run();
+
+        // Then
+        verify(imageService, times(SEED_FILES)).uploadImage(any(), any(), any(), any());
+        verify(imageService, never()).deleteImage(any());
+        assertThat(writtenManifest().files()).hasSize(SEED_FILES)
+            .containsKey("profiles/profile-jane.png");
+    }
+
+    @Test
+    @DisplayName("Should upload nothing when the stored manifest matches the seed files")
+    void run_ManifestUpToDate_UploadsNothing() throws Exception {
+        // Given - a first boot
+        when(minioService.statFile(StorageShard.PRIMARY, MANIFEST_PATH)).thenReturn(Optional.empty());
+        when(imageService.uploadImage(any(), any(), any(), any()))
+            .thenAnswer(invocation -> UploadResponse.builder().imageId(UUID.randomUUID().toString()).build());
+        imageSeeder.run();
+        SeedManifest manifest = writtenManifest();
+        clearInvocations(imageService, minioService);
+
+        when(minioService.statFile(StorageShard.PRIMARY, MANIFEST_PATH))
+            .thenReturn(Optional.of(mock(StatObjectResponse.class)));
+        when(minioService.downloadFile(StorageShard.PRIMARY, MANIFEST_PATH))
+            .thenReturn(new ByteArrayInputStream(objectMapper.writeValueAsBytes(manifest)));
+        when(imageRepository.findAllById(any())).thenReturn(manifest.files().values().stream()
+            .map(entry -> Image.builder().id(entry.imageId()).build())
+            .toList());
+
+        // When - the next boot
+        imageSeeder.run();
+
+        // Then
+        verifyNoInteractions(imageService);
+        verify(minioService, never()).uploadBytes(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should re-upload a seed file whose image was deleted, and drop files no longer bundled")
+    void run_ImageMissingAndFileRemoved_ReuploadsAndDeletes() throws Exception {
+        // Given
+        UUID removedImageId = UUID.randomUUID();
+        SeedManifest.Entry removed = new SeedManifest.Entry("abc", "user-009", null, removedImageId);
+        SeedManifest.Entry deleted = new SeedManifest.Entry("def", "user-001", null, UUID.randomUUID());
+        SeedManifest stored = new SeedManifest(Map.of(
+            "profiles/removed.png", removed,
+            "profiles/profile-jane.png", deleted));
+        when(minioService.statFile(StorageShard.PRIMARY, MANIFEST_PATH))
+            .thenReturn(Optional.of(mock(StatObjectResponse.class)));
+        when(minioService.downloadFile(StorageShard.PRIMARY, MANIFEST_PATH))
+            .thenReturn(new ByteArrayInputStream(objectMapper.writeValueAsBytes(stored)));
+        when(imageRepository.findAllById(any())).thenReturn(List.of(Image.builder().id(removedImageId).build()));
+        when(imageService.uploadImage(any(), any(), any(), any()))
+            .thenAnswer(invocation -> UploadResponse.builder().imageId(UUID.randomUUID().toString()).build());
+
+        // When
+        imageSeeder.run();
+
+        // Then
+        verify(imageService).deleteImage(removedImageId);
+        verify(imageService, times(SEED_FILES)).uploadImage(any(), any(), any(), any());
+        assertThat(writtenManifest().files()).doesNotContainKey("profiles/removed.png");
+    }
+
+    private SeedManifest writtenManifest() throws Exception {
+        ArgumentCaptor<byte[]> json = ArgumentCaptor.forClass(byte[].class);
+        verify(minioService).uploadBytes(eq(StorageShard.PRIMARY), json.capture(), eq(MANIFEST_PATH), eq("application/json"));
+        return objectMapper.readValue(json.getValue(), SeedManifest.class);
+    }
+}
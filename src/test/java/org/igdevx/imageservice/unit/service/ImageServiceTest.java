@@ -1,23 +1,44 @@
 package org.igdevx.imageservice.unit.service;
 
+import io.minio.StatObjectResponse;
 import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.DirectUploadConfig;
 import org.igdevx.imageservice.dto.ImageResponse;
+import org.igdevx.imageservice.dto.UploadIntentRequest;
+import org.igdevx.imageservice.dto.UploadIntentResponse;
 import org.igdevx.imageservice.dto.UploadResponse;
+import org.igdevx.imageservice.exception.QueueSaturatedException;
 import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.model.ImageJob;
 import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.BoundedImageDecoder;
+import org.igdevx.imageservice.service.ImageHeader;
+import org.igdevx.imageservice.service.ImageHeaderReader;
+import org.igdevx.imageservice.service.ImageJobQueue;
+import org.igdevx.imageservice.service.ImageLookup;
+import org.igdevx.imageservice.service.ImageMetadataCache;
+import org.igdevx.imageservice.service.ImageOptimizer;
+import org.igdevx.imageservice.service.ImagePlaceholderService;
 import org.igdevx.imageservice.service.ImageService;
+import org.igdevx.imageservice.service.MinioPresigner;
 import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.ProductGalleryService;
+import org.igdevx.imageservice.service.ReadYourWritesTracker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,6 +59,42 @@ class ImageServiceTest {
     @Mock
     private MinioService minioService;
 
+    @Mock
+    private ImageHeaderReader imageHeaderReader;
+
+    @Mock
+    private ImagePlaceholderService imagePlaceholderService;
+
+    @Mock
+    private BoundedImageDecoder imageDecoder;
+
+    @Mock
+    private ImageOptimizer imageOptimizer;
+
+    @Mock
+    private ImageJobQueue imageJobQueue;
+
+    @Mock
+    private MinioPresigner minioPresigner;
+
+    @Spy
+    private DirectUploadConfig directUploadConfig = new DirectUploadConfig();
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ImageMetadataCache imageCache;
+
+    @Mock
+    private ImageLookup imageLookup;
+
+    @Mock
+    private ProductGalleryService galleryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ImageService imageService;
 
@@ -62,7 +119,7 @@ class ImageServiceTest {
                     return img;
                 });
 
-            when(minioService.getPresignedUrl(anyString()))
+            when(minioService.getPresignedUrl(any(), anyString()))
                 .thenReturn("http://minio.local/users/restaurateur-001/profile.jpg");
 
             // When
@@ -79,7 +136,7 @@ class ImageServiceTest {
             assertThat(response.getCloudPath()).isEqualTo("users/restaurateur-001/profile.jpg");
             assertThat(response.getUrl()).contains("minio");
 
-            verify(minioService).uploadFile(eq(file), eq("users/restaurateur-001/profile.jpg"));
+            verify(minioService).uploadFile(any(), eq(file), eq("users/restaurateur-001/profile.jpg"));
             verify(imageRepository).save(argThat(img ->
                 img.getUserId().equals(RESTAURATEUR_USER_ID) &&
                 img.getEntityType() == Image.EntityType.USER_PROFILE &&
@@ -100,7 +157,7 @@ class ImageServiceTest {
                     return img;
                 });
 
-            when(minioService.getPresignedUrl(anyString()))
+            when(minioService.getPresignedUrl(any(), anyString()))
                 .thenReturn("http://minio.local/users/producteur-001/profile.jpg");
 
             // When
@@ -143,7 +200,7 @@ class ImageServiceTest {
 
             // Then
             assertThat(response.getCloudPath()).isEqualTo("users/restaurateur-001/profile.jpg");
-            verify(minioService).uploadFile(any(), eq("users/restaurateur-001/profile.jpg"));
+            verify(minioService).uploadFile(any(), any(), eq("users/restaurateur-001/profile.jpg"));
         }
     }
 
@@ -228,7 +285,7 @@ class ImageServiceTest {
                     return img;
                 });
 
-            when(minioService.getPresignedUrl(anyString()))
+            when(minioService.getPresignedUrl(any(), anyString()))
                 .thenReturn("http://minio.local/products/producteur-001/xyz.jpg");
 
             // When
@@ -316,6 +373,148 @@ class ImageServiceTest {
             // Then - Image is saved (business validation is upstream)
             assertThat(response).isNotNull();
         }
+
+        @Test
+        @DisplayName("Should store dimensions read from the image header")
+        void uploadImage_HeaderDimensions_Stored() throws Exception {
+            // Given
+            MultipartFile file = createMockImage("product.jpg", "image/jpeg", 2048);
+
+            when(imageHeaderReader.read(any()))
+                .thenReturn(Optional.of(new ImageHeader("jpeg", 800, 600, 1)));
+            when(imageRepository.save(any(Image.class)))
+                .thenAnswer(invocation -> {
+                    Image img = invocation.getArgument(0);
+                    img.setId(UUID.randomUUID());
+                    return img;
+                });
+
+            // When
+            UploadResponse response = imageService.uploadImage(
+                file,
+                Image.EntityType.PRODUCT,
+                PRODUCTEUR_USER_ID,
+                PRODUCT_ID
+            );
+
+            // Then
+            assertThat(response.getWidth()).isEqualTo(800);
+            assertThat(response.getHeight()).isEqualTo(600);
+            verify(imageRepository).save(argThat(img ->
+                img.getWidth() == 800 && img.getHeight() == 600
+            ));
+        }
+
+        @Test
+        @DisplayName("Should swap dimensions for rotated EXIF orientation")
+        void uploadImage_RotatedOrientation_DimensionsSwapped() throws Exception {
+            // Given
+            MultipartFile file = createMockImage("photo.jpg", "image/jpeg", 2048);
+
+            when(imageHeaderReader.read(any()))
+                .thenReturn(Optional.of(new ImageHeader("jpeg", 4032, 3024, 6)));
+            when(imageRepository.save(any(Image.class)))
+                .thenAnswer(invocation -> {
+                    Image img = invocation.getArgument(0);
+                    img.setId(UUID.randomUUID());
+                    return img;
+                });
+
+            // When
+            UploadResponse response = imageService.uploadImage(
+                file,
+                Image.EntityType.USER_PROFILE,
+                RESTAURATEUR_USER_ID,
+                null
+            );
+
+            // Then
+            assertThat(response.getWidth()).isEqualTo(3024);
+            assertThat(response.getHeight()).isEqualTo(4032);
+        }
+
+        @Test
+        @DisplayName("Should enqueue placeholder job instead of processing on the request thread")
+        void uploadImage_PlaceholderEnabled_EnqueuesJob() throws Exception {
+            // Given
+            MultipartFile file = createMockImage("product.jpg", "image/jpeg", 2048);
+
+            when(imageHeaderReader.read(any()))
+                .thenReturn(Optional.of(new ImageHeader("jpeg", 800, 600, 1)));
+            when(imagePlaceholderService.isEnabled()).thenReturn(true);
+            when(imageRepository.save(any(Image.class)))
+                .thenAnswer(invocation -> {
+                    Image img = invocation.getArgument(0);
+                    img.setId(UUID.randomUUID());
+                    return img;
+                });
+
+            // When
+            imageService.uploadImage(
+                file,
+                Image.EntityType.PRODUCT,
+                PRODUCTEUR_USER_ID,
+                PRODUCT_ID
+            );
+
+            // Then
+            verify(imageJobQueue).enqueue(any(Image.class), eq(ImageJob.JobType.PLACEHOLDER));
+            verify(imageJobQueue, never()).enqueue(any(Image.class), eq(ImageJob.JobType.OPTIMIZE));
+            verify(imagePlaceholderService, never()).generate(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should enqueue optimization job when enabled for the entity type")
+        void uploadImage_OptimizationEnabled_EnqueuesJob() throws Exception {
+            // Given
+            MultipartFile file = createMockImage("product.jpg", "image/jpeg", 2048);
+
+            when(imageHeaderReader.read(any()))
+                .thenReturn(Optional.of(new ImageHeader("jpeg", 800, 600, 1)));
+            when(imageOptimizer.isEnabled(Image.EntityType.PRODUCT)).thenReturn(true);
+            when(imageRepository.save(any(Image.class)))
+                .thenAnswer(invocation -> {
+                    Image img = invocation.getArgument(0);
+                    img.setId(UUID.randomUUID());
+                    return img;
+                });
+
+            // When
+            imageService.uploadImage(
+                file,
+                Image.EntityType.PRODUCT,
+                PRODUCTEUR_USER_ID,
+                PRODUCT_ID
+            );
+
+            // Then - original is stored as received, re-encoding happens later
+            verify(minioService).uploadFile(any(), eq(file), startsWith("products/producteur-001/"));
+            verify(imageJobQueue).enqueue(any(Image.class), eq(ImageJob.JobType.OPTIMIZE));
+        }
+
+        @Test
+        @DisplayName("Should refuse upload when the processing backlog is full")
+        void uploadImage_QueueSaturated_ThrowsException() throws Exception {
+            // Given - the file name is never reached, so only validation is stubbed
+            MultipartFile file = mock(MultipartFile.class);
+            when(file.isEmpty()).thenReturn(false);
+            when(file.getContentType()).thenReturn("image/jpeg");
+            when(file.getSize()).thenReturn(2048L);
+
+            doThrow(new QueueSaturatedException("Processing backlog is full", 30))
+                .when(imageJobQueue).checkCapacity();
+
+            // When / Then
+            assertThatThrownBy(() -> imageService.uploadImage(
+                file,
+                Image.EntityType.PRODUCT,
+                PRODUCTEUR_USER_ID,
+                PRODUCT_ID
+            )).isInstanceOf(QueueSaturatedException.class);
+
+            verify(minioService, never()).uploadFile(any(), any(), anyString());
+            verify(imageRepository, never()).save(any());
+        }
     }
 
     @Nested
@@ -333,12 +532,12 @@ class ImageServiceTest {
                 "users/restaurateur-001/profile.jpg"
             );
 
-            when(imageRepository.findByUserIdAndEntityTypeAndDeletedAtIsNull(
+            when(imageLookup.findByUserAndType(
                 RESTAURATEUR_USER_ID,
                 Image.EntityType.USER_PROFILE
-            )).thenReturn(List.of(profileImage));
+            )).thenReturn(Optional.of(profileImage));
 
-            when(minioService.getPresignedUrl(anyString()))
+            when(minioService.getPresignedUrl(any(), anyString()))
                 .thenReturn("http://minio.local/users/restaurateur-001/profile.jpg");
 
             // When
@@ -365,10 +564,10 @@ class ImageServiceTest {
                 "users/producteur-001/banner.jpg"
             );
 
-            when(imageRepository.findByUserIdAndEntityTypeAndDeletedAtIsNull(
+            when(imageLookup.findByUserAndType(
                 PRODUCTEUR_USER_ID,
                 Image.EntityType.USER_BANNER
-            )).thenReturn(List.of(bannerImage));
+            )).thenReturn(Optional.of(bannerImage));
 
             // When
             ImageResponse response = imageService.getImageByUserAndType(
@@ -385,10 +584,10 @@ class ImageServiceTest {
         @DisplayName("Should return null when image not found")
         void getImageByUserAndType_NotFound_ReturnsNull() {
             // Given
-            when(imageRepository.findByUserIdAndEntityTypeAndDeletedAtIsNull(
+            when(imageLookup.findByUserAndType(
                 RESTAURATEUR_USER_ID,
                 Image.EntityType.USER_PROFILE
-            )).thenReturn(List.of());
+            )).thenReturn(Optional.empty());
 
             // When
             ImageResponse response = imageService.getImageByUserAndType(
@@ -411,7 +610,7 @@ class ImageServiceTest {
                 "products/producteur-001/xyz.jpg"
             );
 
-            when(imageRepository.findByProductIdAndDeletedAtIsNull(PRODUCT_ID))
+            when(imageLookup.findByProductId(PRODUCT_ID))
                 .thenReturn(Optional.of(productImage));
 
             // When
@@ -470,7 +669,7 @@ class ImageServiceTest {
             when(imageRepository.findByIdAndDeletedAtIsNull(imageId))
                 .thenReturn(Optional.of(image));
 
-            doNothing().when(minioService).deleteFile(anyString());
+            doNothing().when(minioService).deleteFile(any(), anyString());
 
             // When
             imageService.deleteImage(imageId);
@@ -479,11 +678,11 @@ class ImageServiceTest {
             verify(imageRepository).save(argThat(img ->
                 img.getDeletedAt() != null
             ));
-            verify(minioService).deleteFile("users/restaurateur-001/profile.jpg");
+            verify(minioService).deleteFile(eq("primary"), eq("users/restaurateur-001/profile.jpg"));
         }
 
         @Test
-        @DisplayName("Should delete product image by productId")
+        @DisplayName("Should delete every image of the product gallery")
         void deleteImageByProductId_Success() throws Exception {
             // Given
             Image productImage = createImage(
@@ -492,49 +691,79 @@ class ImageServiceTest {
                 PRODUCT_ID,
                 "products/producteur-001/xyz.jpg"
             );
+            Image secondImage = createImage(
+                PRODUCTEUR_USER_ID,
+                Image.EntityType.PRODUCT,
+                PRODUCT_ID,
+                "products/producteur-001/abc.jpg"
+            );
 
             when(imageRepository.findByProductIdAndDeletedAtIsNull(PRODUCT_ID))
-                .thenReturn(Optional.of(productImage));
+                .thenReturn(List.of(productImage, secondImage));
 
             // When
             imageService.deleteImageByProductId(PRODUCT_ID);
 
             // Then
-            verify(imageRepository).save(argThat(img ->
+            verify(imageRepository, times(2)).save(argThat(img ->
                 img.getDeletedAt() != null &&
                 img.getProductId().equals(PRODUCT_ID)
             ));
-            verify(minioService).deleteFile("products/producteur-001/xyz.jpg");
+            verify(minioService).deleteFile(eq("primary"), eq("products/producteur-001/xyz.jpg"));
+            verify(minioService).deleteFile(eq("primary"), eq("products/producteur-001/abc.jpg"));
         }
 
         @Test
         @DisplayName("Should delete all images when user account is deleted")
         void deleteAllUserImages_UserDeleted_RemovesAllImages() throws Exception {
             // Given - Producteur with profile, banner, and 2 products
-            List<Image> userImages = List.of(
-                createImage(PRODUCTEUR_USER_ID, Image.EntityType.USER_PROFILE, null, "users/producteur-001/profile.jpg"),
-                createImage(PRODUCTEUR_USER_ID, Image.EntityType.USER_BANNER, null, "users/producteur-001/banner.jpg"),
-                createImage(PRODUCTEUR_USER_ID, Image.EntityType.PRODUCT, "product-001", "products/producteur-001/p1.jpg"),
-                createImage(PRODUCTEUR_USER_ID, Image.EntityType.PRODUCT, "product-002", "products/producteur-001/p2.jpg")
+            List<ImageRepository.StoredObject> userImages = List.of(
+                storedObject(null, "users/producteur-001/profile.jpg"),
+                storedObject(null, "users/producteur-001/banner.jpg"),
+                storedObject("product-001", "products/producteur-001/p1.jpg"),
+                storedObject("product-002", "products/producteur-001/p2.jpg")
             );
 
-            when(imageRepository.findByUserIdAndDeletedAtIsNull(PRODUCTEUR_USER_ID))
+            when(imageRepository.softDeleteUserBatch(eq(PRODUCTEUR_USER_ID), any(), anyInt()))
                 .thenReturn(userImages);
 
             // When
             imageService.deleteAllUserImages(PRODUCTEUR_USER_ID);
 
-            // Then
-            verify(imageRepository).saveAll(argThat(images -> {
-                for (Image img : images) {
-                    if (img.getDeletedAt() == null) {
-                        return false;
-                    }
-                }
-                return true;
-            }));
-            verify(minioService).deleteFolder("users/producteur-001/");
-            verify(minioService).deleteFolder("products/producteur-001/");
+            // Then - one set-based update, then exactly those keys removed
+            verify(imageRepository).softDeleteUserBatch(eq(PRODUCTEUR_USER_ID), any(), anyInt());
+            verify(minioService).deleteFiles("primary", List.of(
+                "users/producteur-001/profile.jpg",
+                "users/producteur-001/banner.jpg",
+                "products/producteur-001/p1.jpg",
+                "products/producteur-001/p2.jpg"
+            ));
+            verify(minioService, never()).deleteFolder(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should keep purging in batches until the user has no images left")
+        void deleteAllUserImages_ManyImages_PurgesInBatches() throws Exception {
+            // Given - one full batch followed by a partial one
+            List<ImageRepository.StoredObject> fullBatch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                fullBatch.add(storedObject("product-" + i, "products/producteur-001/p" + i + ".jpg"));
+            }
+            when(imageRepository.softDeleteUserBatch(eq(PRODUCTEUR_USER_ID), any(), anyInt()))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(storedObject(null, "users/producteur-001/profile.jpg")));
+
+            // When
+            imageService.deleteAllUserImages(PRODUCTEUR_USER_ID);
+
+            // Then - each batch commits before its objects are removed, the user keys are evicted once
+            InOrder inOrder = inOrder(transactionManager, minioService);
+            inOrder.verify(transactionManager).commit(any());
+            inOrder.verify(minioService).deleteFiles(eq("primary"), anyList());
+            inOrder.verify(transactionManager).commit(any());
+            inOrder.verify(minioService).deleteFiles(eq("primary"), anyList());
+            verify(imageRepository, times(2)).softDeleteUserBatch(eq(PRODUCTEUR_USER_ID), any(), anyInt());
+            verify(imageCache, times(1)).evictAfterCommit(null, PRODUCTEUR_USER_ID, null);
         }
 
         @Test
@@ -554,7 +783,7 @@ class ImageServiceTest {
                 .thenReturn(Optional.of(image));
 
             doThrow(new IOException("MinIO connection failed"))
-                .when(minioService).deleteFile(anyString());
+                .when(minioService).deleteFile(any(), anyString());
 
             // When
             imageService.deleteImage(imageId);
@@ -566,6 +795,159 @@ class ImageServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Direct Upload Tests")
+    class DirectUploadTests {
+
+        @Test
+        @DisplayName("Should reserve a pending image and return a presigned PUT URL")
+        void createUploadIntent_Valid_CreatesPendingImage() throws Exception {
+            // Given
+            UploadIntentRequest request = UploadIntentRequest.builder()
+                .entityType(Image.EntityType.USER_PROFILE)
+                .userId(RESTAURATEUR_USER_ID)
+                .fileName("profile.jpg")
+                .contentType("image/jpeg")
+                .sizeBytes(2048L)
+                .build();
+
+            when(imageRepository.save(any(Image.class)))
+                .thenAnswer(invocation -> {
+                    Image img = invocation.getArgument(0);
+                    img.setId(UUID.randomUUID());
+                    return img;
+                });
+            when(minioPresigner.presignUpload(any(), anyString(), any()))
+                .thenReturn("http://minio.local/marche-conclu-images/upload?X-Amz-Signature=abc");
+
+            // When
+            UploadIntentResponse response = imageService.createUploadIntent(request);
+
+            // Then
+            assertThat(response.getMethod()).isEqualTo("PUT");
+            assertThat(response.getUploadUrl()).contains("X-Amz-Signature");
+            assertThat(response.getCloudPath()).startsWith("users/restaurateur-001/profile-").endsWith(".jpg");
+
+            verify(imageRepository).save(argThat(img ->
+                img.getStatus() == Image.Status.PENDING &&
+                img.getSizeBytes() == 2048L
+            ));
+            verify(minioService, never()).uploadFile(any(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject an intent declaring a file above the size limit")
+        void createUploadIntent_TooLarge_ThrowsException() {
+            // Given
+            UploadIntentRequest request = UploadIntentRequest.builder()
+                .entityType(Image.EntityType.PRODUCT)
+                .userId(PRODUCTEUR_USER_ID)
+                .productId(PRODUCT_ID)
+                .fileName("product.jpg")
+                .contentType("image/jpeg")
+                .sizeBytes(11L * 1024 * 1024)
+                .build();
+
+            // When / Then
+            assertThatThrownBy(() -> imageService.createUploadIntent(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10 MB");
+
+            verify(imageRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should activate the image once the stored object is verified")
+        void completeUpload_Verified_ActivatesImage() throws Exception {
+            // Given
+            Image pending = createPendingImage();
+            StatObjectResponse stat = mockStat(2048L, "image/jpeg");
+
+            when(imageRepository.findPendingForUpdate(pending.getId())).thenReturn(Optional.of(pending));
+            when(minioService.statFile("primary", pending.getCloudPath())).thenReturn(Optional.of(stat));
+            when(minioService.downloadRange(eq("primary"), eq(pending.getCloudPath()), eq(0L), eq(2048L)))
+                .thenReturn(new ByteArrayInputStream(new byte[16]));
+            when(imageHeaderReader.read(any())).thenReturn(Optional.of(new ImageHeader("jpeg", 800, 600, 1)));
+            when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            UploadResponse response = imageService.completeUpload(pending.getId());
+
+            // Then
+            assertThat(response.getWidth()).isEqualTo(800);
+            assertThat(response.getHeight()).isEqualTo(600);
+            verify(imageRepository).save(argThat(img -> img.getStatus() == Image.Status.ACTIVE));
+            verify(minioService, never()).deleteFile(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should discard the stored object when its size differs from the intent")
+        void completeUpload_SizeMismatch_DiscardsObject() throws Exception {
+            // Given
+            Image pending = createPendingImage();
+            StatObjectResponse stat = mockStat(4096L, "image/jpeg");
+
+            when(imageRepository.findPendingForUpdate(pending.getId())).thenReturn(Optional.of(pending));
+            when(minioService.statFile("primary", pending.getCloudPath())).thenReturn(Optional.of(stat));
+
+            // When / Then
+            assertThatThrownBy(() -> imageService.completeUpload(pending.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not match declared size");
+
+            verify(minioService).deleteFile("primary", pending.getCloudPath());
+            verify(imageRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should keep the intent pending when nothing has been uploaded yet")
+        void completeUpload_NothingUploaded_ThrowsException() throws Exception {
+            // Given
+            Image pending = createPendingImage();
+
+            when(imageRepository.findPendingForUpdate(pending.getId())).thenReturn(Optional.of(pending));
+            when(minioService.statFile("primary", pending.getCloudPath())).thenReturn(Optional.empty());
+
+            // When / Then
+            assertThatThrownBy(() -> imageService.completeUpload(pending.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+            verify(minioService, never()).deleteFile(any(), anyString());
+            verify(imageRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should throw when no pending upload exists")
+        void completeUpload_UnknownId_ThrowsException() {
+            // Given
+            UUID imageId = UUID.randomUUID();
+            when(imageRepository.findPendingForUpdate(imageId)).thenReturn(Optional.empty());
+
+            // When / Then
+            assertThatThrownBy(() -> imageService.completeUpload(imageId))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Pending upload not found");
+        }
+
+        private Image createPendingImage() {
+            Image image = createImage(
+                RESTAURATEUR_USER_ID,
+                Image.EntityType.USER_PROFILE,
+                null,
+                "users/restaurateur-001/profile-" + UUID.randomUUID() + ".jpg"
+            );
+            image.setStatus(Image.Status.PENDING);
+            return image;
+        }
+
+        private StatObjectResponse mockStat(long size, String contentType) {
+            StatObjectResponse stat = mock(StatObjectResponse.class);
+            lenient().when(stat.size()).thenReturn(size);
+            lenient().when(stat.contentType()).thenReturn(contentType);
+            return stat;
+        }
+    }
+
     // Helper methods
 
     private MultipartFile createMockImage(String filename, String contentType, long size) {
@@ -582,6 +964,31 @@ class ImageServiceTest {
         return file;
     }
 
+    private ImageRepository.StoredObject storedObject(String productId, String cloudPath) {
+        UUID id = UUID.randomUUID();
+        return new ImageRepository.StoredObject() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getProductId() {
+                return productId;
+            }
+
+            @Override
+            public String getShard() {
+                return "primary";
+            }
+
+            @Override
+            public String getCloudPath() {
+                return cloudPath;
+            }
+        };
+    }
+
     private Image createImage(String userId, Image.EntityType entityType, String productId, String cloudPath) {
         return Image.builder()
             .id(UUID.randomUUID())
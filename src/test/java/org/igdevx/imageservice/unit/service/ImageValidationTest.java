@@ -1,10 +1,22 @@
 package org.igdevx.imageservice.unit.service;
 
 import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.DirectUploadConfig;
 import org.igdevx.imageservice.model.Image;
 import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.BoundedImageDecoder;
+import org.igdevx.imageservice.service.ImageHeader;
+import org.igdevx.imageservice.service.ImageHeaderReader;
+import org.igdevx.imageservice.service.ImageJobQueue;
+import org.igdevx.imageservice.service.ImageLookup;
+import org.igdevx.imageservice.service.ImageMetadataCache;
+import org.igdevx.imageservice.service.ImageOptimizer;
+import org.igdevx.imageservice.service.ImagePlaceholderService;
 import org.igdevx.imageservice.service.ImageService;
+import org.igdevx.imageservice.service.MinioPresigner;
 import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.ProductGalleryService;
+import org.igdevx.imageservice.service.ReadYourWritesTracker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +24,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,6 +48,39 @@ class ImageValidationTest {
     @Mock
     private MinioService minioService;
 
+    @Mock
+    private ImageHeaderReader imageHeaderReader;
+
+    @Mock
+    private ImagePlaceholderService imagePlaceholderService;
+
+    @Mock
+    private BoundedImageDecoder imageDecoder;
+
+    @Mock
+    private ImageOptimizer imageOptimizer;
+
+    @Mock
+    private ImageJobQueue imageJobQueue;
+
+    @Mock
+    private MinioPresigner minioPresigner;
+
+    @Spy
+    private DirectUploadConfig directUploadConfig = new DirectUploadConfig();
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ImageMetadataCache imageCache;
+
+    @Mock
+    private ImageLookup imageLookup;
+
+    @Mock
+    private ProductGalleryService galleryService;
+
     @InjectMocks
     private ImageService imageService;
 
@@ -154,6 +201,33 @@ class ImageValidationTest {
         ).doesNotThrowAnyException();
     }
 
+    @Test
+    @DisplayName("Should reject image whose header exceeds the pixel limit")
+    void validateImage_TooManyPixels_ThrowsException() throws Exception {
+        // Given
+        MultipartFile file = createMockImage("bomb.png", "image/png", 2048);
+
+        when(imageHeaderReader.read(any()))
+            .thenReturn(Optional.of(new ImageHeader("png", 100_000, 100_000, 1)));
+        doThrow(new IllegalArgumentException("Image dimensions 100000x100000 exceed the maximum of 40000000 pixels"))
+            .when(imageDecoder).checkDimensions(any(ImageHeader.class));
+
+        // When / Then
+        assertThatThrownBy(() ->
+            imageService.uploadImage(
+                file,
+                Image.EntityType.PRODUCT,
+                PRODUCTEUR_USER_ID,
+                "product-001"
+            )
+        )
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("exceed the maximum");
+
+        verify(minioService, never()).uploadFile(any(), any(), anyString());
+        verify(imageRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should reject file with null content type")
     void validateImage_NullContentType_ThrowsException() {
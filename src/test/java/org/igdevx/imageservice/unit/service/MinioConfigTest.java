@@ -0,0 +1,66 @@
+package org.igdevx.imageservice.unit.service;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("MinioConfig Unit Tests")
+class MinioConfigTest {
+
+    @Test
+    @DisplayName("Should apply the configured dispatcher limits and timeouts to each transport")
+    void httpClients_ConfiguredPools_ReachOkHttp() {
+        // Given
+        MinioConfig config = new MinioConfig();
+        MinioConfig.Pool read = config.getTransport().getRead();
+        read.setMaxRequests(128);
+        read.setMaxRequestsPerHost(96);
+        read.setConnectTimeout(Duration.ofSeconds(2));
+        read.setReadTimeout(Duration.ofSeconds(7));
+        read.setWriteTimeout(Duration.ofSeconds(8));
+        read.setCallTimeout(Duration.ofSeconds(20));
+        MinioConfig.Pool write = config.getTransport().getWrite();
+        write.setMaxRequests(12);
+        write.setMaxRequestsPerHost(6);
+
+        // When
+        OkHttpClient readClient = config.minioReadHttpClient();
+        OkHttpClient writeClient = config.minioWriteHttpClient();
+
+        // Then
+        assertThat(readClient.dispatcher().getMaxRequests()).isEqualTo(128);
+        assertThat(readClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(96);
+        assertThat(readClient.connectTimeoutMillis()).isEqualTo(2_000);
+        assertThat(readClient.readTimeoutMillis()).isEqualTo(7_000);
+        assertThat(readClient.writeTimeoutMillis()).isEqualTo(8_000);
+        assertThat(readClient.callTimeoutMillis()).isEqualTo(20_000);
+        assertThat(readClient.protocols()).containsExactly(Protocol.HTTP_1_1);
+
+        assertThat(writeClient.dispatcher().getMaxRequests()).isEqualTo(12);
+        assertThat(writeClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(6);
+        assertThat(writeClient.dispatcher()).isNotSameAs(readClient.dispatcher());
+        assertThat(writeClient.connectionPool()).isNotSameAs(readClient.connectionPool());
+    }
+
+    @Test
+    @DisplayName("Should give writes a smaller pool with longer timeouts by default")
+    void httpClients_Defaults_WritePoolDiffers() {
+        // When
+        MinioConfig config = new MinioConfig();
+        OkHttpClient readClient = config.minioReadHttpClient();
+        OkHttpClient writeClient = config.minioWriteHttpClient();
+
+        // Then
+        assertThat(readClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(64);
+        assertThat(writeClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(32);
+        assertThat(writeClient.writeTimeoutMillis()).isEqualTo(120_000);
+    }
+}
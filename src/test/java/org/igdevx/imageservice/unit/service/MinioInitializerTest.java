@@ -0,0 +1,109 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MinioInitializer Unit Tests")
+class MinioInitializerTest {
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private MinioInitializer minioInitializer;
+
+    @BeforeEach
+    void setUp() {
+        StorageShard primary = new StorageShard(StorageShard.PRIMARY, "http://localhost:9000", "http://localhost:9000",
+            "marche-conclu-images-test", null, 1, null, null, null, null);
+        minioInitializer = new MinioInitializer(minioService, new StorageShardRegistry(List.of(primary), 16),
+            new MinioConfig(), taskScheduler);
+    }
+
+    @Test
+    @DisplayName("Should not touch storage on the startup thread")
+    void initializeBuckets_SchedulesInBackground() {
+        // When
+        minioInitializer.initializeBuckets();
+
+        // Then
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        verifyNoInteractions(minioService);
+        assertThat(minioInitializer.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should retry until storage is reachable, then report ready")
+    void initializeBuckets_StorageUnavailable_RetriesUntilReady() {
+        // Given - MinIO down for the first attempt
+        doThrow(new RuntimeException("Unable to create bucket", new RuntimeException("Connection refused")))
+            .doNothing()
+            .when(minioService).ensureBucketExists(StorageShard.PRIMARY);
+        minioInitializer.initializeBuckets();
+
+        // When - first attempt fails and schedules a retry
+        runLastScheduledTask(1);
+
+        // Then
+        assertThat(minioInitializer.isReady()).isFalse();
+        assertThat(minioInitializer.pendingShards()).containsEntry(StorageShard.PRIMARY, "Connection refused");
+
+        // When - the retry succeeds
+        runLastScheduledTask(2);
+
+        // Then
+        assertThat(minioInitializer.isReady()).isTrue();
+        assertThat(minioInitializer.pendingShards()).isEmpty();
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should cap the retry delay")
+    void initializeBuckets_RepeatedFailures_BackoffCapped() {
+        // Given
+        doThrow(new RuntimeException("Unable to create bucket"))
+            .when(minioService).ensureBucketExists(StorageShard.PRIMARY);
+        minioInitializer.initializeBuckets();
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            runLastScheduledTask(i);
+        }
+
+        // Then - the 10th retry waits the configured maximum, not 2^9 seconds
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler, times(11)).schedule(any(Runnable.class), at.capture());
+        Duration lastDelay = Duration.between(Instant.now(), at.getValue());
+        assertThat(lastDelay).isLessThanOrEqualTo(Duration.ofSeconds(30));
+    }
+
+    private void runLastScheduledTask(int scheduledSoFar) {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(scheduledSoFar)).schedule(task.capture(), any(Instant.class));
+        task.getValue().run();
+    }
+}
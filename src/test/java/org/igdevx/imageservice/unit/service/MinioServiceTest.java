@@ -1,16 +1,21 @@
 package org.igdevx.imageservice.unit.service;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.ErrorResponse;
 import io.minio.messages.Item;
 import org.igdevx.imageservice.UnitTest;
-import org.igdevx.imageservice.config.MinioConfig;
 import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.ParallelMultipartUploader;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,6 +23,8 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,18 +40,20 @@ class MinioServiceTest {
     private MinioClient minioClient;
 
     @Mock
-    private MinioConfig minioConfig;
+    private ParallelMultipartUploader multipartUploader;
 
-    @InjectMocks
     private MinioService minioService;
 
+    private StorageShard shard;
+
     private static final String BUCKET_NAME = "marche-conclu-images-test";
     private static final String ENDPOINT = "http://localhost:9000";
 
     @BeforeEach
     void setUp() {
-        lenient().when(minioConfig.getBucketName()).thenReturn(BUCKET_NAME);
-        lenient().when(minioConfig.getEndpoint()).thenReturn(ENDPOINT);
+        shard = new StorageShard(StorageShard.PRIMARY, ENDPOINT, ENDPOINT, BUCKET_NAME, null, 1,
+            minioClient, minioClient, null, null);
+        minioService = new MinioService(new StorageShardRegistry(List.of(shard), 16), multipartUploader);
     }
 
     @Nested
@@ -62,25 +71,31 @@ class MinioServiceTest {
             doNothing().when(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
 
             // When
-            minioService.ensureBucketExists();
+            minioService.ensureBucketExists(StorageShard.PRIMARY);
 
             // Then
             verify(minioClient).bucketExists(any(BucketExistsArgs.class));
             verify(minioClient).makeBucket(any(MakeBucketArgs.class));
             verify(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
+            verify(minioClient).putObject(argThat(args -> args.object().equals(".image-service/initialized")));
         }
 
         @Test
-        @DisplayName("Should not create bucket if already exists")
-        void ensureBucketExists_BucketExists_DoesNotCreateAgain() throws Exception {
+        @DisplayName("Should apply the policy to an existing bucket that was never initialized")
+        void ensureBucketExists_BucketExistsWithoutMarker_AppliesPolicy() throws Exception {
             // Given
             when(minioClient.bucketExists(any(BucketExistsArgs.class)))
                 .thenReturn(true);
+            when(minioClient.statObject(any(StatObjectArgs.class)))
+                .thenThrow(new ErrorResponseException(
+                    new ErrorResponse("NoSuchKey", "Object does not exist", BUCKET_NAME, ".image-service/initialized",
+                        null, null, null),
+                    null, null));
 
             doNothing().when(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
 
             // When
-            minioService.ensureBucketExists();
+            minioService.ensureBucketExists(StorageShard.PRIMARY);
 
             // Then
             verify(minioClient).bucketExists(any(BucketExistsArgs.class));
@@ -88,6 +103,29 @@ class MinioServiceTest {
             verify(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
         }
 
+        @Test
+        @DisplayName("Should not re-apply the policy when the bucket was already initialized")
+        void ensureBucketExists_AlreadyInitialized_OnlyReads() throws Exception {
+            // Given - the marker written by a first initialization
+            when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+                .thenReturn(false, true);
+            minioService.ensureBucketExists(StorageShard.PRIMARY);
+            ArgumentCaptor<PutObjectArgs> marker = ArgumentCaptor.forClass(PutObjectArgs.class);
+            verify(minioClient).putObject(marker.capture());
+            String policyHash = marker.getValue().userMetadata().values().iterator().next();
+
+            StatObjectResponse stat = mock(StatObjectResponse.class);
+            when(stat.userMetadata()).thenReturn(Map.of("policy-sha256", policyHash));
+            when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+
+            // When
+            minioService.ensureBucketExists(StorageShard.PRIMARY);
+
+            // Then - only the first boot wrote anything
+            verify(minioClient, times(1)).setBucketPolicy(any(SetBucketPolicyArgs.class));
+            verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        }
+
         @Test
         @DisplayName("Should throw exception when bucket creation fails")
         void ensureBucketExists_CreationFails_ThrowsException() throws Exception {
@@ -96,7 +134,7 @@ class MinioServiceTest {
                 .thenThrow(new RuntimeException("Connection failed"));
 
             // When / Then
-            assertThatThrownBy(() -> minioService.ensureBucketExists())
+            assertThatThrownBy(() -> minioService.ensureBucketExists(StorageShard.PRIMARY))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Unable to create bucket");
         }
@@ -145,6 +183,25 @@ class MinioServiceTest {
             verify(minioClient).putObject(any(PutObjectArgs.class));
         }
 
+        @Test
+        @DisplayName("Should use parallel multipart upload for large files")
+        void uploadFile_LargeFile_UsesMultipartUpload() throws Exception {
+            // Given
+            String cloudPath = "users/producteur-001/banner.jpg";
+            long size = 64L * 1024 * 1024;
+            MultipartFile file = createMockFile("banner.jpg", "image/jpeg", 1024);
+            when(file.getSize()).thenReturn(size);
+            when(multipartUploader.accepts(size)).thenReturn(true);
+
+            // When
+            String result = minioService.uploadFile(file, cloudPath);
+
+            // Then
+            assertThat(result).isEqualTo(cloudPath);
+            verify(multipartUploader).upload(eq(shard), any(InputStream.class), eq(size), eq(cloudPath), eq("image/jpeg"));
+            verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+        }
+
         @Test
         @DisplayName("Should throw exception when upload fails")
         void uploadFile_MinioError_ThrowsException() throws Exception {
@@ -245,6 +302,38 @@ class MinioServiceTest {
             ));
         }
 
+        @Test
+        @DisplayName("Should remove the given keys with one multi-object delete")
+        void deleteFiles_Keys_RemovesInBulk() throws Exception {
+            // Given
+            List<String> cloudPaths = List.of("users/producteur-001/profile.jpg", "products/producteur-001/p1.jpg");
+            when(minioClient.removeObjects(any(RemoveObjectsArgs.class)))
+                .thenReturn(List.of());
+
+            // When
+            minioService.deleteFiles(StorageShard.PRIMARY, cloudPaths);
+
+            // Then
+            verify(minioClient).removeObjects(argThat(args -> args.bucket().equals(BUCKET_NAME)));
+            verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+        }
+
+        @Test
+        @DisplayName("Should fail when MinIO reports keys it could not delete")
+        void deleteFiles_DeleteError_ThrowsException() throws Exception {
+            // Given
+            DeleteError error = mock(DeleteError.class);
+            when(error.objectName()).thenReturn("users/producteur-001/profile.jpg");
+            Result<DeleteError> result = new Result<>(error);
+            when(minioClient.removeObjects(any(RemoveObjectsArgs.class)))
+                .thenReturn(List.of(result));
+
+            // When / Then
+            assertThatThrownBy(() -> minioService.deleteFiles(StorageShard.PRIMARY, List.of("users/producteur-001/profile.jpg")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("1 of 1");
+        }
+
         // Helper class for empty iterable
         private static class EmptyIterable implements Iterable<Result<Item>> {
             @Override
@@ -0,0 +1,142 @@
+package org.igdevx.imageservice.unit.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.config.MinioInitializer;
+import org.igdevx.imageservice.service.MinioTransportMonitor;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@DisplayName("MinioTransportMonitor Unit Tests")
+class MinioTransportMonitorTest {
+
+    private final Map<String, AtomicInteger> probes = new ConcurrentHashMap<>();
+    private final ExecutorService serverThreads = Executors.newFixedThreadPool(8);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MinioConfig config = new MinioConfig();
+    private final MinioInitializer minioInitializer = mock(MinioInitializer.class);
+    private HttpServer first;
+    private HttpServer second;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        first = liveness("first");
+        second = liveness("second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.stop(0);
+        second.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should warm up each pool once per shard endpoint, with the configured connection count")
+    void warmUp_ConfiguredShards_ProbesEachEndpoint() throws Exception {
+        // Given - two shards share the first endpoint
+        config.getTransport().getRead().setWarmupConnections(3);
+        config.getTransport().getWrite().setWarmupConnections(2);
+        StorageShardRegistry shards = new StorageShardRegistry(List.of(
+            shard(StorageShard.PRIMARY, first),
+            shard("archive", first),
+            shard("eu", second)), 16);
+        OkHttpClient readClient = config.minioReadHttpClient();
+        OkHttpClient writeClient = config.minioWriteHttpClient();
+        MinioTransportMonitor monitor = new MinioTransportMonitor(
+            readClient, writeClient, config, shards, minioInitializer, meterRegistry);
+
+        // When
+        monitor.warmUp().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(probes.get("first")).hasValue(5);
+        assertThat(probes.get("second")).hasValue(5);
+        assertThat(readClient.connectionPool().idleConnectionCount()).isBetween(2, 6);
+        assertThat(meterRegistry.get("minio.http.connections.idle").tag("pool", "read").gauge().value())
+            .isEqualTo(readClient.connectionPool().idleConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should open no more warm-up connections than the pool keeps idle")
+    void warmUp_MoreThanMaxIdle_CappedAtMaxIdle() throws Exception {
+        // Given
+        config.getTransport().getRead().setWarmupConnections(10);
+        config.getTransport().getRead().setMaxIdleConnections(3);
+        config.getTransport().getWrite().setWarmupConnections(0);
+        StorageShardRegistry shards = new StorageShardRegistry(List.of(shard(StorageShard.PRIMARY, first)), 16);
+        MinioTransportMonitor monitor = new MinioTransportMonitor(config.minioReadHttpClient(),
+            config.minioWriteHttpClient(), config, shards, minioInitializer, meterRegistry);
+
+        // When
+        monitor.warmUp().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(probes.get("first")).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should only warm up once storage is ready, without blocking the ready event")
+    void warmUpWhenStorageReady_StorageNotReady_WaitsForIt() throws Exception {
+        // Given
+        config.getTransport().getRead().setWarmupConnections(2);
+        config.getTransport().getWrite().setWarmupConnections(0);
+        StorageShardRegistry shards = new StorageShardRegistry(List.of(shard(StorageShard.PRIMARY, first)), 16);
+        CompletableFuture<Void> storageReady = new CompletableFuture<>();
+        when(minioInitializer.whenReady()).thenReturn(storageReady);
+        MinioTransportMonitor monitor = new MinioTransportMonitor(config.minioReadHttpClient(),
+            config.minioWriteHttpClient(), config, shards, minioInitializer, meterRegistry);
+
+        // When
+        monitor.warmUpWhenStorageReady();
+
+        // Then
+        assertThat(probes.get("first")).hasValue(0);
+        storageReady.complete(null);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (probes.get("first").get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(probes.get("first")).hasValue(2);
+    }
+
+    private HttpServer liveness(String name) throws IOException {
+        probes.put(name, new AtomicInteger());
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/minio/health/live", exchange -> {
+            probes.get(name).incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+        return server;
+    }
+
+    private static StorageShard shard(String name, HttpServer server) {
+        String endpoint = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new StorageShard(name, endpoint, endpoint, "images", "us-east-1", 1, null, null, null, null);
+    }
+}
@@ -0,0 +1,122 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.minio.messages.Part;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.service.MultipartMinioClient;
+import org.igdevx.imageservice.service.ParallelMultipartUploader;
+import org.igdevx.imageservice.service.StorageShard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@DisplayName("ParallelMultipartUploader Unit Tests")
+class ParallelMultipartUploaderTest {
+
+    private static final String BUCKET_NAME = "marche-conclu-images-test";
+    private static final String CLOUD_PATH = "users/producteur-001/banner.jpg";
+    private static final int MB = 1024 * 1024;
+
+    private MultipartMinioClient multipartClient;
+    private StorageShard shard;
+    private ThreadPoolTaskExecutor executor;
+    private ParallelMultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.setBucketName(BUCKET_NAME);
+        minioConfig.getUpload().setPartSize(5L * MB);
+        minioConfig.getUpload().setParallelism(2);
+        minioConfig.getUpload().setMultipartThreshold(8L * MB);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+
+        multipartClient = mock(MultipartMinioClient.class);
+        when(multipartClient.createMultipartUpload(eq(BUCKET_NAME), any(), eq(CLOUD_PATH), eq("image/jpeg")))
+            .thenReturn("upload-1");
+
+        shard = new StorageShard(StorageShard.PRIMARY, "http://localhost:9000", "http://localhost:9000", BUCKET_NAME,
+            null, 1, null, null, multipartClient, null);
+        uploader = new ParallelMultipartUploader(minioConfig, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should only accept objects above the multipart threshold")
+    void accepts_Threshold() {
+        assertThat(uploader.accepts(8L * MB)).isTrue();
+        assertThat(uploader.accepts(8L * MB - 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should upload every part and complete with parts in order")
+    void upload_AllPartsSucceed_CompletesUpload() throws Exception {
+        // Given - 12 MB split into 5 + 5 + 2 MB parts
+        int size = 12 * MB;
+        when(multipartClient.uploadPart(eq(BUCKET_NAME), any(), eq(CLOUD_PATH), eq("upload-1"), anyInt(), any(byte[].class), anyInt()))
+            .thenAnswer(invocation -> new Part(invocation.getArgument(4), "etag-" + invocation.getArgument(4)));
+
+        // When
+        uploader.upload(shard, new ByteArrayInputStream(new byte[size]), size, CLOUD_PATH, "image/jpeg");
+
+        // Then
+        verify(multipartClient).uploadPart(any(), any(), any(), any(), eq(1), any(byte[].class), eq(5 * MB));
+        verify(multipartClient).uploadPart(any(), any(), any(), any(), eq(2), any(byte[].class), eq(5 * MB));
+        verify(multipartClient).uploadPart(any(), any(), any(), any(), eq(3), any(byte[].class), eq(2 * MB));
+
+        ArgumentCaptor<Part[]> parts = ArgumentCaptor.forClass(Part[].class);
+        verify(multipartClient).completeMultipartUpload(eq(BUCKET_NAME), any(), eq(CLOUD_PATH), eq("upload-1"), parts.capture());
+        assertThat(parts.getValue()).extracting(Part::partNumber).containsExactly(1, 2, 3);
+        verify(multipartClient, never()).abortMultipartUpload(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should abort the multipart upload when a part fails")
+    void upload_PartFails_AbortsUpload() throws Exception {
+        // Given
+        int size = 12 * MB;
+        when(multipartClient.uploadPart(any(), any(), any(), any(), anyInt(), any(byte[].class), anyInt()))
+            .thenThrow(new IOException("connection reset"));
+
+        // When / Then
+        assertThatThrownBy(() -> uploader.upload(shard, new ByteArrayInputStream(new byte[size]), size, CLOUD_PATH, "image/jpeg"))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("connection reset");
+
+        verify(multipartClient).abortMultipartUpload(eq(BUCKET_NAME), any(), eq(CLOUD_PATH), eq("upload-1"));
+        verify(multipartClient, never()).completeMultipartUpload(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should abort when the stream is shorter than announced")
+    void upload_TruncatedStream_AbortsUpload() throws Exception {
+        // Given
+        when(multipartClient.uploadPart(any(), any(), any(), any(), anyInt(), any(byte[].class), anyInt()))
+            .thenAnswer(invocation -> new Part(invocation.getArgument(4), "etag"));
+
+        // When / Then
+        assertThatThrownBy(() -> uploader.upload(shard, new ByteArrayInputStream(new byte[6 * MB]), 12L * MB, CLOUD_PATH, "image/jpeg"))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Stream ended");
+
+        verify(multipartClient).abortMultipartUpload(eq(BUCKET_NAME), any(), eq(CLOUD_PATH), eq("upload-1"));
+    }
+}
@@ -0,0 +1,229 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.dto.GalleryImageResponse;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.ImageMetadataCache;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.ProductGalleryService;
+import org.igdevx.imageservice.service.ReadYourWritesTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductGalleryService Unit Tests")
+class ProductGalleryServiceTest {
+
+    private static final String PRODUCT_ID = "product-001";
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ImageMetadataCache imageCache;
+
+    @InjectMocks
+    private ProductGalleryService galleryService;
+
+    @Test
+    @DisplayName("Should move an image by updating its own position between its new neighbours")
+    void move_GapAvailable_UpdatesMovedRowOnly() {
+        // Given
+        ImageRepository.GalleryEntry first = entry(1024L);
+        ImageRepository.GalleryEntry second = entry(2048L);
+        ImageRepository.GalleryEntry third = entry(3072L);
+        when(imageRepository.findGalleries(new String[]{PRODUCT_ID})).thenReturn(List.of(first, second, third));
+
+        // When
+        galleryService.move(PRODUCT_ID, third.getId(), first.getId());
+
+        // Then
+        verify(imageRepository).lockGallery(PRODUCT_ID);
+        verify(imageRepository).updateGalleryPosition(third.getId(), 1536L);
+        verify(imageRepository, never()).renumberGallery(any(), any());
+        verify(imageCache).evictAfterCommit(third.getId(), null, PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("Should renumber the gallery once two neighbours have no position left between them")
+    void move_NoGapLeft_RenumbersGallery() {
+        // Given
+        ImageRepository.GalleryEntry first = entry(1024L);
+        ImageRepository.GalleryEntry second = entry(1025L);
+        ImageRepository.GalleryEntry third = entry(2048L);
+        when(imageRepository.findGalleries(new String[]{PRODUCT_ID})).thenReturn(List.of(first, second, third));
+
+        // When
+        galleryService.move(PRODUCT_ID, third.getId(), first.getId());
+
+        // Then
+        verify(imageRepository).renumberGallery(
+            new UUID[]{first.getId(), third.getId(), second.getId()},
+            new Long[]{1024L, 2048L, 3072L});
+        verify(imageRepository, never()).updateGalleryPosition(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should make the first image of a product primary and the next ones follow it")
+    void placeNewImage_AppendsAndKeepsOnePrimary() {
+        // Given
+        Image firstImage = Image.builder().productId(PRODUCT_ID).build();
+        Image secondImage = Image.builder().productId(PRODUCT_ID).build();
+        when(imageRepository.findLastGalleryPosition(PRODUCT_ID)).thenReturn(null, 1024L);
+        when(imageRepository.existsPrimaryByProductId(PRODUCT_ID)).thenReturn(false, true);
+
+        // When
+        galleryService.placeNewImage(firstImage);
+        galleryService.placeNewImage(secondImage);
+
+        // Then
+        assertThat(firstImage.getGalleryPosition()).isEqualTo(1024L);
+        assertThat(firstImage.isPrimary()).isTrue();
+        assertThat(secondImage.getGalleryPosition()).isEqualTo(2048L);
+        assertThat(secondImage.isPrimary()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should move an image to the front below the first position, going negative if needed")
+    void move_ToFront_TakesPositionBeforeFirst() {
+        // Given - the first image was already moved to the front once
+        ImageRepository.GalleryEntry first = entry(0L);
+        ImageRepository.GalleryEntry second = entry(1024L);
+        ImageRepository.GalleryEntry third = entry(2048L);
+        when(imageRepository.findGalleries(new String[]{PRODUCT_ID})).thenReturn(List.of(first, second, third));
+
+        // When
+        galleryService.move(PRODUCT_ID, third.getId(), null);
+
+        // Then
+        verify(imageRepository).updateGalleryPosition(third.getId(), -1024L);
+        verify(imageRepository, never()).renumberGallery(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should make an image of the gallery primary and evict it")
+    void setPrimary_ImageInGallery_UpdatesPrimary() {
+        // Given
+        ImageRepository.GalleryEntry first = entry(1024L);
+        ImageRepository.GalleryEntry second = entry(2048L);
+        when(imageRepository.findGalleries(new String[]{PRODUCT_ID})).thenReturn(List.of(first, second));
+
+        // When
+        galleryService.setPrimary(PRODUCT_ID, second.getId());
+
+        // Then
+        verify(imageRepository).lockGallery(PRODUCT_ID);
+        verify(imageRepository).updatePrimary(PRODUCT_ID, second.getId());
+        verify(readYourWrites).recordImageWrite(second.getId(), null, PRODUCT_ID);
+        verify(imageCache).evictAfterCommit(second.getId(), null, PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("Should refuse to make primary an image that is not in the gallery")
+    void setPrimary_ImageNotInGallery_NotFound() {
+        // Given
+        ImageRepository.GalleryEntry first = entry(1024L);
+        when(imageRepository.findGalleries(new String[]{PRODUCT_ID})).thenReturn(List.of(first));
+        UUID otherImage = UUID.randomUUID();
+
+        // When / Then
+        assertThatThrownBy(() -> galleryService.setPrimary(PRODUCT_ID, otherImage))
+            .isExactlyInstanceOf(RuntimeException.class)
+            .hasMessageContaining("not found");
+        verify(imageRepository, never()).updatePrimary(any(), any());
+        verify(imageCache, never()).evictAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should promote the first remaining image when the primary one is removed")
+    void onImageRemoved_Primary_PromotesFirstRemaining() {
+        // Given
+        Image removed = Image.builder().id(UUID.randomUUID()).productId(PRODUCT_ID).primary(true).build();
+
+        // When
+        galleryService.onImageRemoved(removed);
+
+        // Then
+        verify(imageRepository).lockGallery(PRODUCT_ID);
+        verify(imageRepository).promoteFirstGalleryImage(PRODUCT_ID, removed.getId());
+    }
+
+    @Test
+    @DisplayName("Should leave the gallery alone when a non-primary image is removed")
+    void onImageRemoved_NotPrimary_NoPromotion() {
+        // Given
+        Image removed = Image.builder().id(UUID.randomUUID()).productId(PRODUCT_ID).primary(false).build();
+
+        // When
+        galleryService.onImageRemoved(removed);
+
+        // Then
+        verifyNoInteractions(imageRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the galleries in the order requested, empty for products without images")
+    void getGalleries_UnknownProducts_KeepRequestedOrder() {
+        // Given
+        ImageRepository.GalleryEntry image = entry("product-b", 1024L);
+        when(imageRepository.findGalleries(new String[]{"product-c", "product-a", "product-b"}))
+            .thenReturn(List.of(image));
+
+        // When
+        Map<String, List<GalleryImageResponse>> galleries =
+            galleryService.getGalleries(List.of("product-c", "product-a", "product-b"));
+
+        // Then
+        assertThat(galleries).containsOnlyKeys("product-c", "product-a", "product-b");
+        assertThat(galleries.keySet()).containsExactly("product-c", "product-a", "product-b");
+        assertThat(galleries.get("product-c")).isEmpty();
+        assertThat(galleries.get("product-a")).isEmpty();
+        assertThat(galleries.get("product-b")).extracting(GalleryImageResponse::getId).containsExactly(image.getId());
+    }
+
+    @Test
+    @DisplayName("Should refuse more than 100 products in one request")
+    void getGalleries_TooManyProducts_Refused() {
+        // Given
+        List<String> productIds = IntStream.rangeClosed(1, 101).mapToObj(i -> "product-" + i).toList();
+
+        // When / Then
+        assertThatThrownBy(() -> galleryService.getGalleries(productIds))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(imageRepository);
+    }
+
+    private ImageRepository.GalleryEntry entry(Long position) {
+        return entry(PRODUCT_ID, position);
+    }
+
+    private ImageRepository.GalleryEntry entry(String productId, Long position) {
+        ImageRepository.GalleryEntry entry = mock(ImageRepository.GalleryEntry.class);
+        UUID id = UUID.randomUUID();
+        lenient().when(entry.getId()).thenReturn(id);
+        lenient().when(entry.getProductId()).thenReturn(productId);
+        lenient().when(entry.getPosition()).thenReturn(position);
+        return entry;
+    }
+}
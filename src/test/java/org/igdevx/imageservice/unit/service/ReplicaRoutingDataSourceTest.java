@@ -0,0 +1,168 @@
+package org.igdevx.imageservice.unit.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ReplicaRoutingContext;
+import org.igdevx.imageservice.config.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ResultSet lagResult;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        Statement statement = mock(Statement.class);
+        lagResult = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lagResult);
+        when(lagResult.next()).thenReturn(true);
+
+        routingDataSource = new ReplicaRoutingDataSource(
+            primary, Map.of("replica-1", replica), Duration.ofSeconds(5), Duration.ofMillis(200));
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to a replica within the lag bound")
+    void getConnection_ReadOnlyAndReplicaCurrent_UsesReplica() throws Exception {
+        // Given
+        when(lagResult.getDouble(1)).thenReturn(0.5);
+        routingDataSource.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection connection = routingDataSource.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Should keep read-write transactions on the primary")
+    void getConnection_ReadWrite_UsesPrimary() throws Exception {
+        // Given
+        when(lagResult.getDouble(1)).thenReturn(0.0);
+        routingDataSource.checkLag();
+
+        // When / Then
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica lags too far behind")
+    void getConnection_ReplicaLagging_UsesPrimary() throws Exception {
+        // Given
+        when(lagResult.getDouble(1)).thenReturn(30.0);
+        routingDataSource.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when the transaction is pinned after a recent write")
+    void getConnection_PinnedToPrimary_UsesPrimary() throws Exception {
+        // Given
+        when(lagResult.getDouble(1)).thenReturn(0.0);
+        routingDataSource.checkLag();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.pinToPrimary();
+
+        // When / Then
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should give up on an unreachable replica after the lag check timeout and not probe it twice")
+    void checkLag_ReplicaUnreachable_SkipsItWithinTimeout() throws Exception {
+        // Given - getConnection() hangs as it does until Hikari's connection timeout
+        CountDownLatch unreachable = new CountDownLatch(1);
+        DataSource hanging = mock(DataSource.class);
+        when(hanging.getConnection()).thenAnswer(invocation -> {
+            unreachable.await();
+            throw new SQLException("Connection is not available");
+        });
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primary, Map.of("replica-1", hanging), Duration.ofSeconds(5), Duration.ofMillis(200));
+        routing.afterPropertiesSet();
+
+        try {
+            // When
+            long started = System.nanoTime();
+            routing.checkLag();
+            routing.checkLag();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            // Then
+            assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+            verify(hanging, times(1)).getConnection();
+        } finally {
+            unreachable.countDown();
+            routing.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should close the replica pools, but not the primary, when destroyed")
+    void destroy_ClosesReplicaPools() throws Exception {
+        // Given
+        HikariDataSource primaryPool = mock(HikariDataSource.class);
+        HikariDataSource replicaPool = mock(HikariDataSource.class);
+        ReplicaRoutingDataSource pooled = new ReplicaRoutingDataSource(
+            primaryPool, Map.of("replica-1", replicaPool), Duration.ofSeconds(5), Duration.ofMillis(200));
+
+        // When
+        pooled.destroy();
+
+        // Then
+        verify(replicaPool).close();
+        verify(primaryPool, never()).close();
+    }
+}
@@ -0,0 +1,198 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.minio.messages.Part;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.ResumableUploadConfig;
+import org.igdevx.imageservice.dto.UploadResponse;
+import org.igdevx.imageservice.dto.UploadSessionResponse;
+import org.igdevx.imageservice.exception.UploadOffsetMismatchException;
+import org.igdevx.imageservice.model.UploadSession;
+import org.igdevx.imageservice.model.UploadSessionPart;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.repository.UploadSessionPartRepository;
+import org.igdevx.imageservice.repository.UploadSessionRepository;
+import org.igdevx.imageservice.service.ImageService;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.MultipartMinioClient;
+import org.igdevx.imageservice.service.ResumableUploadService;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResumableUploadService Unit Tests")
+class ResumableUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 5 * 1024 * 1024;
+    private static final long TOTAL_SIZE = CHUNK_SIZE + 1024;
+    private static final String CLOUD_PATH = "users/producteur-001/banner-abc.jpg";
+
+    @Mock
+    private UploadSessionRepository sessionRepository;
+
+    @Mock
+    private UploadSessionPartRepository partRepository;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private MultipartMinioClient multipartClient;
+
+    @Mock
+    private StorageShardRegistry shards;
+
+    @Spy
+    private ResumableUploadConfig resumableConfig = new ResumableUploadConfig();
+
+    @InjectMocks
+    private ResumableUploadService resumableUploadService;
+
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() {
+        StorageShard shard = new StorageShard(StorageShard.PRIMARY, "http://localhost:9000", "http://localhost:9000",
+            "marche-conclu-images-test", null, 1, null, null, multipartClient, null);
+        lenient().when(shards.get(StorageShard.PRIMARY)).thenReturn(shard);
+        session = UploadSession.builder()
+            .id(UUID.randomUUID())
+            .imageId(UUID.randomUUID())
+            .uploadId("upload-1")
+            .cloudPath(CLOUD_PATH)
+            .totalSize(TOTAL_SIZE)
+            .chunkSize(CHUNK_SIZE)
+            .expiresAt(LocalDateTime.now().plusHours(1))
+            .build();
+        lenient().when(sessionRepository.findByIdAndExpiresAtAfter(eq(session.getId()), any()))
+            .thenReturn(Optional.of(session));
+    }
+
+    @Test
+    @DisplayName("Should store a chunk as the matching multipart part and advance the offset")
+    void uploadChunk_AtCurrentOffset_StoresPart() throws Exception {
+        // Given
+        when(multipartClient.uploadPart(any(), any(), eq(CLOUD_PATH), eq("upload-1"), eq(1), any(byte[].class), eq(CHUNK_SIZE)))
+            .thenReturn(new Part(1, "etag-1"));
+        when(sessionRepository.advanceOffset(session.getId(), 0L, CHUNK_SIZE)).thenReturn(1);
+
+        // When
+        UploadSessionResponse response = resumableUploadService.uploadChunk(
+            session.getId(), 0L, CHUNK_SIZE, new ByteArrayInputStream(new byte[CHUNK_SIZE]));
+
+        // Then
+        assertThat(response.getOffset()).isEqualTo(CHUNK_SIZE);
+        ArgumentCaptor<UploadSessionPart> part = ArgumentCaptor.forClass(UploadSessionPart.class);
+        verify(partRepository).save(part.capture());
+        assertThat(part.getValue().getPartNumber()).isEqualTo(1);
+        assertThat(part.getValue().getEtag()).isEqualTo("etag-1");
+    }
+
+    @Test
+    @DisplayName("Should refuse a chunk that was already received without transferring it again")
+    void uploadChunk_AlreadyReceived_ThrowsConflict() throws Exception {
+        // Given
+        session.setReceivedBytes(CHUNK_SIZE);
+
+        // When / Then
+        assertThatThrownBy(() -> resumableUploadService.uploadChunk(
+                session.getId(), 0L, CHUNK_SIZE, new ByteArrayInputStream(new byte[CHUNK_SIZE])))
+            .isInstanceOf(UploadOffsetMismatchException.class)
+            .extracting("currentOffset")
+            .isEqualTo((long) CHUNK_SIZE);
+
+        verify(multipartClient, never()).uploadPart(any(), any(), any(), any(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated chunk without storing a part")
+    void uploadChunk_Truncated_ThrowsException() throws Exception {
+        // When / Then
+        assertThatThrownBy(() -> resumableUploadService.uploadChunk(
+                session.getId(), 0L, -1L, new ByteArrayInputStream(new byte[1024])))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(multipartClient, never()).uploadPart(any(), any(), any(), any(), anyInt(), any(), anyInt());
+        verify(sessionRepository, never()).advanceOffset(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not finalize before every byte was received")
+    void finalizeSession_Incomplete_ThrowsException() throws Exception {
+        // Given
+        session.setReceivedBytes(CHUNK_SIZE);
+
+        // When / Then
+        assertThatThrownBy(() -> resumableUploadService.finalizeSession(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Upload incomplete");
+
+        verify(multipartClient, never()).completeMultipartUpload(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should complete the multipart upload and activate the image")
+    void finalizeSession_Complete_ActivatesImage() throws Exception {
+        // Given
+        session.setReceivedBytes(TOTAL_SIZE);
+        when(partRepository.findBySessionIdOrderByPartNumber(session.getId())).thenReturn(List.of(
+            UploadSessionPart.builder().sessionId(session.getId()).partNumber(1).sizeBytes(CHUNK_SIZE).etag("etag-1").build(),
+            UploadSessionPart.builder().sessionId(session.getId()).partNumber(2).sizeBytes(1024).etag("etag-2").build()
+        ));
+        UploadResponse uploaded = UploadResponse.builder().imageId(session.getImageId().toString()).build();
+        when(imageService.completeUpload(session.getImageId())).thenReturn(uploaded);
+
+        // When
+        UploadResponse response = resumableUploadService.finalizeSession(session.getId());
+
+        // Then
+        assertThat(response).isSameAs(uploaded);
+        ArgumentCaptor<Part[]> parts = ArgumentCaptor.forClass(Part[].class);
+        verify(multipartClient).completeMultipartUpload(any(), any(), eq(CLOUD_PATH), eq("upload-1"), parts.capture());
+        assertThat(parts.getValue()).extracting(Part::partNumber).containsExactly(1, 2);
+        verify(sessionRepository).deleteById(session.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the session when the image cannot be activated")
+    void finalizeSession_VerificationFails_KeepsSession() throws Exception {
+        // Given
+        session.setReceivedBytes(TOTAL_SIZE);
+        when(partRepository.findBySessionIdOrderByPartNumber(session.getId())).thenReturn(List.of(
+            UploadSessionPart.builder().sessionId(session.getId()).partNumber(1).sizeBytes(CHUNK_SIZE).etag("etag-1").build()
+        ));
+        when(imageService.completeUpload(session.getImageId()))
+            .thenThrow(new IllegalArgumentException("Stored object does not match the declared size"));
+
+        // When / Then
+        assertThatThrownBy(() -> resumableUploadService.finalizeSession(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(sessionRepository, never()).deleteById(any());
+    }
+}
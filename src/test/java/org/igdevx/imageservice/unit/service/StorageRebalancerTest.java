@@ -0,0 +1,86 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.MinioConfig;
+import org.igdevx.imageservice.model.Image;
+import org.igdevx.imageservice.repository.ImageRepository;
+import org.igdevx.imageservice.service.MinioService;
+import org.igdevx.imageservice.service.StorageRebalancer;
+import org.igdevx.imageservice.service.StorageShard;
+import org.igdevx.imageservice.service.StorageShardRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageRebalancer Unit Tests")
+class StorageRebalancerTest {
+
+    // Same order as Postgres, which compares uuids as unsigned bytes
+    private static final Comparator<UUID> POSTGRES_ORDER = Comparator
+        .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+        .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Test
+    @DisplayName("Should page through ids on both sides of 0x80, including every UUIDv7")
+    void start_PagesOverWholeIdRange() {
+        // Given - v7 ids start with a small timestamp, random v4 ids may have the top bit set
+        List<Image> images = List.of(
+            image(new UUID(0x0190_0000_0000_7000L, 0x8000_0000_0000_0001L)),
+            image(new UUID(0x0199_ffff_ffff_7fffL, 0x8000_0000_0000_0002L)),
+            image(new UUID(0x7fff_ffff_ffff_4fffL, 0x8000_0000_0000_0003L)),
+            image(new UUID(0x8000_0000_0000_4000L, 0x8000_0000_0000_0004L)),
+            image(new UUID(0xffff_ffff_ffff_4fffL, 0x8000_0000_0000_0005L))
+        );
+        when(imageRepository.findActivePageAfter(any(), anyInt())).thenAnswer(invocation -> {
+            UUID after = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return images.stream()
+                .filter(image -> POSTGRES_ORDER.compare(image.getId(), after) > 0)
+                .sorted(Comparator.comparing(Image::getId, POSTGRES_ORDER))
+                .limit(limit)
+                .toList();
+        });
+
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.getRebalance().setBatchSize(2);
+        minioConfig.getRebalance().setPause(Duration.ZERO);
+        StorageShardRegistry shards = new StorageShardRegistry(List.of(
+            new StorageShard(StorageShard.PRIMARY, null, null, null, null, 1, null, null, null, null)), 16);
+        StorageRebalancer rebalancer = new StorageRebalancer(imageRepository, minioService, shards, minioConfig, Runnable::run);
+
+        // When
+        rebalancer.start();
+
+        // Then
+        assertThat(rebalancer.status().getScanned()).isEqualTo(images.size());
+        assertThat(rebalancer.status().isRunning()).isFalse();
+    }
+
+    private Image image(UUID id) {
+        return Image.builder()
+            .id(id)
+            .userId("user-" + id)
+            .shard(StorageShard.PRIMARY)
+            .cloudPath("users/" + id + "/profile.jpg")
+            .build();
+    }
+}
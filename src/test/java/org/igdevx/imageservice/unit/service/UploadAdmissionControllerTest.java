@@ -0,0 +1,137 @@
+package org.igdevx.imageservice.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.UploadAdmissionConfig;
+import org.igdevx.imageservice.exception.UploadRejectedException;
+import org.igdevx.imageservice.service.UploadAdmissionController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("UploadAdmissionController Unit Tests")
+class UploadAdmissionControllerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UploadAdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        UploadAdmissionConfig config = new UploadAdmissionConfig();
+        config.setMaxInFlightBytes(20 * MB);
+        config.setMaxConcurrentPerUser(2);
+        config.setQueueTimeout(Duration.ofMillis(50));
+        config.setRetryAfter(Duration.ofSeconds(7));
+        meterRegistry = new SimpleMeterRegistry();
+        admissionController = new UploadAdmissionController(config, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject uploads beyond the in-flight bytes budget")
+    void admitBytes_BudgetExhausted_Rejects() {
+        // Given
+        UploadAdmissionController.Permit first = admissionController.admitBytes(10 * MB);
+        UploadAdmissionController.Permit second = admissionController.admitBytes(10 * MB);
+
+        // When / Then
+        assertThatThrownBy(() -> admissionController.admitBytes(MB))
+            .isInstanceOf(UploadRejectedException.class)
+            .extracting("retryAfterSeconds").isEqualTo(7L);
+        assertThat(meterRegistry.counter("upload.admission.rejected", "reason", "bytes").count()).isEqualTo(1);
+
+        first.close();
+        assertThatCode(() -> admissionController.admitBytes(MB).close()).doesNotThrowAnyException();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should admit a single request larger than the whole budget")
+    void admitBytes_LargerThanBudget_AdmittedAlone() {
+        UploadAdmissionController.Permit permit = admissionController.admitBytes(50 * MB);
+
+        assertThatThrownBy(() -> admissionController.admitBytes(MB))
+            .isInstanceOf(UploadRejectedException.class);
+
+        permit.close();
+    }
+
+    @Test
+    @DisplayName("Should limit concurrent uploads per user without affecting others")
+    void admitUser_LimitReached_RejectsOnlyThatUser() {
+        // Given
+        UploadAdmissionController.Permit first = admissionController.admitUser("user-001");
+        UploadAdmissionController.Permit second = admissionController.admitUser("user-001");
+
+        // When / Then
+        assertThatThrownBy(() -> admissionController.admitUser("user-001"))
+            .isInstanceOf(UploadRejectedException.class);
+        assertThatCode(() -> admissionController.admitUser("user-002").close()).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("upload.admission.rejected", "reason", "user").count()).isEqualTo(1);
+
+        first.close();
+        assertThatCode(() -> admissionController.admitUser("user-001").close()).doesNotThrowAnyException();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should admit a waiting request once a slot is released")
+    void admitUser_SlotReleasedWhileWaiting_Admitted() throws Exception {
+        // Given
+        UploadAdmissionConfig config = new UploadAdmissionConfig();
+        config.setMaxConcurrentPerUser(1);
+        config.setQueueTimeout(Duration.ofSeconds(5));
+        UploadAdmissionController controller = new UploadAdmissionController(config, new SimpleMeterRegistry());
+        UploadAdmissionController.Permit held = controller.admitUser("user-001");
+
+        // When
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            held.close();
+        });
+        releaser.start();
+
+        // Then
+        assertThatCode(() -> controller.admitUser("user-001").close()).doesNotThrowAnyException();
+        releaser.join();
+    }
+
+    @Test
+    @DisplayName("Should hand a released slot to the request already waiting, not to a newcomer")
+    void admitUser_SlotReleased_WaiterServedFirst() throws Exception {
+        // Given
+        UploadAdmissionConfig config = new UploadAdmissionConfig();
+        config.setMaxConcurrentPerUser(1);
+        config.setQueueTimeout(Duration.ofMillis(500));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UploadAdmissionController controller = new UploadAdmissionController(config, registry);
+        UploadAdmissionController.Permit held = controller.admitUser("user-001");
+
+        UploadAdmissionController.Permit[] waiterPermit = new UploadAdmissionController.Permit[1];
+        Thread waiter = new Thread(() -> waiterPermit[0] = controller.admitUser("user-001"));
+        waiter.start();
+        while (registry.get("upload.admission.waiting").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When - the slot is released just as a new request arrives
+        held.close();
+
+        // Then
+        assertThatThrownBy(() -> controller.admitUser("user-001"))
+            .isInstanceOf(UploadRejectedException.class);
+        waiter.join();
+        assertThat(waiterPermit[0]).isNotNull();
+        waiterPermit[0].close();
+    }
+}
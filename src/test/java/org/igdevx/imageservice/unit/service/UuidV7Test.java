@@ -0,0 +1,77 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.model.UuidV7;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("UuidV7 Unit Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should set the version 7 and RFC variant bits")
+    void generate_VersionAndVariant() {
+        // When
+        UUID id = UuidV7.generate();
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should embed the current Unix time in milliseconds")
+    void generate_EmbedsTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7.generate();
+
+        // Then - the top 48 bits; a sequence overflow may borrow a few milliseconds ahead
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertThat(millis).isBetween(before, System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing unique IDs, even within one millisecond")
+    void generate_Burst_StrictlyIncreasing() {
+        // Given
+        Set<UUID> seen = new HashSet<>();
+        UUID previous = UuidV7.generate();
+
+        // When / Then - compared as Postgres does, i.e. as unsigned bytes
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                .isPositive();
+            assertThat(seen.add(next)).isTrue();
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Should build the same version 7 ID from the same time and seed")
+    void of_SeededRandom_Reproducible() {
+        // Given
+        long millis = 1_700_000_000_000L;
+
+        // When
+        UUID first = UuidV7.of(millis, new SplittableRandom(42));
+        UUID second = UuidV7.of(millis, new SplittableRandom(42));
+
+        // Then
+        assertThat(first).isEqualTo(second);
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(first.variant()).isEqualTo(2);
+        assertThat(first.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    }
+}
@@ -0,0 +1,64 @@
+package org.igdevx.imageservice.unit.service;
+
+import org.igdevx.imageservice.UnitTest;
+import org.igdevx.imageservice.config.DatasetGeneratorConfig;
+import org.igdevx.imageservice.seed.WeightedSampler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+@UnitTest
+@DisplayName("WeightedSampler Unit Tests")
+class WeightedSamplerTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    @DisplayName("Should draw indexes in proportion to their weights")
+    void index_FollowsWeights() {
+        // Given
+        WeightedSampler sampler = new WeightedSampler(new double[]{1, 0, 3});
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[3];
+
+        // When
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.index(random)]++;
+        }
+
+        // Then
+        assertThat(counts[1]).isZero();
+        assertThat(counts[0] / (double) DRAWS).isCloseTo(0.25, within(0.01));
+        assertThat(counts[2] / (double) DRAWS).isCloseTo(0.75, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Should draw Zipf ranks between 1 and max, rank 1 the most frequent")
+    void zipf_RanksWithinBoundsAndSkewed() {
+        // Given
+        WeightedSampler sampler = WeightedSampler.zipf(new DatasetGeneratorConfig.Zipf(100, 1.2));
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[101];
+
+        // When
+        for (int i = 0; i < DRAWS; i++) {
+            int rank = sampler.sample(random);
+            assertThat(rank).isBetween(1, 100);
+            counts[rank]++;
+        }
+
+        // Then - 1 / 2^1.2 of the rank-1 frequency for rank 2
+        assertThat(counts[1]).isGreaterThan(counts[2]);
+        assertThat(counts[2] / (double) counts[1]).isCloseTo(Math.pow(2, -1.2), within(0.03));
+    }
+
+    @Test
+    @DisplayName("Should reject weights that are all zero")
+    void constructor_AllZero_Throws() {
+        assertThatThrownBy(() -> new WeightedSampler(new double[]{0, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}